@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2015, 2017, 2021, 2024 XStream Committers.
+ * Copyright (C) 2015, 2017, 2021, 2024, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -40,6 +40,7 @@ import com.ctc.wstx.api.WstxInputProperties;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.binary.BinaryStream2Driver;
 import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
 import com.thoughtworks.xstream.io.json.JettisonMappedXmlDriver;
 import com.thoughtworks.xstream.io.xml.BEAStaxDriver;
@@ -51,6 +52,7 @@ import com.thoughtworks.xstream.io.xml.KXml2Driver;
 import com.thoughtworks.xstream.io.xml.MXParserDriver;
 import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
 import com.thoughtworks.xstream.io.xml.StandardStaxDriver;
+import com.thoughtworks.xstream.io.xml.Utf8PullDriver;
 import com.thoughtworks.xstream.io.xml.WstxDriver;
 import com.thoughtworks.xstream.io.xml.XomDriver;
 import com.thoughtworks.xstream.io.xml.Xpp3Driver;
@@ -91,6 +93,12 @@ public class ParserBenchmark {
          * @since 1.4.16
          */
         MXParser(new MXParserDriver()), //
+        /**
+         * Factory for the {@link Utf8PullDriver}.
+         *
+         * @since upcoming
+         */
+        Utf8Pull(new Utf8PullDriver()), //
         /**
          * Factory for the {@link Xpp3Driver}.
          *
@@ -170,6 +178,12 @@ public class ParserBenchmark {
          * @since 1.4.9
          */
         Binary(new BinaryStreamDriver()), //
+        /**
+         * Factory for the {@link BinaryStream2Driver}.
+         *
+         * @since upcoming
+         */
+        Binary2(new BinaryStream2Driver()), //
         /**
          * Factory for the {@link JettisonMappedXmlDriver}.
          *
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.reflection.MethodHandleReflectionProvider;
+import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import com.thoughtworks.xstream.converters.reflection.SunLimitedUnsafeReflectionProvider;
+import com.thoughtworks.xstream.converters.reflection.SunUnsafeReflectionProvider;
+import com.thoughtworks.xstream.io.xml.MXParserDriver;
+import com.thoughtworks.xstream.security.ArrayTypePermission;
+import com.thoughtworks.xstream.security.NoTypePermission;
+import com.thoughtworks.xstream.security.PrimitiveTypePermission;
+
+
+/**
+ * Benchmark for the different {@link ReflectionProvider} implementations.
+ *
+ * @since upcoming
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1)
+@Measurement(iterations = 16)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 5)
+public class ReflectionProviderBenchmark {
+
+    /**
+     * Reflection provider factory. Enum values used as parameter for the benchmark methods.
+     *
+     * @since upcoming
+     */
+    public enum ProviderFactory {
+        /**
+         * Factory for the {@link PureJavaReflectionProvider}.
+         *
+         * @since upcoming
+         */
+        PureJava {
+            @Override
+            public ReflectionProvider createProvider() {
+                return new PureJavaReflectionProvider();
+            }
+        },
+        /**
+         * Factory for the {@link SunLimitedUnsafeReflectionProvider}.
+         *
+         * @since upcoming
+         */
+        SunLimitedUnsafe {
+            @Override
+            public ReflectionProvider createProvider() {
+                return new SunLimitedUnsafeReflectionProvider();
+            }
+        },
+        /**
+         * Factory for the {@link SunUnsafeReflectionProvider}.
+         *
+         * @since upcoming
+         */
+        SunUnsafe {
+            @Override
+            public ReflectionProvider createProvider() {
+                return new SunUnsafeReflectionProvider();
+            }
+        },
+        /**
+         * Factory for the {@link MethodHandleReflectionProvider}.
+         *
+         * @since upcoming
+         */
+        MethodHandle {
+            @Override
+            public ReflectionProvider createProvider() {
+                return new MethodHandleReflectionProvider();
+            }
+        };
+
+        /**
+         * Create the reflection provider.
+         *
+         * @return the new instance
+         * @since upcoming
+         */
+        public abstract ReflectionProvider createProvider();
+    }
+
+    @SuppressWarnings("javadoc")
+    public static class Model {
+        private final int id;
+        private long l;
+        private double d;
+        private boolean b;
+        private char ch;
+        private String s;
+        private Model next;
+
+        public Model() {
+            this(0);
+        }
+
+        public Model(final int i) {
+            id = i;
+            l = i * 31L;
+            d = Math.PI * i;
+            b = i % 2 == 0;
+            ch = (char)('a' + i % 26);
+            s = Integer.toString(i, 16);
+        }
+    }
+
+    @Param
+    private ProviderFactory providerFactory;
+    private ReflectionProvider provider;
+    private XStream xstream;
+    private Model[] array;
+    private String xml;
+
+    /**
+     * Initialize the provider, the XStream instance and the data.
+     *
+     * @since upcoming
+     */
+    @Setup
+    public void init() {
+        provider = providerFactory.createProvider();
+        array = new Model[1000];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = new Model(i);
+            if (i > 0) {
+                array[i].next = array[i - 1];
+            }
+        }
+
+        xstream = new XStream(provider, new MXParserDriver());
+        xstream.addPermission(NoTypePermission.NONE);
+        xstream.addPermission(ArrayTypePermission.ARRAYS);
+        xstream.addPermission(PrimitiveTypePermission.PRIMITIVES);
+        xstream.allowTypes(Model.class, String.class);
+        xstream.alias("model", Model.class);
+        xml = xstream.toXML(array);
+    }
+
+    /**
+     * Read all fields of the models.
+     *
+     * @param blackhole the sink for the values
+     * @since upcoming
+     */
+    @Benchmark
+    public void readFields(final Blackhole blackhole) {
+        final ReflectionProvider.Visitor visitor = (name, type, definedIn, value) -> blackhole.consume(value);
+        for (final Model model : array) {
+            provider.visitSerializableFields(model, visitor);
+        }
+    }
+
+    /**
+     * Write all fields of a model.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writeFields() {
+        final Model model = new Model();
+        for (int i = 0; i < array.length; ++i) {
+            provider.writeField(model, "id", Integer.valueOf(i), Model.class);
+            provider.writeField(model, "l", Long.valueOf(i), Model.class);
+            provider.writeField(model, "d", Double.valueOf(i), Model.class);
+            provider.writeField(model, "b", Boolean.TRUE, Model.class);
+            provider.writeField(model, "ch", Character.valueOf('x'), Model.class);
+            provider.writeField(model, "s", "s", Model.class);
+            provider.writeField(model, "next", model, Model.class);
+        }
+    }
+
+    /**
+     * Marshal and unmarshal the models.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void roundTrip() {
+        final Object o = xstream.fromXML(xml);
+        assert xstream.toXML(o).equals(xml) : "XML differs";
+    }
+}
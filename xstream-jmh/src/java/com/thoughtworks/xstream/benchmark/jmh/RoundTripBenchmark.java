@@ -0,0 +1,465 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.benchmark.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jettison.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.benchmark.jmh.ParserBenchmark.DriverFactory;
+import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+
+
+/**
+ * Benchmark for complete round-trips of representative object graphs.
+ * <p>
+ * Each benchmark marshals an object graph with one of the drivers of the {@link ParserBenchmark} in one of XStream's
+ * reference modes and unmarshals the result again. The XStream instance is shared between all threads, the concurrent
+ * variants run with four threads. Cyclic graphs are not supported with {@link XStream#NO_REFERENCES} and are
+ * therefore benchmarked separately. Run the benchmark with <code>-prof gc</code> to report the allocation rate along
+ * with the throughput.
+ * </p>
+ *
+ * @since upcoming
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+public class RoundTripBenchmark {
+
+    /**
+     * Reference mode. Enum values used as parameter for the round-trip benchmark methods.
+     *
+     * @since upcoming
+     */
+    public enum ReferenceMode {
+        /**
+         * {@link XStream#NO_REFERENCES}.
+         *
+         * @since upcoming
+         */
+        NO_REFERENCES(XStream.NO_REFERENCES),
+        /**
+         * {@link XStream#ID_REFERENCES}.
+         *
+         * @since upcoming
+         */
+        ID_REFERENCES(XStream.ID_REFERENCES),
+        /**
+         * {@link XStream#XPATH_RELATIVE_REFERENCES}.
+         *
+         * @since upcoming
+         */
+        XPATH_RELATIVE_REFERENCES(XStream.XPATH_RELATIVE_REFERENCES);
+
+        private final int mode;
+
+        private ReferenceMode(final int mode) {
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * Graph factory. Enum values used as data generator for the round-trip benchmark methods.
+     *
+     * @since upcoming
+     */
+    public enum GraphFactory {
+        /**
+         * A tree of 100 levels with two leaves at each level.
+         *
+         * @since upcoming
+         */
+        DeepTree {
+            @Override
+            public Object createGraph() {
+                final TreeNode root = new TreeNode("root", 0);
+                TreeNode node = root;
+                for (int i = 1; i <= 100; ++i) {
+                    final TreeNode child = new TreeNode("node", i);
+                    node.children.add(new TreeNode("leaf", -i));
+                    node.children.add(child);
+                    node.children.add(new TreeNode("leaf", i));
+                    node = child;
+                }
+                return root;
+            }
+        },
+        /**
+         * A map with 2.000 entries of mixed values.
+         *
+         * @since upcoming
+         */
+        WideMap {
+            @Override
+            public Object createGraph() {
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < 2000; ++i) {
+                    final Object value;
+                    switch (i % 4) {
+                    case 0:
+                        value = Integer.valueOf(i);
+                        break;
+                    case 1:
+                        value = "value " + i;
+                        break;
+                    case 2:
+                        value = Double.valueOf(i / 7.0);
+                        break;
+                    default:
+                        value = Boolean.valueOf(i % 8 == 3);
+                    }
+                    map.put("key" + i, value);
+                }
+                return map;
+            }
+        },
+        /**
+         * 500 persons, each with a partner and friends, referencing each other in cycles. The references are limited to
+         * clusters of 10 persons, the first reference to a person nests its complete cluster and a graph spanning all
+         * persons would exceed the default stack size of the parsers.
+         *
+         * @since upcoming
+         */
+        CyclicGraph {
+            @Override
+            public Object createGraph() {
+                final int clusterSize = 10;
+                final List<Person> persons = new ArrayList<>();
+                for (int i = 0; i < 500; ++i) {
+                    persons.add(new Person("person " + i, 20 + i % 50));
+                }
+                for (int i = 0; i < persons.size(); ++i) {
+                    final Person person = persons.get(i);
+                    final int cluster = i - i % clusterSize;
+                    person.partner = persons.get(i ^ 1);
+                    for (int j = 1; j <= 3; ++j) {
+                        person.friends.add(persons.get(cluster + (i + j * 3) % clusterSize));
+                    }
+                }
+                return persons;
+            }
+        },
+        /**
+         * 1.000 immutable data transfer objects with nested value objects.
+         *
+         * @since upcoming
+         */
+        ValueObjects {
+            @Override
+            public Object createGraph() {
+                final List<Order> orders = new ArrayList<>();
+                final Status[] status = Status.values();
+                for (int i = 0; i < 1000; ++i) {
+                    orders.add(new Order(i, new Customer("customer " + i % 100, "street " + i % 37, "city " + i % 7),
+                        BigDecimal.valueOf(i * 1999L, 2), new Date(1700000000000L + i * 60000L),
+                        status[i % status.length], new String[]{"tag" + i % 3, "tag" + i % 5}));
+                }
+                return orders;
+            }
+        },
+        /**
+         * Samples with arrays of the different primitive types.
+         *
+         * @since upcoming
+         */
+        PrimitiveArrays {
+            @Override
+            public Object createGraph() {
+                final Samples samples = new Samples(1024);
+                for (int i = 0; i < 1024; ++i) {
+                    samples.ints[i] = i * 31;
+                    samples.longs[i] = i * 1000003L;
+                    samples.doubles[i] = Math.sqrt(i);
+                    samples.bytes[i] = (byte)i;
+                    samples.flags[i] = i % 3 == 0;
+                }
+                return samples;
+            }
+        };
+
+        /**
+         * Create the object graph.
+         *
+         * @return the new graph
+         * @since upcoming
+         */
+        public abstract Object createGraph();
+    }
+
+    @SuppressWarnings("javadoc")
+    public static class TreeNode {
+        private final String name;
+        private final int value;
+        private final List<TreeNode> children = new ArrayList<>();
+
+        public TreeNode(final String name, final int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    @SuppressWarnings("javadoc")
+    public static class Person {
+        private final String name;
+        private final int age;
+        private Person partner;
+        private final List<Person> friends = new ArrayList<>();
+
+        public Person(final String name, final int age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+
+    @SuppressWarnings("javadoc")
+    public enum Status {
+        NEW, PAID, SHIPPED, CANCELLED
+    }
+
+    @SuppressWarnings("javadoc")
+    public static final class Customer {
+        private final String name;
+        private final String street;
+        private final String city;
+
+        public Customer(final String name, final String street, final String city) {
+            this.name = name;
+            this.street = street;
+            this.city = city;
+        }
+    }
+
+    @SuppressWarnings("javadoc")
+    public static final class Order {
+        private final long id;
+        private final Customer customer;
+        private final BigDecimal amount;
+        private final Date created;
+        private final Status status;
+        private final String[] tags;
+
+        public Order(
+                final long id, final Customer customer, final BigDecimal amount, final Date created,
+                final Status status, final String[] tags) {
+            this.id = id;
+            this.customer = customer;
+            this.amount = amount;
+            this.created = created;
+            this.status = status;
+            this.tags = tags;
+        }
+    }
+
+    @SuppressWarnings("javadoc")
+    public static class Samples {
+        private final int[] ints;
+        private final long[] longs;
+        private final double[] doubles;
+        private final byte[] bytes;
+        private final boolean[] flags;
+
+        public Samples(final int length) {
+            ints = new int[length];
+            longs = new long[length];
+            doubles = new double[length];
+            bytes = new byte[length];
+            flags = new boolean[length];
+        }
+    }
+
+    /**
+     * Base class for the state of the round-trip benchmarks.
+     *
+     * @since upcoming
+     */
+    public static abstract class Fixture {
+        static {
+            // Increase max recursion depth for Jettison
+            JSONObject.setGlobalRecursionDepthLimit(5000);
+        }
+
+        private XStream xstream;
+        private HierarchicalStreamDriver driver;
+        private Object graph;
+
+        /**
+         * Initialize the XStream instance and create the graph. The graph is checked to produce identical data after
+         * a round-trip.
+         *
+         * @param driverFactory the factory of the driver
+         * @param referenceMode the reference mode
+         * @param graphFactory the factory of the graph
+         * @since upcoming
+         */
+        protected void init(final DriverFactory driverFactory, final ReferenceMode referenceMode,
+                final GraphFactory graphFactory) {
+            driver = driverFactory.getDriver();
+            xstream = new XStream(driver);
+            xstream.allowTypesByWildcard(new String[]{RoundTripBenchmark.class.getName() + "$*"});
+            xstream.setMode(referenceMode.mode);
+            graph = graphFactory.createGraph();
+
+            final byte[] data = marshal(graph);
+            if (!Arrays.equals(data, marshal(unmarshal(data)))) {
+                throw new IllegalStateException(graphFactory + " fails round-trip with " + driverFactory);
+            }
+        }
+
+        private byte[] marshal(final Object obj) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream(64 * 1024);
+            final HierarchicalStreamWriter writer = driver.createWriter(baos);
+            xstream.marshal(obj, writer);
+            writer.close();
+            return baos.toByteArray();
+        }
+
+        private Object unmarshal(final byte[] data) {
+            return xstream.unmarshal(driver.createReader(new ByteArrayInputStream(data)));
+        }
+
+        /**
+         * Marshal the graph and unmarshal it again.
+         *
+         * @return the unmarshalled graph
+         * @since upcoming
+         */
+        public Object roundTrip() {
+            return unmarshal(marshal(graph));
+        }
+    }
+
+    /**
+     * State for acyclic graphs in all reference modes.
+     *
+     * @since upcoming
+     */
+    @State(Scope.Benchmark)
+    public static class AcyclicState extends Fixture {
+        @Param
+        private DriverFactory driverFactory;
+        @Param
+        private ReferenceMode referenceMode;
+        @Param({"DeepTree", "WideMap", "ValueObjects", "PrimitiveArrays"})
+        private GraphFactory graphFactory;
+
+        /**
+         * Setup the graph.
+         *
+         * @since upcoming
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            init(driverFactory, referenceMode, graphFactory);
+        }
+    }
+
+    /**
+     * State for cyclic graphs in the reference modes supporting them.
+     *
+     * @since upcoming
+     */
+    @State(Scope.Benchmark)
+    public static class CyclicState extends Fixture {
+        @Param
+        private DriverFactory driverFactory;
+        @Param({"ID_REFERENCES", "XPATH_RELATIVE_REFERENCES"})
+        private ReferenceMode referenceMode;
+
+        /**
+         * Setup the graph.
+         *
+         * @since upcoming
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            init(driverFactory, referenceMode, GraphFactory.CyclicGraph);
+        }
+    }
+
+    /**
+     * Round-trip an acyclic graph in a single thread.
+     *
+     * @param state the state of the benchmark
+     * @return the unmarshalled graph
+     * @since upcoming
+     */
+    @Benchmark
+    @Threads(1)
+    public Object roundTrip(final AcyclicState state) {
+        return state.roundTrip();
+    }
+
+    /**
+     * Round-trip an acyclic graph concurrently with a shared XStream instance.
+     *
+     * @param state the state of the benchmark
+     * @return the unmarshalled graph
+     * @since upcoming
+     */
+    @Benchmark
+    @Threads(4)
+    public Object roundTripConcurrently(final AcyclicState state) {
+        return state.roundTrip();
+    }
+
+    /**
+     * Round-trip a cyclic graph in a single thread.
+     *
+     * @param state the state of the benchmark
+     * @return the unmarshalled graph
+     * @since upcoming
+     */
+    @Benchmark
+    @Threads(1)
+    public Object roundTripCyclic(final CyclicState state) {
+        return state.roundTrip();
+    }
+
+    /**
+     * Round-trip a cyclic graph concurrently with a shared XStream instance.
+     *
+     * @param state the state of the benchmark
+     * @return the unmarshalled graph
+     * @since upcoming
+     */
+    @Benchmark
+    @Threads(4)
+    public Object roundTripCyclicConcurrently(final CyclicState state) {
+        return state.roundTrip();
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.benchmark.jmh;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.xml.CompactWriter;
+import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
+import com.thoughtworks.xstream.io.xml.XmlFriendlyNameCoder;
+
+
+/**
+ * Benchmark for the text escaping of the {@link PrettyPrintWriter} and the {@link CompactWriter} and for their output
+ * into an OutputStream.
+ *
+ * @since upcoming
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1)
+@Measurement(iterations = 16)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Threads(1)
+@Warmup(iterations = 5)
+public class XmlWriterBenchmark {
+
+    /**
+     * Writer factory. Enum values used as parameter for the benchmark methods.
+     *
+     * @since upcoming
+     */
+    public enum WriterFactory {
+        /**
+         * Factory for the {@link PrettyPrintWriter}.
+         *
+         * @since upcoming
+         */
+        PrettyPrint {
+            @Override
+            public HierarchicalStreamWriter createWriter(final Writer writer, final int mode) {
+                return new PrettyPrintWriter(writer, mode);
+            }
+
+            @Override
+            public HierarchicalStreamWriter createWriter(final OutputStream out, final int mode) {
+                return new PrettyPrintWriter(out, mode, new XmlFriendlyNameCoder());
+            }
+        },
+        /**
+         * Factory for the {@link CompactWriter}.
+         *
+         * @since upcoming
+         */
+        Compact {
+            @Override
+            public HierarchicalStreamWriter createWriter(final Writer writer, final int mode) {
+                return new CompactWriter(writer, mode);
+            }
+
+            @Override
+            public HierarchicalStreamWriter createWriter(final OutputStream out, final int mode) {
+                return new CompactWriter(out, mode, new XmlFriendlyNameCoder());
+            }
+        };
+
+        /**
+         * Create the writer.
+         *
+         * @param writer the target
+         * @param mode the XML mode
+         * @return the new instance
+         * @since upcoming
+         */
+        public abstract HierarchicalStreamWriter createWriter(Writer writer, int mode);
+
+        /**
+         * Create the writer encoding directly into UTF-8 bytes.
+         *
+         * @param out the target
+         * @param mode the XML mode
+         * @return the new instance
+         * @since upcoming
+         */
+        public abstract HierarchicalStreamWriter createWriter(OutputStream out, int mode);
+    }
+
+    /**
+     * XML mode. Enum values used as parameter for the benchmark methods.
+     *
+     * @since upcoming
+     */
+    public enum XmlMode {
+        /**
+         * {@link PrettyPrintWriter#XML_QUIRKS}.
+         *
+         * @since upcoming
+         */
+        QUIRKS(PrettyPrintWriter.XML_QUIRKS),
+        /**
+         * {@link PrettyPrintWriter#XML_1_0}.
+         *
+         * @since upcoming
+         */
+        XML_1_0(PrettyPrintWriter.XML_1_0),
+        /**
+         * {@link PrettyPrintWriter#XML_1_1}.
+         *
+         * @since upcoming
+         */
+        XML_1_1(PrettyPrintWriter.XML_1_1);
+
+        private final int mode;
+
+        private XmlMode(final int mode) {
+            this.mode = mode;
+        }
+    }
+
+    private static final String PLAIN = "The quick brown fox jumps over the lazy dog. ";
+    private static final String MARKUP = "if (a < b && c > d) { s = \"'\" + s; }\r\n";
+    private static final String UNICODE = "Gr\u00fc\u00dfe aus K\u00f6ln, \u65e5\u672c\u8a9e, \uD83E\uDD8A ";
+
+    @Param
+    private WriterFactory writerFactory;
+    @Param
+    private XmlMode xmlMode;
+    private String plainText;
+    private String markupText;
+    private String unicodeText;
+
+    /**
+     * Initialize the texts.
+     *
+     * @since upcoming
+     */
+    @Setup
+    public void init() {
+        plainText = repeat(PLAIN);
+        markupText = repeat(MARKUP);
+        unicodeText = repeat(UNICODE);
+    }
+
+    private static String repeat(final String text) {
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < 16 * 1024) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Write text without any character to escape.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writePlainText() {
+        write(plainText);
+    }
+
+    /**
+     * Write text with lots of characters to escape.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writeMarkupText() {
+        write(markupText);
+    }
+
+    /**
+     * Write text with non-ASCII characters.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writeUnicodeText() {
+        write(unicodeText);
+    }
+
+    /**
+     * Write the texts as attribute values.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writeAttributes() {
+        final HierarchicalStreamWriter writer = writerFactory.createWriter(Writer.nullWriter(), xmlMode.mode);
+        writer.startNode("root");
+        writer.addAttribute("plain", plainText);
+        writer.addAttribute("markup", markupText);
+        writer.addAttribute("unicode", unicodeText);
+        writer.endNode();
+        writer.close();
+    }
+
+    /**
+     * Write text with non-ASCII characters into an OutputStream using an OutputStreamWriter.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writeUnicodeTextViaStreamWriter() {
+        write(writerFactory.createWriter(new OutputStreamWriter(OutputStream.nullOutputStream(),
+            StandardCharsets.UTF_8), xmlMode.mode), unicodeText);
+    }
+
+    /**
+     * Write text with non-ASCII characters directly as UTF-8 bytes into an OutputStream.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void writeUnicodeTextAsUtf8Bytes() {
+        write(writerFactory.createWriter(OutputStream.nullOutputStream(), xmlMode.mode), unicodeText);
+    }
+
+    private void write(final String text) {
+        write(writerFactory.createWriter(Writer.nullWriter(), xmlMode.mode), text);
+    }
+
+    private void write(final HierarchicalStreamWriter writer, final String text) {
+        writer.startNode("root");
+        for (int i = 0; i < 8; ++i) {
+            writer.startNode("text");
+            writer.setValue(text);
+            writer.endNode();
+        }
+        writer.endNode();
+        writer.close();
+    }
+}
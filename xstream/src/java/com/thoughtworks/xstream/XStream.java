@@ -86,12 +86,14 @@ import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -113,12 +115,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.ConverterRegistry;
 import com.thoughtworks.xstream.converters.DataHolder;
+import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.converters.SingleValueConverterWrapper;
 import com.thoughtworks.xstream.converters.basic.BigDecimalConverter;
@@ -146,6 +150,7 @@ import com.thoughtworks.xstream.converters.collections.CollectionConverter;
 import com.thoughtworks.xstream.converters.collections.CopyOnWriteArrayListConverter;
 import com.thoughtworks.xstream.converters.collections.CopyOnWriteArraySetConverter;
 import com.thoughtworks.xstream.converters.collections.MapConverter;
+import com.thoughtworks.xstream.converters.collections.PrimitiveArrayConverter;
 import com.thoughtworks.xstream.converters.collections.PropertiesConverter;
 import com.thoughtworks.xstream.converters.collections.SingletonCollectionConverter;
 import com.thoughtworks.xstream.converters.collections.SingletonMapConverter;
@@ -211,8 +216,11 @@ import com.thoughtworks.xstream.converters.time.YearConverter;
 import com.thoughtworks.xstream.converters.time.YearMonthConverter;
 import com.thoughtworks.xstream.converters.time.ZoneIdConverter;
 import com.thoughtworks.xstream.converters.time.ZonedDateTimeConverter;
+import com.thoughtworks.xstream.core.Caching;
 import com.thoughtworks.xstream.core.ClassLoaderReference;
 import com.thoughtworks.xstream.core.DefaultConverterLookup;
+import com.thoughtworks.xstream.core.Instrumentation;
+import com.thoughtworks.xstream.core.InstrumentedDataHolder;
 import com.thoughtworks.xstream.core.JVM;
 import com.thoughtworks.xstream.core.MapBackedDataHolder;
 import com.thoughtworks.xstream.core.ReferenceByIdMarshallingStrategy;
@@ -222,6 +230,7 @@ import com.thoughtworks.xstream.core.util.CompositeClassLoader;
 import com.thoughtworks.xstream.core.util.CustomObjectInputStream;
 import com.thoughtworks.xstream.core.util.CustomObjectOutputStream;
 import com.thoughtworks.xstream.core.util.DefaultDriver;
+import com.thoughtworks.xstream.core.util.HierarchicalStreams;
 import com.thoughtworks.xstream.core.util.SelfStreamingInstanceChecker;
 import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
@@ -420,6 +429,7 @@ public class XStream {
     private LocalConversionMapper localConversionMapper;
     private SecurityMapper securityMapper;
     private AnnotationMapper annotationMapper;
+    private transient Instrumentation instrumentation;
 
     public static final int NO_REFERENCES = 1001;
     public static final int ID_REFERENCES = 1002;
@@ -435,8 +445,10 @@ public class XStream {
 
     public static final String COLLECTION_UPDATE_LIMIT = "XStreamCollectionUpdateLimit";
     public static final String COLLECTION_UPDATE_SECONDS = "XStreamCollectionUpdateSeconds";
+    public static final String INSTRUMENTATION = "XStreamInstrumentation";
 
     private static final Pattern IGNORE_ALL = Pattern.compile(".*");
+    private static final int ITEMS_PER_FLUSH = 1000;
 
     /**
      * Constructs a default XStream.
@@ -564,17 +576,13 @@ public class XStream {
             final ReflectionProvider reflectionProvider, final HierarchicalStreamDriver driver,
             final ClassLoaderReference classLoader, final Mapper mapper,
             final DefaultConverterLookup defaultConverterLookup) {
-        this(reflectionProvider, driver, classLoader, mapper, new ConverterLookup() {
-            @Override
-            public Converter lookupConverterForType(final Class<?> type) {
-                return defaultConverterLookup.lookupConverterForType(type);
-            }
-        }, new ConverterRegistry() {
-            @Override
-            public void registerConverter(final Converter converter, final int priority) {
-                defaultConverterLookup.registerConverter(converter, priority);
-            }
-        });
+        this(reflectionProvider, driver, classLoader, mapper, new InternalConverterLookup(defaultConverterLookup),
+            new ConverterRegistry() {
+                @Override
+                public void registerConverter(final Converter converter, final int priority) {
+                    defaultConverterLookup.registerConverter(converter, priority);
+                }
+            });
     }
 
     /**
@@ -996,6 +1004,7 @@ public class XStream {
         registerConverter(new AtomicReferenceConverter(mapper), PRIORITY_NORMAL);
 
         registerConverter(new ArrayConverter(mapper), PRIORITY_NORMAL);
+        registerConverter(new PrimitiveArrayConverter(mapper, converterLookup), PRIORITY_NORMAL);
         registerConverter(new CharArrayConverter(), PRIORITY_NORMAL);
         registerConverter(new CollectionConverter(mapper), PRIORITY_NORMAL);
         registerConverter(new MapConverter(mapper), PRIORITY_NORMAL);
@@ -1193,6 +1202,39 @@ public class XStream {
         this.marshallingStrategy = marshallingStrategy;
     }
 
+    /**
+     * Set an instrumentation to monitor the internal operations.
+     * <p>
+     * The instrumentation is passed with the {@link DataHolder} to the marshalling strategy and notified by the
+     * {@link DefaultConverterLookup} and {@link CachingMapper} of this instance. Set the instrumentation before the
+     * XStream instance is used concurrently.
+     * </p>
+     *
+     * @param instrumentation the instrumentation or <code>null</code> to disable any monitoring
+     * @see com.thoughtworks.xstream.core.JfrInstrumentation
+     * @since upcoming
+     */
+    public void setInstrumentation(final Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        if (converterLookup instanceof DefaultConverterLookup) {
+            ((DefaultConverterLookup)converterLookup).setInstrumentation(instrumentation);
+        } else if (converterLookup instanceof InternalConverterLookup) {
+            ((InternalConverterLookup)converterLookup).lookup.setInstrumentation(instrumentation);
+        }
+        final CachingMapper cachingMapper = mapper.lookupMapperOfType(CachingMapper.class);
+        if (cachingMapper != null) {
+            cachingMapper.setInstrumentation(instrumentation);
+        }
+    }
+
+    private DataHolder instrument(final DataHolder dataHolder) {
+        if (instrumentation == null) {
+            return dataHolder;
+        }
+        return new InstrumentedDataHolder(dataHolder == null ? new MapBackedDataHolder() : dataHolder,
+            instrumentation);
+    }
+
     /**
      * Set time limit for adding elements to collections or maps. Manipulated content may be used to create recursive
      * hash code calculations or sort operations. An {@link InputManipulationException} is thrown, if the summed up time
@@ -1267,7 +1309,78 @@ public class XStream {
      * @throws XStreamException if the object cannot be serialized
      */
     public void marshal(final Object obj, final HierarchicalStreamWriter writer, final DataHolder dataHolder) {
-        marshallingStrategy.marshal(writer, obj, converterLookup, mapper, dataHolder);
+        marshallingStrategy.marshal(writer, obj, converterLookup, mapper, instrument(dataHolder));
+    }
+
+    /**
+     * Serialize the elements of a stream as items of a list to a hierarchical data structure (such as XML).
+     *
+     * @param items the stream providing the items
+     * @param writer the target
+     * @throws XStreamException if the items cannot be serialized
+     * @see #marshalIterator(Iterator, HierarchicalStreamWriter, DataHolder)
+     * @since upcoming
+     */
+    public void marshalStream(final Stream<?> items, final HierarchicalStreamWriter writer) {
+        marshalIterator(items.iterator(), writer, null);
+    }
+
+    /**
+     * Serialize the elements of an iterator as items of a list to a hierarchical data structure (such as XML).
+     *
+     * @param items the iterator providing the items
+     * @param writer the target
+     * @throws XStreamException if the items cannot be serialized
+     * @see #marshalIterator(Iterator, HierarchicalStreamWriter, DataHolder)
+     * @since upcoming
+     */
+    public void marshalIterator(final Iterator<?> items, final HierarchicalStreamWriter writer) {
+        marshalIterator(items, writer, null);
+    }
+
+    /**
+     * Serialize the elements of an iterator as items of a list to a hierarchical data structure (such as XML).
+     * <p>
+     * The result is the same as marshalling an {@link ArrayList} with all the elements, but each element is written as
+     * soon as the iterator provides it and the writer is flushed regularly. Therefore the elements do not have to be
+     * collected in memory first. The XML can be read again as normal {@link List} or with
+     * {@link #unmarshalIterator(HierarchicalStreamReader, Class)}. Note, that with enabled references the marshalling
+     * strategy keeps track of every written element to resolve later references.
+     * </p>
+     *
+     * @param items the iterator providing the items
+     * @param writer the target
+     * @param dataHolder Extra data you can use to pass to your converters. Use this as you want. If not present,
+     *            XStream shall create one lazily as needed.
+     * @throws XStreamException if the items cannot be serialized
+     * @since upcoming
+     */
+    public void marshalIterator(final Iterator<?> items, final HierarchicalStreamWriter writer,
+            final DataHolder dataHolder) {
+        final Converter rootConverter = new CollectionConverter(mapper) {
+
+            @Override
+            public void marshal(final Object source, final HierarchicalStreamWriter writer,
+                    final MarshallingContext context) {
+                int count = 0;
+                for (final Iterator<?> iter = ((IteratedItems)source).items; iter.hasNext();) {
+                    writeCompleteItem(iter.next(), context, writer);
+                    if (++count % ITEMS_PER_FLUSH == 0) {
+                        writer.flush();
+                    }
+                }
+            }
+        };
+        final Mapper rootMapper = new MapperWrapper(mapper) {
+
+            @Override
+            public String serializedClass(final Class<?> type) {
+                return super.serializedClass(type == IteratedItems.class ? ArrayList.class : type);
+            }
+        };
+        marshallingStrategy.marshal(writer, new IteratedItems(items), type -> type == IteratedItems.class
+            ? rootConverter
+            : converterLookup.lookupConverterForType(type), rootMapper, instrument(dataHolder));
     }
 
     /**
@@ -1427,7 +1540,8 @@ public class XStream {
             }
 
             @SuppressWarnings("unchecked")
-            final T t = (T)marshallingStrategy.unmarshal(root, reader, dataHolder, converterLookup, mapper);
+            final T t = (T)marshallingStrategy.unmarshal(root, reader, instrument(dataHolder), converterLookup,
+                mapper);
             return t;
         } catch (final StackOverflowError e) {
             throw new InputManipulationException("Possible Denial of Service attack by Stack Overflow");
@@ -1451,6 +1565,7 @@ public class XStream {
             throw new InitializationException("No " + ClassAliasingMapper.class.getName() + " available");
         }
         classAliasingMapper.addClassAlias(name, type);
+        flushConverterCaches();
     }
 
     /**
@@ -1467,6 +1582,7 @@ public class XStream {
             throw new InitializationException("No " + ClassAliasingMapper.class.getName() + " available");
         }
         classAliasingMapper.addTypeAlias(name, type);
+        flushConverterCaches();
     }
 
     /**
@@ -1497,6 +1613,7 @@ public class XStream {
             throw new InitializationException("No " + PackageAliasingMapper.class.getName() + " available");
         }
         packageAliasingMapper.addPackageAlias(name, pkgName);
+        flushConverterCaches();
     }
 
     /**
@@ -1512,6 +1629,7 @@ public class XStream {
             throw new InitializationException("No " + FieldAliasingMapper.class.getName() + " available");
         }
         fieldAliasingMapper.addFieldAlias(alias, definedIn, fieldName);
+        flushConverterCaches();
     }
 
     /**
@@ -1526,6 +1644,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeAliasingMapper.class.getName() + " available");
         }
         attributeAliasingMapper.addAliasFor(attributeName, alias);
+        flushConverterCaches();
     }
 
     /**
@@ -1543,6 +1662,7 @@ public class XStream {
             throw new InitializationException("No " + SystemAttributeAliasingMapper.class.getName() + " available");
         }
         systemAttributeAliasingMapper.addAliasFor(systemAttributeName, alias);
+        flushConverterCaches();
     }
 
     /**
@@ -1572,6 +1692,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeMapper.class.getName() + " available");
         }
         attributeMapper.addAttributeFor(fieldName, type);
+        flushConverterCaches();
     }
 
     /**
@@ -1587,6 +1708,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeMapper.class.getName() + " available");
         }
         attributeMapper.addAttributeFor(definedIn, fieldName);
+        flushConverterCaches();
     }
 
     /**
@@ -1601,6 +1723,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeMapper.class.getName() + " available");
         }
         attributeMapper.addAttributeFor(type);
+        flushConverterCaches();
     }
 
     /**
@@ -1617,6 +1740,7 @@ public class XStream {
             throw new InitializationException("No " + DefaultImplementationsMapper.class.getName() + " available");
         }
         defaultImplementationsMapper.addDefaultImplementation(defaultImplementation, ofType);
+        flushConverterCaches();
     }
 
     /**
@@ -1653,6 +1777,7 @@ public class XStream {
                 + " available");
         }
         immutableTypesMapper.addImmutableType(type, isReferenceable);
+        flushConverterCaches();
     }
 
     /**
@@ -1674,6 +1799,7 @@ public class XStream {
         if (converterRegistry != null) {
             converterRegistry.registerConverter(converter, priority);
         }
+        flushConverterCaches();
     }
 
     /**
@@ -1695,6 +1821,7 @@ public class XStream {
         if (converterRegistry != null) {
             converterRegistry.registerConverter(new SingleValueConverterWrapper(converter), priority);
         }
+        flushConverterCaches();
     }
 
     /**
@@ -1710,6 +1837,7 @@ public class XStream {
             throw new InitializationException("No " + LocalConversionMapper.class.getName() + " available");
         }
         localConversionMapper.registerLocalConverter(definedIn, fieldName, converter);
+        flushConverterCaches();
     }
 
     /**
@@ -1900,6 +2028,7 @@ public class XStream {
             throw new InitializationException("No " + ImplicitCollectionMapper.class.getName() + " available");
         }
         implicitCollectionMapper.add(ownerType, fieldName, itemName, itemType, keyFieldName);
+        flushConverterCaches();
     }
 
     /**
@@ -2159,6 +2288,101 @@ public class XStream {
         }, classLoaderReference);
     }
 
+    /**
+     * Creates an Iterator that deserializes the items of a collection or an array one by one from a reader using
+     * XStream.
+     * <p>
+     * In contrast to {@link #unmarshal(HierarchicalStreamReader)} the root object is never created, the iterator
+     * returns each child element of the root lazily as a fully unmarshalled object instead. Therefore the items of an
+     * arbitrary huge collection can be processed with bounded memory. The root element must be written by the
+     * {@link CollectionConverter}, the {@link ArrayConverter} or the {@link PrimitiveArrayConverter} with an element for
+     * each item as a plain {@link #toXML(Object)} does for a {@link List} or an array.
+     * </p>
+     * <p>
+     * Like {@link #createObjectInputStream(HierarchicalStreamReader)} each item is unmarshalled on its own, i.e.
+     * references between different items cannot be resolved. Marshal the collection with {@link #NO_REFERENCES} or
+     * ensure the items do not share any objects. It is necessary to close the reader when done.
+     * </p>
+     * <h3>Example</h3>
+     *
+     * <pre>
+     * Iterator&lt;Person&gt; iter = xstream.unmarshalIterator(driver.createReader(in), Person.class);
+     * while (iter.hasNext()) {
+     *     process(iter.next());
+     * }
+     * </pre>
+     *
+     * @param reader the reader positioned at the root element
+     * @param itemType the expected type of the items
+     * @return the iterator for the items
+     * @throws ConversionException if the root element is not a collection or an array
+     * @see #unmarshalIterator(HierarchicalStreamReader, Class, DataHolder)
+     * @since upcoming
+     */
+    public <T> Iterator<T> unmarshalIterator(final HierarchicalStreamReader reader, final Class<T> itemType) {
+        return unmarshalIterator(reader, itemType, null);
+    }
+
+    /**
+     * Creates an Iterator that deserializes the items of a collection or an array one by one from a reader using
+     * XStream.
+     *
+     * @param reader the reader positioned at the root element
+     * @param itemType the expected type of the items
+     * @param dataHolder Extra data you can use to pass to your converters. Use this as you want. If not present,
+     *            XStream shall create one lazily as needed.
+     * @return the iterator for the items
+     * @throws ConversionException if the root element is not a collection or an array
+     * @see #unmarshalIterator(HierarchicalStreamReader, Class)
+     * @since upcoming
+     */
+    public <T> Iterator<T> unmarshalIterator(final HierarchicalStreamReader reader, final Class<T> itemType,
+            DataHolder dataHolder) {
+        final Class<?> rootType = mapper.defaultImplementationOf(HierarchicalStreams.readClassType(reader, mapper));
+        final Class<?> converterType = converterLookup.lookupConverterForType(rootType).getClass();
+        final boolean isPlain = converterType == CollectionConverter.class
+            || converterType == ArrayConverter.class
+            || converterType == PrimitiveArrayConverter.class && reader.getValue().trim().length() == 0;
+        if (!isPlain) {
+            final ConversionException e = new ConversionException("Root element is not a plain collection or array");
+            e.add("root-type", rootType.getName());
+            e.add("converter-type", converterType.getName());
+            throw e;
+        }
+        if (collectionUpdateLimit > 0) {
+            if (dataHolder == null) {
+                dataHolder = new MapBackedDataHolder();
+            }
+            dataHolder.put(COLLECTION_UPDATE_LIMIT, Integer.valueOf(collectionUpdateLimit));
+            dataHolder.put(COLLECTION_UPDATE_SECONDS, Integer.valueOf(0));
+        }
+        final DataHolder dh = dataHolder;
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                return reader.hasMoreChildren();
+            }
+
+            @Override
+            public T next() {
+                if (!reader.hasMoreChildren()) {
+                    throw new NoSuchElementException();
+                }
+                reader.moveDown();
+                final Object item = unmarshal(reader, null, dh);
+                reader.moveUp();
+                if (item != null && !itemType.isInstance(item)) {
+                    final ConversionException e = new ConversionException("Unexpected type of item");
+                    e.add("item-type", item.getClass().getName());
+                    e.add("required-type", itemType.getName());
+                    throw e;
+                }
+                return itemType.cast(item);
+            }
+        };
+    }
+
     /**
      * Change the ClassLoader XStream uses to load classes. Creating an XStream instance it will register for all kind
      * of classes and types of the current JDK, but not for any 3rd party type. To ensure that all other types are
@@ -2203,6 +2427,7 @@ public class XStream {
             throw new InitializationException("No " + ElementIgnoringMapper.class.getName() + " available");
         }
         elementIgnoringMapper.omitField(definedIn, fieldName);
+        flushConverterCaches();
     }
 
     /**
@@ -2248,6 +2473,7 @@ public class XStream {
             throw new InitializationException("No " + AnnotationMapper.class.getName() + " available");
         }
         annotationMapper.processAnnotations(types);
+        flushConverterCaches();
     }
 
     /**
@@ -2429,4 +2655,43 @@ public class XStream {
     public void denyTypesByWildcard(final String... patterns) {
         denyPermission(new WildcardTypePermission(patterns));
     }
+
+    /**
+     * Flush the caches of the converters, since they may depend on the changed configuration of the mappers.
+     */
+    private void flushConverterCaches() {
+        if (converterLookup instanceof DefaultConverterLookup) {
+            ((DefaultConverterLookup)converterLookup).flushConverterCaches();
+        } else if (converterLookup instanceof InternalConverterLookup) {
+            ((InternalConverterLookup)converterLookup).lookup.flushConverterCaches();
+        } else if (converterLookup instanceof Caching) {
+            ((Caching)converterLookup).flushCache();
+        }
+    }
+
+    private static final class IteratedItems {
+        private final Iterator<?> items;
+
+        IteratedItems(final Iterator<?> items) {
+            this.items = items;
+        }
+    }
+
+    private static final class InternalConverterLookup implements ConverterLookup, Caching {
+        private final DefaultConverterLookup lookup;
+
+        InternalConverterLookup(final DefaultConverterLookup lookup) {
+            this.lookup = lookup;
+        }
+
+        @Override
+        public Converter lookupConverterForType(final Class<?> type) {
+            return lookup.lookupConverterForType(type);
+        }
+
+        @Override
+        public void flushCache() {
+            lookup.flushCache();
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2011, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -30,6 +30,16 @@ public class SingleValueConverterWrapper implements Converter, SingleValueConver
         this.wrapped = wrapped;
     }
 
+    /**
+     * Retrieve the wrapped converter.
+     *
+     * @return the wrapped {@link SingleValueConverter}
+     * @since upcoming
+     */
+    public SingleValueConverter getWrapped() {
+        return wrapped;
+    }
+
     @Override
     public boolean canConvert(final Class<?> type) {
         return wrapped.canConvert(type);
@@ -0,0 +1,522 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.collections;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.SingleValueConverterWrapper;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.basic.BooleanConverter;
+import com.thoughtworks.xstream.converters.basic.ByteConverter;
+import com.thoughtworks.xstream.converters.basic.CharConverter;
+import com.thoughtworks.xstream.converters.basic.DoubleConverter;
+import com.thoughtworks.xstream.converters.basic.FloatConverter;
+import com.thoughtworks.xstream.converters.basic.IntConverter;
+import com.thoughtworks.xstream.converters.basic.LongConverter;
+import com.thoughtworks.xstream.converters.basic.ShortConverter;
+import com.thoughtworks.xstream.core.StringCodec;
+import com.thoughtworks.xstream.core.util.HierarchicalStreams;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+
+/**
+ * Converts an array of primitives without boxing the individual elements.
+ * <p>
+ * By default the converter writes the same format as the {@link ArrayConverter}, i.e. a nested child element for each
+ * item. The elements are written and read directly though, without a converter lookup and without reference check
+ * for each of them. If a different converter than XStream's default one is registered for the element type, the
+ * converter falls back to the individual conversion of each item.
+ * </p>
+ * <p>
+ * Optionally the converter can write the array into a single node, either as a delimited list of the values or as
+ * binary data (elements in big endian order) encoded by a {@link StringCodec}. In this mode the converter can still
+ * read arrays with a child element for each item. A char array is always written as plain string in the delimited
+ * mode.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class PrimitiveArrayConverter implements Converter {
+
+    private final Mapper mapper;
+    private final ConverterLookup lookup;
+    private final char delimiter;
+    private final StringCodec codec;
+
+    /**
+     * Construct a PrimitiveArrayConverter writing a child element for each item.
+     *
+     * @param mapper the mapper
+     * @param lookup the lookup for the converters of the array elements
+     * @since upcoming
+     */
+    public PrimitiveArrayConverter(final Mapper mapper, final ConverterLookup lookup) {
+        this(mapper, lookup, '\0', null);
+    }
+
+    /**
+     * Construct a PrimitiveArrayConverter writing the array as single delimited list of its values.
+     *
+     * @param delimiter the delimiter of the values
+     * @throws IllegalArgumentException if the delimiter may be part of a value
+     * @since upcoming
+     */
+    public PrimitiveArrayConverter(final char delimiter) {
+        this(null, null, delimiter, null);
+        if (delimiter == '\0'
+            || Character.isLetterOrDigit(delimiter)
+            || delimiter == '-'
+            || delimiter == '+'
+            || delimiter == '.'
+            || delimiter == '#') {
+            throw new IllegalArgumentException("Delimiter may be part of a value: '" + delimiter + "'");
+        }
+    }
+
+    /**
+     * Construct a PrimitiveArrayConverter writing the array as single node with encoded binary data.
+     *
+     * @param codec the codec for the binary data, e.g. a {@link com.thoughtworks.xstream.core.Base64Codec}
+     * @since upcoming
+     */
+    public PrimitiveArrayConverter(final StringCodec codec) {
+        this(null, null, '\0', codec);
+    }
+
+    private PrimitiveArrayConverter(
+            final Mapper mapper, final ConverterLookup lookup, final char delimiter, final StringCodec codec) {
+        this.mapper = mapper;
+        this.lookup = lookup;
+        this.delimiter = delimiter;
+        this.codec = codec;
+    }
+
+    @Override
+    public boolean canConvert(final Class<?> type) {
+        return type != null && type.isArray() && type.getComponentType().isPrimitive();
+    }
+
+    @Override
+    public void marshal(final Object source, final HierarchicalStreamWriter writer, final MarshallingContext context) {
+        final Kind kind = Kind.of(source.getClass().getComponentType());
+        if (codec != null) {
+            writer.setValue(codec.encode(kind.toBytes(source)));
+        } else if (delimiter != '\0') {
+            writer.setValue(kind.join(source, delimiter));
+        } else {
+            final String name = mapper.serializedClass(kind.boxedType);
+            final boolean direct = kind.hasDefaultConverter(lookup);
+            final int length = Array.getLength(source);
+            for (int i = 0; i < length; ++i) {
+                writer.startNode(name, kind.boxedType);
+                if (direct) {
+                    writer.setValue(kind.toString(source, i));
+                } else {
+                    context.convertAnother(Array.get(source, i));
+                }
+                writer.endNode();
+            }
+        }
+    }
+
+    @Override
+    public Object unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+        final Kind kind = Kind.of(context.getRequiredType().getComponentType());
+        if (codec != null || delimiter != '\0') {
+            final String value = reader.getValue(); // needs to be called before hasMoreChildren.
+            if (!reader.hasMoreChildren()) {
+                if (codec != null) {
+                    return kind.fromBytes(codec.decode(value));
+                }
+                return kind.split(value, delimiter);
+            }
+        } else if (!kind.hasDefaultConverter(lookup)) {
+            return unmarshalIndividualItems(reader, context, kind);
+        }
+        return unmarshalElements(reader, kind);
+    }
+
+    private Object unmarshalElements(final HierarchicalStreamReader reader, final Kind kind) {
+        Object array = Array.newInstance(kind.type, 16);
+        int size = 0;
+        while (reader.hasMoreChildren()) {
+            reader.moveDown();
+            if (size == Array.getLength(array)) {
+                array = copyOf(array, kind, size * 2);
+            }
+            if (kind == Kind.CHAR && "true".equals(reader.getAttribute("null"))) {
+                ((char[])array)[size++] = '\0';
+            } else {
+                kind.set(array, size++, reader.getValue());
+            }
+            reader.moveUp();
+        }
+        return size == Array.getLength(array) ? array : copyOf(array, kind, size);
+    }
+
+    private Object unmarshalIndividualItems(final HierarchicalStreamReader reader, final UnmarshallingContext context,
+            final Kind kind) {
+        final List<Object> items = new ArrayList<>();
+        while (reader.hasMoreChildren()) {
+            reader.moveDown();
+            final Class<?> type = HierarchicalStreams.readClassType(reader, mapper);
+            items.add(context.convertAnother(null, type));
+            reader.moveUp();
+        }
+        final Object array = Array.newInstance(kind.type, items.size());
+        int i = 0;
+        for (final Object item : items) {
+            Array.set(array, i++, item);
+        }
+        return array;
+    }
+
+    private static Object copyOf(final Object array, final Kind kind, final int length) {
+        final Object copy = Array.newInstance(kind.type, length);
+        System.arraycopy(array, 0, copy, 0, Math.min(length, Array.getLength(array)));
+        return copy;
+    }
+
+    private static boolean isDecimal(final String value) {
+        final int length = value.length();
+        int i = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (i == length || value.charAt(i) == '0' && length > i + 1) {
+            return false; // empty, octal or hex
+        }
+        for (; i < length; ++i) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static NumberFormatException invalidNumber(final String value) {
+        return new NumberFormatException("For input string: \"" + value + '"');
+    }
+
+    private enum Kind {
+        BOOLEAN(boolean.class, Boolean.class, BooleanConverter.class, 1) {
+            @Override
+            boolean hasDefaultConverter(final ConverterLookup lookup) {
+                final Object converter = lookupItemConverter(lookup);
+                if (converter.getClass() != BooleanConverter.class) {
+                    return false;
+                }
+                final BooleanConverter booleanConverter = (BooleanConverter)converter;
+                return "true".equals(booleanConverter.toString(Boolean.TRUE))
+                    && "false".equals(booleanConverter.toString(Boolean.FALSE))
+                    && Boolean.TRUE.equals(booleanConverter.fromString("TRUE"));
+            }
+
+            @Override
+            String toString(final Object array, final int index) {
+                return ((boolean[])array)[index] ? "true" : "false";
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                ((boolean[])array)[index] = "true".equalsIgnoreCase(value);
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                for (final boolean b : (boolean[])array) {
+                    buffer.put(b ? (byte)1 : (byte)0);
+                }
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                final boolean[] booleans = (boolean[])array;
+                for (int i = 0; i < booleans.length; ++i) {
+                    booleans[i] = buffer.get() != 0;
+                }
+            }
+        },
+        BYTE(byte.class, Byte.class, ByteConverter.class, 1) {
+            @Override
+            String toString(final Object array, final int index) {
+                return Byte.toString(((byte[])array)[index]);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                final int i = isDecimal(value) ? Integer.parseInt(value) : Integer.decode(value).intValue();
+                if (i < Byte.MIN_VALUE || i > 0xFF) {
+                    throw invalidNumber(value);
+                }
+                ((byte[])array)[index] = (byte)i;
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.put((byte[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.get((byte[])array);
+            }
+        },
+        SHORT(short.class, Short.class, ShortConverter.class, 2) {
+            @Override
+            String toString(final Object array, final int index) {
+                return Short.toString(((short[])array)[index]);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                final int i = isDecimal(value) ? Integer.parseInt(value) : Integer.decode(value).intValue();
+                if (i < Short.MIN_VALUE || i > 0xFFFF) {
+                    throw invalidNumber(value);
+                }
+                ((short[])array)[index] = (short)i;
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.asShortBuffer().put((short[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.asShortBuffer().get((short[])array);
+            }
+        },
+        CHAR(char.class, Character.class, CharConverter.class, 2) {
+            @Override
+            String toString(final Object array, final int index) {
+                final char c = ((char[])array)[index];
+                return c == '\0' ? "" : String.valueOf(c);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                ((char[])array)[index] = value.length() == 0 ? '\0' : value.charAt(0);
+            }
+
+            @Override
+            String join(final Object array, final char delimiter) {
+                return new String((char[])array);
+            }
+
+            @Override
+            Object split(final String value, final char delimiter) {
+                return value.toCharArray();
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.asCharBuffer().put((char[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.asCharBuffer().get((char[])array);
+            }
+        },
+        INT(int.class, Integer.class, IntConverter.class, 4) {
+            @Override
+            String toString(final Object array, final int index) {
+                return Integer.toString(((int[])array)[index]);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                final long l = isDecimal(value) ? Long.parseLong(value) : Long.decode(value).longValue();
+                if (l < Integer.MIN_VALUE || l > 0xFFFFFFFFL) {
+                    throw invalidNumber(value);
+                }
+                ((int[])array)[index] = (int)l;
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.asIntBuffer().put((int[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.asIntBuffer().get((int[])array);
+            }
+        },
+        LONG(long.class, Long.class, LongConverter.class, 8) {
+            private final LongConverter converter = new LongConverter();
+
+            @Override
+            String toString(final Object array, final int index) {
+                return Long.toString(((long[])array)[index]);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                ((long[])array)[index] = isDecimal(value)
+                    ? Long.parseLong(value)
+                    : ((Long)converter.fromString(value)).longValue();
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.asLongBuffer().put((long[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.asLongBuffer().get((long[])array);
+            }
+        },
+        FLOAT(float.class, Float.class, FloatConverter.class, 4) {
+            @Override
+            String toString(final Object array, final int index) {
+                return Float.toString(((float[])array)[index]);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                ((float[])array)[index] = Float.parseFloat(value);
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.asFloatBuffer().put((float[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.asFloatBuffer().get((float[])array);
+            }
+        },
+        DOUBLE(double.class, Double.class, DoubleConverter.class, 8) {
+            @Override
+            String toString(final Object array, final int index) {
+                return Double.toString(((double[])array)[index]);
+            }
+
+            @Override
+            void set(final Object array, final int index, final String value) {
+                ((double[])array)[index] = Double.parseDouble(value);
+            }
+
+            @Override
+            void put(final Object array, final ByteBuffer buffer) {
+                buffer.asDoubleBuffer().put((double[])array);
+            }
+
+            @Override
+            void get(final ByteBuffer buffer, final Object array) {
+                buffer.asDoubleBuffer().get((double[])array);
+            }
+        };
+
+        final Class<?> type;
+        final Class<?> boxedType;
+        private final Class<?> converterType;
+        private final int size;
+
+        private Kind(
+                final Class<?> type, final Class<?> boxedType, final Class<?> converterType, final int size) {
+            this.type = type;
+            this.boxedType = boxedType;
+            this.converterType = converterType;
+            this.size = size;
+        }
+
+        static Kind of(final Class<?> type) {
+            for (final Kind kind : values()) {
+                if (kind.type == type) {
+                    return kind;
+                }
+            }
+            throw new ConversionException("Not a primitive type: " + type.getName());
+        }
+
+        boolean hasDefaultConverter(final ConverterLookup lookup) {
+            return lookupItemConverter(lookup).getClass() == converterType;
+        }
+
+        Object lookupItemConverter(final ConverterLookup lookup) {
+            final Converter converter = lookup.lookupConverterForType(boxedType);
+            return converter instanceof SingleValueConverterWrapper
+                ? ((SingleValueConverterWrapper)converter).getWrapped()
+                : converter;
+        }
+
+        abstract String toString(Object array, int index);
+
+        abstract void set(Object array, int index, String value);
+
+        abstract void put(Object array, ByteBuffer buffer);
+
+        abstract void get(ByteBuffer buffer, Object array);
+
+        String join(final Object array, final char delimiter) {
+            final int length = Array.getLength(array);
+            final StringBuilder builder = new StringBuilder(length * 4);
+            for (int i = 0; i < length; ++i) {
+                if (i > 0) {
+                    builder.append(delimiter);
+                }
+                builder.append(toString(array, i));
+            }
+            return builder.toString();
+        }
+
+        Object split(final String value, final char delimiter) {
+            if (value.trim().length() == 0) {
+                return Array.newInstance(type, 0);
+            }
+            int length = 1;
+            for (int i = value.indexOf(delimiter); i >= 0; i = value.indexOf(delimiter, i + 1)) {
+                ++length;
+            }
+            final Object array = Array.newInstance(type, length);
+            int start = 0;
+            for (int i = 0; i < length; ++i) {
+                int end = value.indexOf(delimiter, start);
+                if (end < 0) {
+                    end = value.length();
+                }
+                set(array, i, value.substring(start, end).trim());
+                start = end + 1;
+            }
+            return array;
+        }
+
+        byte[] toBytes(final Object array) {
+            final ByteBuffer buffer = ByteBuffer.allocate(Array.getLength(array) * size);
+            put(array, buffer);
+            return buffer.array();
+        }
+
+        Object fromBytes(final byte[] bytes) {
+            if (bytes.length % size != 0) {
+                final ConversionException exception = new ConversionException("Invalid length of binary data");
+                exception.add("length", Integer.toString(bytes.length));
+                exception.add("component-type", type.getName());
+                throw exception;
+            }
+            final Object array = Array.newInstance(type, bytes.length / size);
+            get(ByteBuffer.wrap(bytes), array);
+            return array;
+        }
+    }
+}
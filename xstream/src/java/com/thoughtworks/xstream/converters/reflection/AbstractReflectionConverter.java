@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2018, 2022, 2024 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2018, 2022, 2024, 2026 XStream Committers.
  * All rights reserved.
          *
  * The software in this package is published under the terms of the BSD
@@ -16,6 +16,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,6 +25,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
@@ -55,6 +58,7 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
     protected transient SerializationMethodInvoker serializationMethodInvoker;
     protected transient SerializationMembers serializationMembers;
     private transient ReflectionProvider pureJavaReflectionProvider;
+    private transient ConcurrentMap<Class<?>, FieldPlan[]> marshalPlans;
 
     @SuppressWarnings("deprecation")
     public AbstractReflectionConverter(final Mapper mapper, final ReflectionProvider reflectionProvider) {
@@ -62,6 +66,7 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         this.reflectionProvider = reflectionProvider;
         serializationMethodInvoker = new SerializationMethodInvoker();
         serializationMembers = serializationMethodInvoker.serializationMembers;
+        marshalPlans = new ConcurrentHashMap<>();
     }
 
     protected boolean canAccess(final Class<?> type) {
@@ -95,173 +100,179 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
 
     protected void doMarshal(final Object source, final HierarchicalStreamWriter writer,
             final MarshallingContext context) {
-        final List<FieldInfo> fields = new ArrayList<>();
-        final Map<String, Field> defaultFieldDefinition = new HashMap<>();
         final Class<?> sourceType = source.getClass();
+        final PlanningVisitor visitor = new PlanningVisitor(sourceType, marshalPlans.get(sourceType), writer);
 
         // Attributes might be preferred to child elements ...
-        reflectionProvider.visitSerializableFields(source, new ReflectionProvider.Visitor() {
-            final Set<String> writtenAttributes = new HashSet<>();
+        reflectionProvider.visitSerializableFields(source, visitor);
+        if (!visitor.isPlanCurrent()) {
+            marshalPlans.put(sourceType, visitor.createPlan());
+        }
 
-            @Override
-            public void visit(final String fieldName, final Class<?> type, final Class<?> definedIn,
-                    final Object value) {
-                if (!mapper.shouldSerializeMember(definedIn, fieldName)) {
-                    return;
+        Map<String, Set<Mapper.ImplicitCollectionMapping>> hiddenMappers = null;
+        for (int i = 0; i < visitor.count; ++i) {
+            final FieldPlan plan = visitor.visited[i];
+            final Object value = visitor.values[i];
+            if (value == null || plan.omitted || plan.attributeConverter != null) {
+                continue;
+            }
+            final boolean isCollection = value instanceof Collection;
+            final boolean isMap = value instanceof Map;
+            final boolean isArray = value.getClass().isArray();
+            Mapper.ImplicitCollectionMapping mapping = isCollection || isMap || isArray
+                ? plan.implicitCollectionMapping
+                : null;
+            if (mapping != null) {
+                if (hiddenMappers == null) {
+                    hiddenMappers = new HashMap<>();
                 }
-                if (!defaultFieldDefinition.containsKey(fieldName)) {
-                    Class<?> lookupType = sourceType;
-                    // See XSTR-457 and OmitFieldsTest
-                    if (definedIn != sourceType && !mapper.shouldSerializeMember(lookupType, fieldName)) {
-                        lookupType = definedIn;
+                Set<Mapper.ImplicitCollectionMapping> mappings = hiddenMappers.get(plan.fieldName);
+                if (mappings == null) {
+                    mappings = new HashSet<>();
+                    mappings.add(mapping);
+                    hiddenMappers.put(plan.fieldName, mappings);
+                } else {
+                    if (!mappings.add(mapping)) {
+                        mapping = null;
                     }
-                    defaultFieldDefinition.put(fieldName, reflectionProvider.getField(lookupType, fieldName));
                 }
-
-                final SingleValueConverter converter = mapper.getConverterFromItemType(fieldName, type, definedIn);
-                if (converter != null) {
-                    final String attribute = mapper.aliasForAttribute(mapper.serializedMember(definedIn, fieldName));
-                    if (value != null) {
-                        if (writtenAttributes.contains(fieldName)) {
-                            final ConversionException exception = new ConversionException(
-                                "Cannot write field as attribute for object, attribute name already in use");
-                            exception.add("field-name", fieldName);
-                            exception.add("object-type", sourceType.getName());
-                            throw exception;
-                        }
-                        final String str = converter.toString(value);
-                        if (str != null) {
-                            writer.addAttribute(attribute, str);
-                        }
+            }
+            if (mapping != null) {
+                if (context instanceof ReferencingMarshallingContext) {
+                    if (value != Collections.EMPTY_LIST
+                        && value != Collections.EMPTY_SET
+                        && value != Collections.EMPTY_MAP) {
+                        final ReferencingMarshallingContext<?> refContext = (ReferencingMarshallingContext<?>)context;
+                        refContext.registerImplicit(value);
                     }
-                    writtenAttributes.add(fieldName);
-                } else {
-                    fields.add(new FieldInfo(fieldName, type, definedIn, value));
                 }
-            }
-        });
-
-        final FieldMarshaller fieldMarshaller = new FieldMarshaller() {
-            @Override
-            public void writeField(final String fieldName, final String aliasName, final Class<?> fieldType,
-                    final Class<?> definedIn, final Object newObj) {
-                final Class<?> actualType = newObj != null ? newObj.getClass() : fieldType;
-                writer.startNode(aliasName != null ? aliasName : mapper.serializedMember(sourceType, fieldName),
-                    actualType);
-
-                if (newObj != null) {
-                    final Class<?> defaultType = mapper.defaultImplementationOf(fieldType);
-                    if (!actualType.equals(defaultType)) {
-                        final String serializedClassName = mapper.serializedClass(actualType);
-                        if (!serializedClassName.equals(mapper.serializedClass(defaultType))) {
-                            final String attributeName = mapper.aliasForSystemAttribute("class");
-                            if (attributeName != null) {
-                                writer.addAttribute(attributeName, serializedClassName);
-                            }
-                        }
+                final boolean isEntry = isMap && mapping.getKeyFieldName() == null;
+                for (final Iterator<?> iter = isArray
+                    ? new ArrayIterator(value)
+                    : isCollection
+                        ? ((Collection<?>)value).iterator()
+                        : isEntry
+                            ? ((Map<?, ?>)value).entrySet().iterator()
+                            : ((Map<?, ?>)value).values().iterator(); iter.hasNext();) {
+                    final Object obj = iter.next();
+                    final String itemName;
+                    final Class<?> itemType;
+                    if (obj == null) {
+                        itemType = Object.class;
+                        itemName = mapper.serializedClass(null);
+                    } else if (isEntry) {
+                        final String entryName = mapping.getItemFieldName() != null
+                            ? mapping.getItemFieldName()
+                            : mapper.serializedClass(Map.Entry.class);
+                        final Map.Entry<?, ?> entry = (Map.Entry<?, ?>)obj;
+                        writer.startNode(entryName, entry.getClass());
+                        writeItem(entry.getKey(), writer, context);
+                        writeItem(entry.getValue(), writer, context);
+                        writer.endNode();
+                        continue;
+                    } else if (mapping.getItemFieldName() != null) {
+                        itemType = mapping.getItemType();
+                        itemName = mapping.getItemFieldName();
+                    } else {
+                        itemType = obj.getClass();
+                        itemName = mapper.serializedClass(itemType);
                     }
+                    writeField(plan, itemName, itemType, obj, writer, context);
+                }
+            } else {
+                writeField(plan, null, plan.type, value, writer, context);
+            }
+        }
+    }
 
-                    final Field defaultField = defaultFieldDefinition.get(fieldName);
-                    if (defaultField.getDeclaringClass() != definedIn) {
-                        final String attributeName = mapper.aliasForSystemAttribute("defined-in");
-                        if (attributeName != null) {
-                            writer.addAttribute(attributeName, mapper.serializedClass(definedIn));
-                        }
+    private void writeField(final FieldPlan plan, final String aliasName, final Class<?> fieldType,
+            final Object newObj, final HierarchicalStreamWriter writer, final MarshallingContext context) {
+        final Class<?> actualType = newObj != null ? newObj.getClass() : fieldType;
+        writer.startNode(aliasName != null ? aliasName : plan.serializedName, actualType);
+
+        if (newObj != null) {
+            final Class<?> defaultType = fieldType == plan.type
+                ? plan.defaultType
+                : mapper.defaultImplementationOf(fieldType);
+            if (!actualType.equals(defaultType)) {
+                final String serializedClassName = mapper.serializedClass(actualType);
+                final String serializedDefaultType = fieldType == plan.type
+                    ? plan.serializedDefaultType
+                    : mapper.serializedClass(defaultType);
+                if (!serializedClassName.equals(serializedDefaultType)) {
+                    if (plan.classAttributeName != null) {
+                        writer.addAttribute(plan.classAttributeName, serializedClassName);
                     }
-
-                    final Field field = reflectionProvider.getField(definedIn, fieldName);
-                    marshallField(context, newObj, field);
                 }
-                writer.endNode();
             }
 
-            @Override
-            public void writeItem(final Object item) {
-                if (item == null) {
-                    final String name = mapper.serializedClass(null);
-                    writer.startNode(name, Mapper.Null.class);
-                    writer.endNode();
-                } else {
-                    final String name = mapper.serializedClass(item.getClass());
-                    writer.startNode(name, item.getClass());
-                    context.convertAnother(item);
-                    writer.endNode();
-                }
+            if (plan.definedInAttributeName != null) {
+                writer.addAttribute(plan.definedInAttributeName, plan.definedInValue);
             }
-        };
-
-        final Map<String, Set<Mapper.ImplicitCollectionMapping>> hiddenMappers = new HashMap<>();
-        for (final FieldInfo info : fields) {
-            if (info.value != null) {
-                final boolean isCollection = info.value instanceof Collection;
-                final boolean isMap = info.value instanceof Map;
-                final boolean isArray = info.value.getClass().isArray();
-                final Field defaultField = defaultFieldDefinition.get(info.fieldName);
-                Mapper.ImplicitCollectionMapping mapping = isCollection || isMap || isArray
-                    ? mapper.getImplicitCollectionDefForFieldName(defaultField.getDeclaringClass() == info.definedIn
-                        ? sourceType
-                        : info.definedIn, info.fieldName)
-                    : null;
-                if (mapping != null) {
-                    Set<Mapper.ImplicitCollectionMapping> mappings = hiddenMappers.get(info.fieldName);
-                    if (mappings == null) {
-                        mappings = new HashSet<>();
-                        mappings.add(mapping);
-                        hiddenMappers.put(info.fieldName, mappings);
-                    } else {
-                        if (!mappings.add(mapping)) {
-                            mapping = null;
-                        }
-                    }
+
+            final Field field = plan.field != null ? plan.field : reflectionProvider.getField(plan.definedIn,
+                plan.fieldName);
+            marshallField(context, newObj, field);
+        }
+        writer.endNode();
+    }
+
+    private void writeItem(final Object item, final HierarchicalStreamWriter writer,
+            final MarshallingContext context) {
+        if (item == null) {
+            final String name = mapper.serializedClass(null);
+            writer.startNode(name, Mapper.Null.class);
+            writer.endNode();
+        } else {
+            final String name = mapper.serializedClass(item.getClass());
+            writer.startNode(name, item.getClass());
+            context.convertAnother(item);
+            writer.endNode();
+        }
+    }
+
+    private FieldPlan createFieldPlan(final Class<?> sourceType, final String fieldName, final Class<?> type,
+            final Class<?> definedIn, final FieldPlan[] visited, final int count) {
+        if (!mapper.shouldSerializeMember(definedIn, fieldName)) {
+            return new FieldPlan(fieldName, type, definedIn);
+        }
+
+        Field defaultField = null;
+        boolean attributeInUse = false;
+        for (int i = 0; i < count; ++i) {
+            final FieldPlan plan = visited[i];
+            if (!plan.omitted && plan.fieldName.equals(fieldName)) {
+                if (defaultField == null) {
+                    defaultField = plan.defaultField;
                 }
-                if (mapping != null) {
-                    if (context instanceof ReferencingMarshallingContext) {
-                        if (info.value != Collections.EMPTY_LIST
-                            && info.value != Collections.EMPTY_SET
-                            && info.value != Collections.EMPTY_MAP) {
-                            final ReferencingMarshallingContext<?> refContext =
-                                    (ReferencingMarshallingContext<?>)context;
-                            refContext.registerImplicit(info.value);
-                        }
-                    }
-                    final boolean isEntry = isMap && mapping.getKeyFieldName() == null;
-                    for (final Iterator<?> iter = isArray
-                        ? new ArrayIterator(info.value)
-                        : isCollection
-                            ? ((Collection<?>)info.value).iterator()
-                            : isEntry
-                                ? ((Map<?, ?>)info.value).entrySet().iterator()
-                                : ((Map<?, ?>)info.value).values().iterator(); iter.hasNext();) {
-                        final Object obj = iter.next();
-                        final String itemName;
-                        final Class<?> itemType;
-                        if (obj == null) {
-                            itemType = Object.class;
-                            itemName = mapper.serializedClass(null);
-                        } else if (isEntry) {
-                            final String entryName = mapping.getItemFieldName() != null
-                                ? mapping.getItemFieldName()
-                                : mapper.serializedClass(Map.Entry.class);
-                            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>)obj;
-                            writer.startNode(entryName, entry.getClass());
-                            fieldMarshaller.writeItem(entry.getKey());
-                            fieldMarshaller.writeItem(entry.getValue());
-                            writer.endNode();
-                            continue;
-                        } else if (mapping.getItemFieldName() != null) {
-                            itemType = mapping.getItemType();
-                            itemName = mapping.getItemFieldName();
-                        } else {
-                            itemType = obj.getClass();
-                            itemName = mapper.serializedClass(itemType);
-                        }
-                        fieldMarshaller.writeField(info.fieldName, itemName, itemType, info.definedIn, obj);
-                    }
-                } else {
-                    fieldMarshaller.writeField(info.fieldName, null, info.type, info.definedIn, info.value);
+                if (plan.attributeConverter != null) {
+                    attributeInUse = true;
                 }
             }
         }
+        if (defaultField == null) {
+            Class<?> lookupType = sourceType;
+            // See XSTR-457 and OmitFieldsTest
+            if (definedIn != sourceType && !mapper.shouldSerializeMember(lookupType, fieldName)) {
+                lookupType = definedIn;
+            }
+            defaultField = reflectionProvider.getField(lookupType, fieldName);
+        }
+
+        final SingleValueConverter converter = mapper.getConverterFromItemType(fieldName, type, definedIn);
+        if (converter != null) {
+            final String attribute = mapper.aliasForAttribute(mapper.serializedMember(definedIn, fieldName));
+            return new FieldPlan(fieldName, type, definedIn, defaultField, converter, attribute, attributeInUse);
+        }
+
+        final boolean hiddenField = defaultField.getDeclaringClass() != definedIn;
+        final Class<?> defaultType = mapper.defaultImplementationOf(type);
+        return new FieldPlan(fieldName, type, definedIn, defaultField, reflectionProvider.getFieldOrNull(definedIn,
+            fieldName), mapper.serializedMember(sourceType, fieldName), defaultType, mapper.serializedClass(
+                defaultType), mapper.aliasForSystemAttribute("class"), hiddenField
+                    ? mapper.aliasForSystemAttribute("defined-in")
+                    : null, hiddenField ? mapper.serializedClass(definedIn) : null, mapper
+                        .getImplicitCollectionDefForFieldName(hiddenField ? definedIn : sourceType, fieldName));
     }
 
     protected void marshallField(final MarshallingContext context, final Object newObj, final Field field) {
@@ -572,12 +583,14 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
     @Override
     public void flushCache() {
         serializationMethodInvoker.flushCache();
+        marshalPlans.clear();
     }
 
     @SuppressWarnings("deprecation")
     protected Object readResolve() {
         serializationMethodInvoker = new SerializationMethodInvoker();
         serializationMembers = serializationMethodInvoker.serializationMembers;
+        marshalPlans = new ConcurrentHashMap<>();
         return this;
     }
 
@@ -640,22 +653,142 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         }
     }
 
-    private static class FieldInfo extends FieldLocation {
-        final Class<?> type;
-        final Object value;
+    private class PlanningVisitor implements ReflectionProvider.Visitor {
+        private final Class<?> sourceType;
+        private final HierarchicalStreamWriter writer;
+        private FieldPlan[] plan;
+        FieldPlan[] visited;
+        Object[] values;
+        int count;
+
+        PlanningVisitor(final Class<?> sourceType, final FieldPlan[] plan, final HierarchicalStreamWriter writer) {
+            this.sourceType = sourceType;
+            this.plan = plan;
+            this.writer = writer;
+            final int size = plan != null ? plan.length : 8;
+            visited = new FieldPlan[size];
+            values = new Object[size];
+        }
 
-        FieldInfo(final String fieldName, final Class<?> type, final Class<?> definedIn, final Object value) {
-            super(fieldName, definedIn);
-            this.type = type;
-            this.value = value;
+        @Override
+        public void visit(final String fieldName, final Class<?> type, final Class<?> definedIn, final Object value) {
+            FieldPlan fieldPlan = null;
+            if (plan != null) {
+                if (count < plan.length && plan[count].matches(fieldName, type, definedIn)) {
+                    fieldPlan = plan[count];
+                } else {
+                    // the provider visits the fields in a different way, the plan is outdated
+                    plan = null;
+                }
+            }
+            if (fieldPlan == null) {
+                fieldPlan = createFieldPlan(sourceType, fieldName, type, definedIn, visited, count);
+            }
+            if (count == visited.length) {
+                visited = Arrays.copyOf(visited, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            visited[count] = fieldPlan;
+            values[count++] = value;
+
+            if (fieldPlan.attributeConverter != null && value != null) {
+                if (fieldPlan.attributeInUse) {
+                    final ConversionException exception = new ConversionException(
+                        "Cannot write field as attribute for object, attribute name already in use");
+                    exception.add("field-name", fieldName);
+                    exception.add("object-type", sourceType.getName());
+                    throw exception;
+                }
+                final String str = fieldPlan.attributeConverter.toString(value);
+                if (str != null) {
+                    writer.addAttribute(fieldPlan.attributeName, str);
+                }
+            }
+        }
+
+        boolean isPlanCurrent() {
+            return plan != null && count == plan.length;
+        }
+
+        FieldPlan[] createPlan() {
+            return Arrays.copyOf(visited, count);
         }
     }
 
-    private interface FieldMarshaller {
-        void writeItem(final Object item);
+    /**
+     * Immutable marshalling plan of a single field of a type, i.e. any mapper decision that does not depend on the
+     * field's value.
+     */
+    private static class FieldPlan {
+        final String fieldName;
+        final Class<?> type;
+        final Class<?> definedIn;
+        final boolean omitted;
+        final Field defaultField;
+        final SingleValueConverter attributeConverter;
+        final String attributeName;
+        final boolean attributeInUse;
+        final Field field;
+        final String serializedName;
+        final Class<?> defaultType;
+        final String serializedDefaultType;
+        final String classAttributeName;
+        final String definedInAttributeName;
+        final String definedInValue;
+        final Mapper.ImplicitCollectionMapping implicitCollectionMapping;
+
+        FieldPlan(final String fieldName, final Class<?> type, final Class<?> definedIn) {
+            this(fieldName, type, definedIn, true, null, null, null, false, null, null, null, null, null, null, null,
+                null);
+        }
 
-        void writeField(final String fieldName, final String aliasName, final Class<?> fieldType,
-                final Class<?> definedIn, final Object newObj);
+        FieldPlan(
+                final String fieldName, final Class<?> type, final Class<?> definedIn, final Field defaultField,
+                final SingleValueConverter attributeConverter, final String attributeName,
+                final boolean attributeInUse) {
+            this(fieldName, type, definedIn, false, defaultField, attributeConverter, attributeName, attributeInUse,
+                null, null, null, null, null, null, null, null);
+        }
+
+        FieldPlan(
+                final String fieldName, final Class<?> type, final Class<?> definedIn, final Field defaultField,
+                final Field field, final String serializedName, final Class<?> defaultType,
+                final String serializedDefaultType, final String classAttributeName,
+                final String definedInAttributeName, final String definedInValue,
+                final Mapper.ImplicitCollectionMapping implicitCollectionMapping) {
+            this(fieldName, type, definedIn, false, defaultField, null, null, false, field, serializedName,
+                defaultType, serializedDefaultType, classAttributeName, definedInAttributeName, definedInValue,
+                implicitCollectionMapping);
+        }
+
+        private FieldPlan(
+                final String fieldName, final Class<?> type, final Class<?> definedIn, final boolean omitted,
+                final Field defaultField, final SingleValueConverter attributeConverter, final String attributeName,
+                final boolean attributeInUse, final Field field, final String serializedName,
+                final Class<?> defaultType, final String serializedDefaultType, final String classAttributeName,
+                final String definedInAttributeName, final String definedInValue,
+                final Mapper.ImplicitCollectionMapping implicitCollectionMapping) {
+            this.fieldName = fieldName;
+            this.type = type;
+            this.definedIn = definedIn;
+            this.omitted = omitted;
+            this.defaultField = defaultField;
+            this.attributeConverter = attributeConverter;
+            this.attributeName = attributeName;
+            this.attributeInUse = attributeInUse;
+            this.field = field;
+            this.serializedName = serializedName;
+            this.defaultType = defaultType;
+            this.serializedDefaultType = serializedDefaultType;
+            this.classAttributeName = classAttributeName;
+            this.definedInAttributeName = definedInAttributeName;
+            this.definedInValue = definedInValue;
+            this.implicitCollectionMapping = implicitCollectionMapping;
+        }
+
+        boolean matches(final String fieldName, final Class<?> type, final Class<?> definedIn) {
+            return this.definedIn == definedIn && this.type == type && this.fieldName.equals(fieldName);
+        }
     }
 
     private static class ArraysList extends ArrayList<Object> {
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.thoughtworks.xstream.core.Caching;
+import com.thoughtworks.xstream.core.util.Fields;
+
+
+/**
+ * Pure Java ReflectionProvider that accesses fields with method handles.
+ * <p>
+ * The provider binds a getter and a setter method handle for each field of a type once and uses them for any later
+ * read and write access. It does not depend on internal JDK features like sun.misc.Unsafe and can therefore be used on
+ * any runtime where those are restricted. Instances are created in the same way as the
+ * {@link PureJavaReflectionProvider} does.
+ * </p>
+ * <p>
+ * If a method handle cannot be bound for a field (e.g. for a final field of a record or a hidden class), the provider
+ * falls back to standard Java reflection for this field.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class MethodHandleReflectionProvider extends PureJavaReflectionProvider implements Caching {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private transient ConcurrentMap<Class<?>, TypeAccessors> typeAccessors;
+
+    /**
+     * @since upcoming
+     */
+    public MethodHandleReflectionProvider() {
+        super();
+    }
+
+    /**
+     * @since upcoming
+     */
+    public MethodHandleReflectionProvider(final FieldDictionary fieldDictionary) {
+        super(fieldDictionary);
+    }
+
+    @Override
+    public void visitSerializableFields(final Object object, final ReflectionProvider.Visitor visitor) {
+        for (final FieldAccessor accessor : accessorsFor(object.getClass()).serializableFields) {
+            final Field field = accessor.field;
+            visitor.visit(field.getName(), field.getType(), field.getDeclaringClass(), accessor.read(object));
+        }
+    }
+
+    @Override
+    public void writeField(final Object object, final String fieldName, final Object value, final Class<?> definedIn) {
+        final Class<?> type = object.getClass();
+        final FieldAccessor accessor = accessorsFor(type).find(fieldName, definedIn);
+        if (accessor == null) {
+            // let the FieldDictionary report the missing field
+            super.writeField(object, fieldName, value, definedIn);
+        } else {
+            accessor.write(object, value);
+        }
+    }
+
+    @Override
+    public void setFieldDictionary(final FieldDictionary dictionary) {
+        super.setFieldDictionary(dictionary);
+        typeAccessors.clear();
+    }
+
+    @Override
+    public void flushCache() {
+        fieldDictionary.flushCache();
+        typeAccessors.clear();
+    }
+
+    private TypeAccessors accessorsFor(final Class<?> type) {
+        TypeAccessors accessors = typeAccessors.get(type);
+        if (accessors == null) {
+            accessors = new TypeAccessors(type);
+            final TypeAccessors existing = typeAccessors.putIfAbsent(type, accessors);
+            if (existing != null) {
+                accessors = existing;
+            }
+        }
+        return accessors;
+    }
+
+    private Object readResolve() {
+        init();
+        return this;
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        typeAccessors = new ConcurrentHashMap<>();
+    }
+
+    private class TypeAccessors {
+        final FieldAccessor[] serializableFields;
+        final Map<String, FieldAccessor> fieldsByName;
+        final Map<Class<?>, Map<String, FieldAccessor>> fieldsByDeclaringClass;
+
+        TypeAccessors(final Class<?> type) {
+            final Map<Field, FieldAccessor> accessors = new HashMap<>();
+            final List<FieldAccessor> serializable = new ArrayList<>();
+            final List<FieldAccessor> all = new ArrayList<>();
+            fieldsByName = new HashMap<>();
+            fieldsByDeclaringClass = new HashMap<>();
+            for (final Iterator<Field> iterator = fieldDictionary.fieldsFor(type); iterator.hasNext();) {
+                final Field field = iterator.next();
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                validateFieldAccess(field);
+                final FieldAccessor accessor = new FieldAccessor(field);
+                accessors.put(field, accessor);
+                Map<String, FieldAccessor> declared = fieldsByDeclaringClass.get(field.getDeclaringClass());
+                if (declared == null) {
+                    declared = new HashMap<>();
+                    fieldsByDeclaringClass.put(field.getDeclaringClass(), declared);
+                }
+                declared.put(field.getName(), accessor);
+                all.add(accessor);
+                if (fieldModifiersSupported(field)) {
+                    serializable.add(accessor);
+                }
+            }
+            for (final FieldAccessor accessor : all) {
+                final String name = accessor.field.getName();
+                if (!fieldsByName.containsKey(name)) {
+                    final Field field = fieldDictionary.fieldOrNull(type, name, null);
+                    final FieldAccessor byName = accessors.get(field);
+                    if (byName != null) {
+                        fieldsByName.put(name, byName);
+                    }
+                }
+            }
+            serializableFields = serializable.toArray(new FieldAccessor[serializable.size()]);
+        }
+
+        FieldAccessor find(final String fieldName, final Class<?> definedIn) {
+            if (definedIn == null) {
+                return fieldsByName.get(fieldName);
+            }
+            final Map<String, FieldAccessor> declared = fieldsByDeclaringClass.get(definedIn);
+            return declared != null ? declared.get(fieldName) : null;
+        }
+    }
+
+    private static class FieldAccessor {
+        final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        FieldAccessor(final Field field) {
+            this.field = field;
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle;
+            try {
+                handle = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (final IllegalAccessException | SecurityException e) {
+                handle = null;
+            }
+            getter = handle;
+            try {
+                handle = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (final IllegalAccessException | SecurityException e) {
+                handle = null;
+            }
+            setter = handle;
+        }
+
+        Object read(final Object instance) {
+            if (getter == null) {
+                return Fields.read(field, instance);
+            }
+            try {
+                return (Object)getter.invokeExact(instance);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        void write(final Object instance, final Object value) {
+            if (setter == null) {
+                Fields.write(field, instance, value);
+                return;
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        private ObjectAccessException wrap(final String message, final Throwable cause) {
+            final ObjectAccessException exception = new ObjectAccessException(message, cause);
+            exception.add("field", field.getDeclaringClass().getName() + "." + field.getName());
+            return exception;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2014, 2015, 2018, 2019 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2014, 2015, 2018, 2019, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,7 +15,7 @@ import java.util.Iterator;
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.ReferenceTable;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.path.Path;
 import com.thoughtworks.xstream.io.path.PathTracker;
@@ -33,8 +33,8 @@ import com.thoughtworks.xstream.mapper.Mapper;
  */
 public abstract class AbstractReferenceMarshaller<R> extends TreeMarshaller {
 
-    private final ObjectIdDictionary<Id<R>> references = new ObjectIdDictionary<>();
-    private final ObjectIdDictionary<Object> implicitElements = new ObjectIdDictionary<>();
+    private final ReferenceTable<Object, Id<R>> references = new ReferenceTable<>(true);
+    private final ReferenceTable<Object, Object> implicitElements = new ReferenceTable<>(true);
     private final PathTracker pathTracker = new PathTracker();
     private Path lastPath;
 
@@ -48,10 +48,10 @@ public abstract class AbstractReferenceMarshaller<R> extends TreeMarshaller {
     public void convert(final Object item, final Converter converter) {
         if (getMapper().isImmutableValueType(item.getClass())) {
             // strings, ints, dates, etc... don't bother using references.
-            converter.marshal(item, writer, this);
+            invokeConverter(item, converter, this);
         } else {
             final Path currentPath = pathTracker.getPath();
-            final Id<R> existingReference = references.lookupId(item);
+            final Id<R> existingReference = references.get(item);
             if (existingReference != null && existingReference.getPath() != currentPath) {
                 final String attributeName = getMapper().aliasForSystemAttribute("reference");
                 if (attributeName != null) {
@@ -64,9 +64,9 @@ public abstract class AbstractReferenceMarshaller<R> extends TreeMarshaller {
                 if (lastPath == null || !currentPath.isAncestor(lastPath)) {
                     fireValidReference(newReferenceKey);
                     lastPath = currentPath;
-                    references.associateId(item, new Id<>(newReferenceKey, currentPath));
+                    references.put(item, new Id<>(newReferenceKey, currentPath));
                 }
-                converter.marshal(item, writer, new ReferencingMarshallingContext<R>() {
+                invokeConverter(item, converter, new ReferencingMarshallingContext<R>() {
 
                     @Override
                     public void put(final Object key, final Object value) {
@@ -95,12 +95,12 @@ public abstract class AbstractReferenceMarshaller<R> extends TreeMarshaller {
 
                     @Override
                     public void replace(final Object original, final Object replacement) {
-                        references.associateId(replacement, new Id<>(newReferenceKey, currentPath));
+                        references.put(replacement, new Id<>(newReferenceKey, currentPath));
                     }
 
                     @Override
                     public R lookupReference(final Object item) {
-                        final Id<R> id = references.lookupId(item);
+                        final Id<R> id = references.get(item);
                         return id.getItem();
                     }
 
@@ -115,16 +115,21 @@ public abstract class AbstractReferenceMarshaller<R> extends TreeMarshaller {
 
                     @Override
                     public void registerImplicit(final Object item) {
-                        if (implicitElements.containsId(item)) {
+                        if (implicitElements.containsKey(item)) {
                             throw new ReferencedImplicitElementException(item, currentPath);
                         }
-                        implicitElements.associateId(item, newReferenceKey);
+                        implicitElements.put(item, newReferenceKey);
                     }
                 });
             }
         }
     }
 
+    @Override
+    protected int getReferenceCount() {
+        return references.size();
+    }
+
     protected abstract String createReference(Path currentPath, R existingReferenceKey);
 
     protected abstract R createReferenceKey(Path currentPath, Object item);
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2008, 2011, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2011, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,13 +10,11 @@
  */
 package com.thoughtworks.xstream.core;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.core.util.FastStack;
+import com.thoughtworks.xstream.core.util.ReferenceTable;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.mapper.Mapper;
 
@@ -32,7 +30,7 @@ import com.thoughtworks.xstream.mapper.Mapper;
 public abstract class AbstractReferenceUnmarshaller<R> extends TreeUnmarshaller {
 
     private static final Object NULL = new Object();
-    private final Map<R, Object> values = new HashMap<>();
+    private final ReferenceTable<R, Object> values = new ReferenceTable<>(false);
     private final FastStack<R> parentStack = new FastStack<>(16);
 
     public AbstractReferenceUnmarshaller(
@@ -85,6 +83,11 @@ public abstract class AbstractReferenceUnmarshaller<R> extends TreeUnmarshaller
         return result;
     }
 
+    @Override
+    protected int getReferenceCount() {
+        return values.size();
+    }
+
     protected abstract R getReferenceKey(String reference);
 
     protected abstract R getCurrentReferenceKey();
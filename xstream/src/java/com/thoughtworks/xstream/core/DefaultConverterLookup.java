@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2016, 2017, 2019, 2022 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2016, 2017, 2019, 2022, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,20 +11,28 @@
  */
 package com.thoughtworks.xstream.core;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.ConverterRegistry;
-import com.thoughtworks.xstream.core.util.Cloneables;
 import com.thoughtworks.xstream.core.util.PrioritizedList;
 
 
 /**
  * The default implementation of converters lookup.
+ * <p>
+ * The lookup caches the converter per type. The cache is keyed by the type itself and can be read concurrently
+ * without locking. Registering a converter late will only evict the cached types the new converter can handle, any
+ * other cached result stays valid.
+ * </p>
  *
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
@@ -32,12 +40,15 @@ import com.thoughtworks.xstream.core.util.PrioritizedList;
  */
 public class DefaultConverterLookup implements ConverterLookup, ConverterRegistry, Caching {
 
+    private static final Converter[] EMPTY = new Converter[0];
+
     private final PrioritizedList<Converter> converters = new PrioritizedList<>();
-    private transient Map<String, Converter> typeToConverterMap;
-    private Map<String, Converter> serializationMap = null;
+    private transient volatile Converter[] convertersSnapshot;
+    private transient ConcurrentMap<Class<?>, Converter> typeToConverterMap;
+    private transient Instrumentation instrumentation;
 
     public DefaultConverterLookup() {
-        this(new HashMap<>());
+        readResolve();
     }
 
     /**
@@ -46,25 +57,41 @@ public class DefaultConverterLookup implements ConverterLookup, ConverterRegistr
      * @param map the map to use
      * @throws NullPointerException if map is null
      * @since 1.4.11
+     * @deprecated As of upcoming use {@link #DefaultConverterLookup()}, the lookup uses an internal concurrent cache
+     *             keyed by type, the provided map is no longer used
      */
+    @Deprecated
     public DefaultConverterLookup(final Map<String, Converter> map) {
-        typeToConverterMap = map;
-        typeToConverterMap.clear();
+        this();
+        map.clear();
     }
 
     @Override
     public Converter lookupConverterForType(final Class<?> type) {
-        final Converter cachedConverter = type != null ? typeToConverterMap.get(type.getName()) : null;
-        if (cachedConverter != null) {
-            return cachedConverter;
+        if (type != null) {
+            final Converter cachedConverter = typeToConverterMap.get(type);
+            if (cachedConverter != null) {
+                if (instrumentation != null) {
+                    instrumentation.converterLookedUp(type, true);
+                }
+                return cachedConverter;
+            }
+        }
+        if (instrumentation != null) {
+            instrumentation.converterLookedUp(type, false);
         }
 
+        final Converter[] snapshot = convertersSnapshot;
         final Map<String, String> errors = new LinkedHashMap<>();
-        for (final Converter converter : converters) {
+        for (final Converter converter : snapshot) {
             try {
                 if (converter.canConvert(type)) {
                     if (type != null) {
-                        typeToConverterMap.put(type.getName(), converter);
+                        typeToConverterMap.put(type, converter);
+                        if (snapshot != convertersSnapshot) {
+                            // concurrent registration, result might be outdated already
+                            typeToConverterMap.remove(type, converter);
+                        }
                     }
                     return converter;
                 }
@@ -85,30 +112,68 @@ public class DefaultConverterLookup implements ConverterLookup, ConverterRegistr
     }
 
     @Override
-    public void registerConverter(final Converter converter, final int priority) {
-        typeToConverterMap.clear();
+    public synchronized void registerConverter(final Converter converter, final int priority) {
         converters.add(converter, priority);
+        convertersSnapshot = createSnapshot();
+        for (final Iterator<Map.Entry<Class<?>, Converter>> iter = typeToConverterMap.entrySet().iterator(); iter
+            .hasNext();) {
+            final Map.Entry<Class<?>, Converter> entry = iter.next();
+            try {
+                if (!converter.canConvert(entry.getKey())) {
+                    continue;
+                }
+            } catch (final RuntimeException | LinkageError e) {
+                // let the next lookup decide
+            }
+            iter.remove();
+        }
+    }
+
+    /**
+     * Set the instrumentation notified about the cache hits.
+     *
+     * @param instrumentation the instrumentation or <code>null</code>
+     * @since upcoming
+     */
+    public void setInstrumentation(final Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
     }
 
     @Override
     public void flushCache() {
         typeToConverterMap.clear();
-        for (final Converter converter : converters) {
+        flushConverterCaches();
+    }
+
+    /**
+     * Flush the caches of the registered converters only.
+     * <p>
+     * The cached converter per type is kept. Call this method if the configuration of the mapper changes, since the
+     * converters may cache results depending on it, while a late registered converter evicts the affected types on its
+     * own.
+     * </p>
+     *
+     * @since upcoming
+     */
+    public void flushConverterCaches() {
+        for (final Converter converter : convertersSnapshot) {
             if (converter instanceof Caching) {
                 ((Caching)converter).flushCache();
             }
         }
     }
 
-    private Object writeReplace() {
-        serializationMap = Cloneables.cloneIfPossible(typeToConverterMap);
-        serializationMap.clear();
-        return this;
+    private Converter[] createSnapshot() {
+        final List<Converter> list = new ArrayList<>();
+        for (final Converter converter : converters) {
+            list.add(converter);
+        }
+        return list.toArray(EMPTY);
     }
 
     private Object readResolve() {
-        typeToConverterMap = serializationMap == null ? new HashMap<>() : serializationMap;
-        serializationMap = null;
+        typeToConverterMap = new ConcurrentHashMap<>();
+        convertersSnapshot = createSnapshot();
         return this;
     }
 }
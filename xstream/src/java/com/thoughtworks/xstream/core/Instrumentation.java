@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import com.thoughtworks.xstream.converters.Converter;
+
+
+/**
+ * Listener for the internal operations of XStream.
+ * <p>
+ * An instrumentation is registered with {@link com.thoughtworks.xstream.XStream#setInstrumentation(Instrumentation)}
+ * and notified by the {@link TreeMarshaller}, the {@link TreeUnmarshaller}, the {@link DefaultConverterLookup} and the
+ * {@link com.thoughtworks.xstream.mapper.CachingMapper}. Without a registered instrumentation XStream does not measure
+ * anything. The methods are called synchronously by any thread using the XStream instance, an implementation must
+ * therefore be thread-safe and should return quickly. All methods have an empty default implementation.
+ * </p>
+ *
+ * @see JfrInstrumentation
+ * @since upcoming
+ */
+public interface Instrumentation {
+
+    /**
+     * Notification about a converter that marshalled or unmarshalled an object.
+     * <p>
+     * The time includes the time of all converters called for nested objects.
+     * </p>
+     *
+     * @param type the type of the converted object
+     * @param converter the converter
+     * @param marshalling <code>true</code> if the object has been marshalled
+     * @param nanos the elapsed time in nanoseconds
+     * @since upcoming
+     */
+    default void converterCalled(final Class<?> type, final Converter converter, final boolean marshalling,
+            final long nanos) {
+        // do nothing
+    }
+
+    /**
+     * Notification about the lookup of a converter.
+     *
+     * @param type the type to convert
+     * @param cached <code>true</code> if the converter was found in the cache
+     * @since upcoming
+     */
+    default void converterLookedUp(final Class<?> type, final boolean cached) {
+        // do nothing
+    }
+
+    /**
+     * Notification about the lookup of a type for an element name.
+     *
+     * @param elementName the name of the element
+     * @param cached <code>true</code> if the type was found in the cache
+     * @since upcoming
+     */
+    default void classLookedUp(final String elementName, final boolean cached) {
+        // do nothing
+    }
+
+    /**
+     * Notification about a marshalled object graph.
+     *
+     * @param type the type of the root object or <code>null</code>
+     * @param nanos the elapsed time in nanoseconds
+     * @param nodes the number of written nodes
+     * @param characters the number of characters written as values or attribute values
+     * @param references the number of objects tracked for references
+     * @since upcoming
+     */
+    default void marshalled(final Class<?> type, final long nanos, final int nodes, final long characters,
+            final int references) {
+        // do nothing
+    }
+
+    /**
+     * Notification about an unmarshalled object graph.
+     *
+     * @param type the type of the root object or <code>null</code>
+     * @param nanos the elapsed time in nanoseconds
+     * @param nodes the number of read nodes
+     * @param characters the number of characters read as values
+     * @param references the number of objects tracked for references
+     * @since upcoming
+     */
+    default void unmarshalled(final Class<?> type, final long nanos, final int nodes, final long characters,
+            final int references) {
+        // do nothing
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.util.Iterator;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.DataHolder;
+
+
+/**
+ * A DataHolder that provides an {@link Instrumentation} for a single marshalling or unmarshalling operation.
+ * <p>
+ * The instrumentation is returned for the key {@link XStream#INSTRUMENTATION}, any other key is delegated to the
+ * wrapped DataHolder. The wrapped DataHolder is not modified and the key is not part of the {@link #keys()}.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class InstrumentedDataHolder implements DataHolder {
+    private final DataHolder dataHolder;
+    private final Instrumentation instrumentation;
+
+    /**
+     * Construct an InstrumentedDataHolder.
+     *
+     * @param dataHolder the wrapped DataHolder
+     * @param instrumentation the instrumentation for the operation
+     * @since upcoming
+     */
+    public InstrumentedDataHolder(final DataHolder dataHolder, final Instrumentation instrumentation) {
+        this.dataHolder = dataHolder;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return XStream.INSTRUMENTATION.equals(key) ? instrumentation : dataHolder.get(key);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        dataHolder.put(key, value);
+    }
+
+    @Override
+    public Iterator<Object> keys() {
+        return dataHolder.keys();
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.thoughtworks.xstream.converters.Converter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * An {@link Instrumentation} that reports to the Java Flight Recorder.
+ * <p>
+ * Every marshalled and unmarshalled object graph is committed as event. The calls of the converters and the lookups in
+ * the caches are aggregated and committed periodically, by default every second, as statistics event per type and
+ * converter and as cache statistics event. The statistics contain the values since the last period. Close the
+ * instrumentation to stop the periodic events.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class JfrInstrumentation implements Instrumentation, AutoCloseable {
+
+    private final Map<ConverterKey, ConverterStatistics> converterStatistics = new ConcurrentHashMap<>();
+    private final LongAdder converterHits = new LongAdder();
+    private final LongAdder converterMisses = new LongAdder();
+    private final LongAdder classHits = new LongAdder();
+    private final LongAdder classMisses = new LongAdder();
+    private final Runnable converterHook = this::commitConverterStatistics;
+    private final Runnable cacheHook = this::commitCacheStatistics;
+
+    /**
+     * Construct a JfrInstrumentation and register the periodic events.
+     *
+     * @since upcoming
+     */
+    public JfrInstrumentation() {
+        FlightRecorder.addPeriodicEvent(ConverterStatisticsEvent.class, converterHook);
+        FlightRecorder.addPeriodicEvent(CacheStatisticsEvent.class, cacheHook);
+    }
+
+    @Override
+    public void converterCalled(final Class<?> type, final Converter converter, final boolean marshalling,
+            final long nanos) {
+        final ConverterKey key = new ConverterKey(type, converter.getClass());
+        final ConverterStatistics statistics = converterStatistics.computeIfAbsent(key,
+            k -> new ConverterStatistics());
+        if (marshalling) {
+            statistics.marshalCount.increment();
+            statistics.marshalTime.add(nanos);
+        } else {
+            statistics.unmarshalCount.increment();
+            statistics.unmarshalTime.add(nanos);
+        }
+    }
+
+    @Override
+    public void converterLookedUp(final Class<?> type, final boolean cached) {
+        (cached ? converterHits : converterMisses).increment();
+    }
+
+    @Override
+    public void classLookedUp(final String elementName, final boolean cached) {
+        (cached ? classHits : classMisses).increment();
+    }
+
+    @Override
+    public void marshalled(final Class<?> type, final long nanos, final int nodes, final long characters,
+            final int references) {
+        final MarshalEvent event = new MarshalEvent();
+        if (event.isEnabled()) {
+            event.type = type;
+            event.elapsedTime = nanos;
+            event.nodes = nodes;
+            event.characters = characters;
+            event.references = references;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void unmarshalled(final Class<?> type, final long nanos, final int nodes, final long characters,
+            final int references) {
+        final UnmarshalEvent event = new UnmarshalEvent();
+        if (event.isEnabled()) {
+            event.type = type;
+            event.elapsedTime = nanos;
+            event.nodes = nodes;
+            event.characters = characters;
+            event.references = references;
+            event.commit();
+        }
+    }
+
+    /**
+     * Remove the periodic events.
+     *
+     * @since upcoming
+     */
+    @Override
+    public void close() {
+        FlightRecorder.removePeriodicEvent(converterHook);
+        FlightRecorder.removePeriodicEvent(cacheHook);
+    }
+
+    private void commitConverterStatistics() {
+        for (final Map.Entry<ConverterKey, ConverterStatistics> entry : converterStatistics.entrySet()) {
+            final ConverterStatistics statistics = entry.getValue();
+            final long marshalCount = statistics.marshalCount.sumThenReset();
+            final long unmarshalCount = statistics.unmarshalCount.sumThenReset();
+            if (marshalCount != 0 || unmarshalCount != 0) {
+                final ConverterStatisticsEvent event = new ConverterStatisticsEvent();
+                event.type = entry.getKey().type;
+                event.converter = entry.getKey().converter;
+                event.marshalCount = marshalCount;
+                event.marshalTime = statistics.marshalTime.sumThenReset();
+                event.unmarshalCount = unmarshalCount;
+                event.unmarshalTime = statistics.unmarshalTime.sumThenReset();
+                event.commit();
+            }
+        }
+    }
+
+    private void commitCacheStatistics() {
+        final CacheStatisticsEvent event = new CacheStatisticsEvent();
+        event.converterHits = converterHits.sumThenReset();
+        event.converterMisses = converterMisses.sumThenReset();
+        event.classHits = classHits.sumThenReset();
+        event.classMisses = classMisses.sumThenReset();
+        event.commit();
+    }
+
+    private static final class ConverterKey {
+        private final Class<?> type;
+        private final Class<?> converter;
+
+        ConverterKey(final Class<?> type, final Class<?> converter) {
+            this.type = type;
+            this.converter = converter;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + converter.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ConverterKey)) {
+                return false;
+            }
+            final ConverterKey other = (ConverterKey)obj;
+            return type == other.type && converter == other.converter;
+        }
+    }
+
+    private static final class ConverterStatistics {
+        private final LongAdder marshalCount = new LongAdder();
+        private final LongAdder marshalTime = new LongAdder();
+        private final LongAdder unmarshalCount = new LongAdder();
+        private final LongAdder unmarshalTime = new LongAdder();
+    }
+
+    /**
+     * Event for a marshalled object graph.
+     *
+     * @since upcoming
+     */
+    @Name("com.thoughtworks.xstream.Marshal")
+    @Label("XStream Marshal")
+    @Category("XStream")
+    @Description("Marshalled object graph")
+    @StackTrace(false)
+    public static class MarshalEvent extends Event {
+        @Label("Root Type")
+        Class<?> type;
+        @Label("Elapsed Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsedTime;
+        @Label("Nodes")
+        int nodes;
+        @Label("Characters")
+        long characters;
+        @Label("References")
+        int references;
+    }
+
+    /**
+     * Event for an unmarshalled object graph.
+     *
+     * @since upcoming
+     */
+    @Name("com.thoughtworks.xstream.Unmarshal")
+    @Label("XStream Unmarshal")
+    @Category("XStream")
+    @Description("Unmarshalled object graph")
+    @StackTrace(false)
+    public static class UnmarshalEvent extends Event {
+        @Label("Root Type")
+        Class<?> type;
+        @Label("Elapsed Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsedTime;
+        @Label("Nodes")
+        int nodes;
+        @Label("Characters")
+        long characters;
+        @Label("References")
+        int references;
+    }
+
+    /**
+     * Periodic event with the calls of a converter for a type. The times include nested conversions.
+     *
+     * @since upcoming
+     */
+    @Name("com.thoughtworks.xstream.ConverterStatistics")
+    @Label("XStream Converter Statistics")
+    @Category("XStream")
+    @Description("Calls of a converter for a type since the last period")
+    @StackTrace(false)
+    @Period("1 s")
+    public static class ConverterStatisticsEvent extends Event {
+        @Label("Type")
+        Class<?> type;
+        @Label("Converter")
+        Class<?> converter;
+        @Label("Marshal Count")
+        long marshalCount;
+        @Label("Marshal Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long marshalTime;
+        @Label("Unmarshal Count")
+        long unmarshalCount;
+        @Label("Unmarshal Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long unmarshalTime;
+    }
+
+    /**
+     * Periodic event with the hits and misses of the caches.
+     *
+     * @since upcoming
+     */
+    @Name("com.thoughtworks.xstream.CacheStatistics")
+    @Label("XStream Cache Statistics")
+    @Category("XStream")
+    @Description("Hits and misses of the converter and class caches since the last period")
+    @StackTrace(false)
+    @Period("1 s")
+    public static class CacheStatisticsEvent extends Event {
+        @Label("Converter Hits")
+        long converterHits;
+        @Label("Converter Misses")
+        long converterMisses;
+        @Label("Class Hits")
+        long classHits;
+        @Label("Class Misses")
+        long classMisses;
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.converters.DataHolder;
+import com.thoughtworks.xstream.converters.collections.CollectionConverter;
+import com.thoughtworks.xstream.converters.collections.MapConverter;
+import com.thoughtworks.xstream.core.util.HierarchicalStreams;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.copy.HierarchicalStreamBuffer;
+import com.thoughtworks.xstream.io.copy.HierarchicalStreamCopier;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+
+/**
+ * A marshalling strategy without references that processes the elements of a large root collection in parallel.
+ * <p>
+ * If the root object is a collection or map handled by the default {@link CollectionConverter} or
+ * {@link MapConverter}, its elements are split into chunks. Each chunk is marshalled by an executor into a
+ * {@link HierarchicalStreamBuffer} and the buffers are written in order into the target writer. The result is identical
+ * to the one of the {@link TreeMarshallingStrategy}. Any other root object is marshalled sequentially.
+ * </p>
+ * <p>
+ * At unmarshalling time the calling thread reads the child elements of such a root collection and records them in
+ * chunks into buffers. The executor unmarshals each chunk into a separate collection or map of the root's type and the
+ * chunks are merged in document order into the first one. Any other root element or a given root object is
+ * unmarshalled sequentially. Completion callbacks registered by converters are run at the end of each chunk.
+ * </p>
+ * <p>
+ * The strategy keeps a limited number of chunks in memory. The converters run concurrently and must not share mutable
+ * state. Each chunk has its own copy of the data of the {@link DataHolder}, values stored by converters are not visible
+ * for other chunks. As with {@link com.thoughtworks.xstream.XStream#NO_REFERENCES}, an object referenced multiple times
+ * is written multiple times. An {@link Instrumentation} is notified about the converter calls of every chunk, but only
+ * once about the complete graph.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ParallelTreeMarshallingStrategy extends TreeMarshallingStrategy {
+
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+
+    /**
+     * Construct a ParallelTreeMarshallingStrategy using the common ForkJoinPool and chunks of 1000 elements.
+     *
+     * @since upcoming
+     */
+    public ParallelTreeMarshallingStrategy() {
+        this(ForkJoinPool.commonPool(), 1000);
+    }
+
+    /**
+     * Construct a ParallelTreeMarshallingStrategy.
+     *
+     * @param executor the executor marshalling the chunks
+     * @param chunkSize the number of elements marshalled as one chunk
+     * @since upcoming
+     */
+    public ParallelTreeMarshallingStrategy(final Executor executor, final int chunkSize) {
+        this(executor, chunkSize, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construct a ParallelTreeMarshallingStrategy.
+     *
+     * @param executor the executor marshalling the chunks
+     * @param chunkSize the number of elements marshalled as one chunk
+     * @param maxPendingChunks the maximum number of chunks kept in memory
+     * @since upcoming
+     */
+    public ParallelTreeMarshallingStrategy(final Executor executor, final int chunkSize, final int maxPendingChunks) {
+        if (chunkSize < 1 || maxPendingChunks < 1) {
+            throw new IllegalArgumentException("Chunk size and number of pending chunks must be positive");
+        }
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    @Override
+    public void marshal(final HierarchicalStreamWriter writer, final Object obj, final ConverterLookup converterLookup,
+            final Mapper mapper, final DataHolder dataHolder) {
+        final Converter converter = obj == null ? null : converterLookup.lookupConverterForType(obj.getClass());
+        final Collection<?> elements;
+        if (!isSplittable(converter)) {
+            elements = null;
+        } else if (obj instanceof Map) {
+            elements = ((Map<?, ?>)obj).entrySet();
+        } else {
+            elements = (Collection<?>)obj;
+        }
+        if (elements == null || elements.size() <= chunkSize) {
+            super.marshal(writer, obj, converterLookup, mapper, dataHolder);
+            return;
+        }
+
+        final Map<Object, Object> data = copy(dataHolder);
+        final Instrumentation instrumentation = instrumentationOf(dataHolder);
+        final long start = System.nanoTime();
+        // the chunks report their converter calls, the graph is counted once while writing the buffers
+        final TreeMarshaller.CountingWriter counter = instrumentation == null
+            ? null
+            : new TreeMarshaller.CountingWriter(writer);
+        final HierarchicalStreamWriter target = counter == null ? writer : counter;
+        final boolean isMap = obj instanceof Map;
+        final Deque<CompletableFuture<HierarchicalStreamBuffer>> pending = new ArrayDeque<>();
+        target.startNode(mapper.serializedClass(obj.getClass()), obj.getClass());
+        try {
+            List<Object> chunk = new ArrayList<>(chunkSize);
+            for (final Iterator<?> iter = elements.iterator(); iter.hasNext();) {
+                chunk.add(iter.next());
+                if (chunk.size() == chunkSize || !iter.hasNext()) {
+                    final Object part = isMap ? new EntryChunk(chunk) : chunk;
+                    pending.add(CompletableFuture.supplyAsync(() -> {
+                        final HierarchicalStreamBuffer buffer = new HierarchicalStreamBuffer();
+                        new ChunkMarshaller(buffer, converterLookup, mapper, obj, data, instrumentation)
+                            .marshalChunk(part, converter);
+                        return buffer;
+                    }, executor));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (pending.size() >= maxPendingChunks) {
+                        await(pending.removeFirst()).writeTo(target);
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                await(pending.removeFirst()).writeTo(target);
+            }
+        } finally {
+            for (final CompletableFuture<HierarchicalStreamBuffer> future : pending) {
+                future.cancel(false);
+            }
+        }
+        target.endNode();
+        if (counter != null) {
+            // a tree marshaller tracks no references
+            instrumentation.marshalled(obj.getClass(), System.nanoTime() - start, counter.nodes, counter.characters,
+                0);
+        }
+    }
+
+    @Override
+    public Object unmarshal(final Object root, final HierarchicalStreamReader reader, final DataHolder dataHolder,
+            final ConverterLookup converterLookup, final Mapper mapper) {
+        if (root != null || !isSplittable(converterLookup.lookupConverterForType(mapper.defaultImplementationOf(
+            HierarchicalStreams.readClassType(reader, mapper))))) {
+            return super.unmarshal(root, reader, dataHolder, converterLookup, mapper);
+        }
+
+        final Map<Object, Object> data = copy(dataHolder);
+        final Instrumentation instrumentation = instrumentationOf(dataHolder);
+        final long start = System.nanoTime();
+        // the chunks report their converter calls, the graph is counted once while reading it into the buffers
+        final TreeUnmarshaller.CountingReader counter = instrumentation == null
+            ? null
+            : new TreeUnmarshaller.CountingReader(reader);
+        final HierarchicalStreamReader source = counter == null ? reader : counter;
+        final HierarchicalStreamCopier copier = new HierarchicalStreamCopier();
+        final Deque<CompletableFuture<Object>> pending = new ArrayDeque<>();
+        Object result = null;
+        try {
+            do {
+                final HierarchicalStreamBuffer buffer = new HierarchicalStreamBuffer();
+                buffer.startNode(source.getNodeName());
+                for (int i = 0; i < source.getAttributeCount(); ++i) {
+                    buffer.addAttribute(source.getAttributeName(i), source.getAttribute(i));
+                }
+                for (int i = 0; i < chunkSize && source.hasMoreChildren(); ++i) {
+                    source.moveDown();
+                    copier.copy(source, buffer);
+                    source.moveUp();
+                }
+                buffer.endNode();
+                final Supplier<Object> task = () -> new TreeUnmarshaller(null, buffer.createReader(), converterLookup,
+                    mapper).start(new MapBackedDataHolder(new HashMap<>(data)), instrumentation);
+                if (result == null && pending.isEmpty() && !source.hasMoreChildren()) {
+                    result = task.get();
+                } else {
+                    pending.add(CompletableFuture.supplyAsync(task, executor));
+                    if (pending.size() >= maxPendingChunks) {
+                        result = merge(result, await(pending.removeFirst()));
+                    }
+                }
+            } while (source.hasMoreChildren());
+            while (!pending.isEmpty()) {
+                result = merge(result, await(pending.removeFirst()));
+            }
+        } finally {
+            for (final CompletableFuture<Object> future : pending) {
+                future.cancel(false);
+            }
+        }
+        if (counter != null) {
+            // a tree unmarshaller tracks no references
+            instrumentation.unmarshalled(result == null ? null : result.getClass(), System.nanoTime() - start,
+                counter.nodes, counter.characters, 0);
+        }
+        return result;
+    }
+
+    private static boolean isSplittable(final Converter converter) {
+        return converter != null
+            && (converter.getClass() == CollectionConverter.class || converter.getClass() == MapConverter.class);
+    }
+
+    private static Instrumentation instrumentationOf(final DataHolder dataHolder) {
+        return dataHolder != null ? (Instrumentation)dataHolder.get(XStream.INSTRUMENTATION) : null;
+    }
+
+    private static Map<Object, Object> copy(final DataHolder dataHolder) {
+        final Map<Object, Object> data = new HashMap<>();
+        if (dataHolder != null) {
+            for (final Iterator<Object> keys = dataHolder.keys(); keys.hasNext();) {
+                final Object key = keys.next();
+                data.put(key, dataHolder.get(key));
+            }
+        }
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object merge(final Object result, final Object chunk) {
+        if (result == null) {
+            return chunk;
+        } else if (result instanceof Map) {
+            ((Map<Object, Object>)result).putAll((Map<?, ?>)chunk);
+        } else {
+            ((Collection<Object>)result).addAll((Collection<?>)chunk);
+        }
+        return result;
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new ConversionException(cause);
+        }
+    }
+
+    private static final class ChunkMarshaller extends TreeMarshaller {
+        private final Object root;
+
+        ChunkMarshaller(
+                final HierarchicalStreamWriter writer, final ConverterLookup converterLookup, final Mapper mapper,
+                final Object root, final Map<Object, Object> data, final Instrumentation instrumentation) {
+            super(writer, converterLookup, mapper);
+            this.root = root;
+            setInstrumentation(instrumentation);
+            for (final Map.Entry<Object, Object> entry : data.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        void marshalChunk(final Object chunk, final Converter converter) {
+            converter.marshal(chunk, writer, this);
+        }
+
+        @Override
+        protected void convert(final Object item, final Converter converter) {
+            if (item == root) {
+                final ConversionException e = new CircularReferenceException("Recursive reference to parent object");
+                e.add("item-type", item.getClass().getName());
+                e.add("converter-type", converter.getClass().getName());
+                throw e;
+            }
+            super.convert(item, converter);
+        }
+    }
+
+    /**
+     * A map view for the original entries of a chunk.
+     */
+    private static final class EntryChunk extends AbstractMap<Object, Object> {
+        private final List<?> entries;
+
+        EntryChunk(final List<?> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<Object, Object>>() {
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Iterator<Map.Entry<Object, Object>> iterator() {
+                    return (Iterator<Map.Entry<Object, Object>>)entries.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+            };
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2014, 2015, 2018, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2014, 2015, 2018, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,13 +14,15 @@ package com.thoughtworks.xstream.core;
 import java.util.Collections;
 import java.util.Iterator;
 
+import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.DataHolder;
 import com.thoughtworks.xstream.converters.MarshallingContext;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.ReferenceTable;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.WriterWrapper;
 import com.thoughtworks.xstream.mapper.Mapper;
 
 
@@ -29,8 +31,9 @@ public class TreeMarshaller implements MarshallingContext {
     protected HierarchicalStreamWriter writer;
     protected ConverterLookup converterLookup;
     private final Mapper mapper;
-    private final ObjectIdDictionary<Object> parentObjects = new ObjectIdDictionary<>();
+    private final ReferenceTable<Object, Object> parentObjects = new ReferenceTable<>(true);
     private DataHolder dataHolder;
+    private Instrumentation instrumentation;
 
     public TreeMarshaller(
             final HierarchicalStreamWriter writer, final ConverterLookup converterLookup, final Mapper mapper) {
@@ -60,19 +63,54 @@ public class TreeMarshaller implements MarshallingContext {
     }
 
     protected void convert(final Object item, final Converter converter) {
-        if (parentObjects.containsId(item)) {
+        if (parentObjects.containsKey(item)) {
             final ConversionException e = new CircularReferenceException("Recursive reference to parent object");
             e.add("item-type", item.getClass().getName());
             e.add("converter-type", converter.getClass().getName());
             throw e;
         }
-        parentObjects.associateId(item, "");
-        converter.marshal(item, writer, this);
-        parentObjects.removeId(item);
+        parentObjects.put(item, Boolean.TRUE);
+        invokeConverter(item, converter, this);
+        parentObjects.remove(item);
+    }
+
+    /**
+     * Let the converter marshal the item.
+     * <p>
+     * The call is reported to a registered {@link Instrumentation}.
+     * </p>
+     *
+     * @param item the item to marshal
+     * @param converter the converter to use
+     * @param context the context passed to the converter
+     * @since upcoming
+     */
+    protected void invokeConverter(final Object item, final Converter converter, final MarshallingContext context) {
+        if (instrumentation == null) {
+            converter.marshal(item, writer, context);
+        } else {
+            final long start = System.nanoTime();
+            converter.marshal(item, writer, context);
+            instrumentation.converterCalled(item.getClass(), converter, true, System.nanoTime() - start);
+        }
     }
 
     public void start(final Object item, final DataHolder dataHolder) {
         this.dataHolder = dataHolder;
+        instrumentation = dataHolder != null ? (Instrumentation)dataHolder.get(XStream.INSTRUMENTATION) : null;
+        if (instrumentation == null) {
+            marshalRoot(item);
+        } else {
+            final CountingWriter counter = new CountingWriter(writer);
+            writer = counter;
+            final long start = System.nanoTime();
+            marshalRoot(item);
+            instrumentation.marshalled(item == null ? null : item.getClass(), System.nanoTime() - start,
+                counter.nodes, counter.characters, getReferenceCount());
+        }
+    }
+
+    private void marshalRoot(final Object item) {
         if (item == null) {
             writer.startNode(mapper.serializedClass(null));
             writer.endNode();
@@ -109,6 +147,58 @@ public class TreeMarshaller implements MarshallingContext {
         return mapper;
     }
 
+    /**
+     * Use an instrumentation without calling {@link #start(Object, DataHolder)}.
+     *
+     * @param instrumentation the instrumentation or <code>null</code>
+     */
+    void setInstrumentation(final Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Retrieve the number of objects tracked for references.
+     *
+     * @return the number of tracked objects
+     * @since upcoming
+     */
+    protected int getReferenceCount() {
+        return 0;
+    }
+
+    static class CountingWriter extends WriterWrapper {
+        int nodes;
+        long characters;
+
+        CountingWriter(final HierarchicalStreamWriter wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public void startNode(final String name) {
+            ++nodes;
+            super.startNode(name);
+        }
+
+        @Override
+        public void startNode(final String name, final Class<?> clazz) {
+            ++nodes;
+            super.startNode(name, clazz);
+        }
+
+        @Override
+        public void addAttribute(final String key, final String value) {
+            characters += value.length();
+            super.addAttribute(key, value);
+        }
+
+        @Override
+        public void setValue(final String text) {
+            characters += text.length();
+            super.setValue(text);
+        }
+    }
+
     public static class CircularReferenceException extends ConversionException {
         private static final long serialVersionUID = 20151010L;
 
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2015, 2018, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2015, 2018, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,6 +14,7 @@ package com.thoughtworks.xstream.core;
 import java.util.Collections;
 import java.util.Iterator;
 
+import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
@@ -25,6 +26,7 @@ import com.thoughtworks.xstream.core.util.FastStack;
 import com.thoughtworks.xstream.core.util.HierarchicalStreams;
 import com.thoughtworks.xstream.core.util.PrioritizedList;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.ReaderWrapper;
 import com.thoughtworks.xstream.mapper.Mapper;
 import com.thoughtworks.xstream.security.AbstractSecurityException;
 
@@ -38,6 +40,7 @@ public class TreeUnmarshaller implements UnmarshallingContext {
     private final FastStack<Class<?>> types = new FastStack<>(16);
     private DataHolder dataHolder;
     private final PrioritizedList<Runnable> validationList = new PrioritizedList<>();
+    private Instrumentation instrumentation;
 
     public TreeUnmarshaller(
             final Object root, final HierarchicalStreamReader reader, final ConverterLookup converterLookup,
@@ -72,7 +75,13 @@ public class TreeUnmarshaller implements UnmarshallingContext {
     protected Object convert(final Object parent, final Class<?> type, final Converter converter) {
         types.push(type);
         try {
-            return converter.unmarshal(reader, this);
+            if (instrumentation == null) {
+                return converter.unmarshal(reader, this);
+            }
+            final long start = System.nanoTime();
+            final Object result = converter.unmarshal(reader, this);
+            instrumentation.converterCalled(type, converter, false, System.nanoTime() - start);
+            return result;
         } catch (final ConversionException conversionException) {
             addInformationTo(conversionException, type, converter, parent);
             throw conversionException;
@@ -140,6 +149,33 @@ public class TreeUnmarshaller implements UnmarshallingContext {
 
     public Object start(final DataHolder dataHolder) {
         this.dataHolder = dataHolder;
+        instrumentation = dataHolder != null ? (Instrumentation)dataHolder.get(XStream.INSTRUMENTATION) : null;
+        if (instrumentation == null) {
+            return unmarshalRoot();
+        }
+        final CountingReader counter = new CountingReader(reader);
+        reader = counter;
+        final long start = System.nanoTime();
+        final Object result = unmarshalRoot();
+        instrumentation.unmarshalled(result == null ? null : result.getClass(), System.nanoTime() - start,
+            counter.nodes, counter.characters, getReferenceCount());
+        return result;
+    }
+
+    /**
+     * Start without reporting the unmarshalled graph, the instrumentation is notified about the converter calls only.
+     *
+     * @param dataHolder the data holder or <code>null</code>
+     * @param instrumentation the instrumentation or <code>null</code>
+     * @return the unmarshalled object
+     */
+    Object start(final DataHolder dataHolder, final Instrumentation instrumentation) {
+        this.dataHolder = dataHolder;
+        this.instrumentation = instrumentation;
+        return unmarshalRoot();
+    }
+
+    private Object unmarshalRoot() {
         final Class<?> type = HierarchicalStreams.readClassType(reader, mapper);
         final Object result = convertAnother(null, type);
         for (final Runnable runnable : validationList) {
@@ -152,4 +188,36 @@ public class TreeUnmarshaller implements UnmarshallingContext {
         return mapper;
     }
 
+    /**
+     * Retrieve the number of objects tracked for references.
+     *
+     * @return the number of tracked objects
+     * @since upcoming
+     */
+    protected int getReferenceCount() {
+        return 0;
+    }
+
+    static class CountingReader extends ReaderWrapper {
+        int nodes = 1;
+        long characters;
+
+        CountingReader(final HierarchicalStreamReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public void moveDown() {
+            ++nodes;
+            super.moveDown();
+        }
+
+        @Override
+        public String getValue() {
+            final String value = super.getValue();
+            characters += value.length();
+            return value;
+        }
+    }
+
 }
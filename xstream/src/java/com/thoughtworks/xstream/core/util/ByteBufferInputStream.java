@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * An InputStream reading the remaining bytes of a {@link ByteBuffer} or the content of a {@link FileChannel}.
+ * <p>
+ * The stream reads from a duplicate of the buffer, i.e. position and limit of the provided buffer are not modified. The
+ * content of a FileChannel is mapped into memory in consecutive regions, therefore it is possible to read files larger
+ * than the 2GB a single {@link java.nio.MappedByteBuffer} can address. The stream does not close the channel.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private static final long REGION_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private long channelPosition;
+    private final long channelSize;
+    private ByteBuffer buffer;
+
+    /**
+     * Construct a ByteBufferInputStream for the remaining bytes of a buffer.
+     *
+     * @param buffer the buffer
+     * @since upcoming
+     */
+    public ByteBufferInputStream(final ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        channel = null;
+        channelSize = 0;
+    }
+
+    /**
+     * Construct a ByteBufferInputStream for the content of a FileChannel starting at its current position.
+     *
+     * @param channel the channel
+     * @throws IOException if the channel cannot be mapped into memory
+     * @since upcoming
+     */
+    public ByteBufferInputStream(final FileChannel channel) throws IOException {
+        this.channel = channel;
+        channelPosition = channel.position();
+        channelSize = channel.size();
+        buffer = ByteBuffer.allocate(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!hasRemaining()) {
+            return -1;
+        }
+        final int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && hasRemaining()) {
+            final int step = (int)Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int)Math.min(Integer.MAX_VALUE, buffer.remaining() + channelSize - channelPosition);
+    }
+
+    private boolean hasRemaining() throws IOException {
+        if (!buffer.hasRemaining() && channelPosition < channelSize) {
+            final long size = Math.min(REGION_SIZE, channelSize - channelPosition);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, channelPosition, size);
+            channelPosition += size;
+        }
+        return buffer.hasRemaining();
+    }
+}
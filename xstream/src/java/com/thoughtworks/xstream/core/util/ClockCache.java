@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A thread-safe map with a limited number of entries.
+ * <p>
+ * If the map is full, a new entry replaces an entry that has not been accessed recently. The entries are selected by
+ * the CLOCK algorithm: a hand sweeps over all entries in order of their insertion, an entry that has been accessed
+ * since the last sweep is spared once. A lookup does never block, only the modifications are synchronized. Null keys
+ * and values are not supported.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ClockCache<K, V> extends AbstractMap<K, V> {
+
+    private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+    private final int capacity;
+    private Object[] ring;
+    private int hand;
+    private int filled;
+
+    /**
+     * Construct a ClockCache.
+     *
+     * @param capacity the maximum number of entries
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @since upcoming
+     */
+    public ClockCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        ring = new Object[Math.min(capacity, 16)];
+    }
+
+    @Override
+    public V get(final Object key) {
+        final Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public synchronized V put(final K key, final V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        final Node<V> old = map.get(key);
+        if (old != null) {
+            map.put(key, new Node<>(value, old.slot));
+            return old.value;
+        }
+        final int slot;
+        if (filled < capacity) {
+            if (filled == ring.length) {
+                ring = Arrays.copyOf(ring, Math.min(capacity, ring.length * 2));
+            }
+            slot = filled++;
+        } else {
+            slot = evict();
+        }
+        ring[slot] = key;
+        map.put(key, new Node<>(value, slot));
+        return null;
+    }
+
+    @Override
+    public synchronized V remove(final Object key) {
+        final Node<V> node = map.remove(key);
+        if (node == null) {
+            return null;
+        }
+        ring[node.slot] = null;
+        return node.value;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        map.clear();
+        Arrays.fill(ring, null);
+        filled = 0;
+        hand = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned set is a snapshot of the current entries, its modification does not affect the map.
+     * </p>
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        final Set<Map.Entry<K, V>> set = new HashSet<>();
+        for (final Map.Entry<K, Node<V>> entry : map.entrySet()) {
+            set.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().value));
+        }
+        return set;
+    }
+
+    private int evict() {
+        for (;;) {
+            final int slot = hand;
+            hand = (hand + 1) % capacity;
+            final Object key = ring[slot];
+            if (key == null) {
+                return slot;
+            }
+            final Node<V> node = map.get(key);
+            if (node.referenced) {
+                node.referenced = false;
+            } else {
+                map.remove(key);
+                return slot;
+            }
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final int slot;
+        private volatile boolean referenced;
+
+        private Node(final V value, final int slot) {
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2007, 2014, 2018 XStream Committers.
+ * Copyright (c) 2007, 2014, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,11 +10,17 @@
  */
 package com.thoughtworks.xstream.core.util;
 
-import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 /**
  * A simple pool implementation.
+ * <p>
+ * The pool is lock-free and never blocks. The objects are kept in slots that are claimed and released with atomic
+ * operations, therefore the pool does not pin virtual threads to their carrier thread. If all pooled objects are in use,
+ * the factory creates a new one. The maximum pool size limits the number of objects that are kept for reuse, any
+ * further returned object is dropped.
+ * </p>
  * 
  * @author J&ouml;rg Schaible
  * @author Joe Walnes
@@ -28,67 +34,50 @@ public class Pool<T> {
     private final int initialPoolSize;
     private final int maxPoolSize;
     private final Factory<T> factory;
-    private transient T[] pool;
-    private transient int nextAvailable;
+    private transient volatile AtomicReferenceArray<T> pool;
 
     public Pool(final int initialPoolSize, final int maxPoolSize, final Factory<T> factory) {
-        this.initialPoolSize = initialPoolSize;
-        this.maxPoolSize = maxPoolSize;
+        this.initialPoolSize = Math.min(initialPoolSize, maxPoolSize);
+        this.maxPoolSize = Math.max(maxPoolSize, 1);
         this.factory = factory;
     }
 
-    @SafeVarargs
-    private final T[] newArray(final int capacity, final T... t) {
-        return Arrays.copyOf(t, capacity);
-    }
-
     public T fetchFromPool() {
-        T result;
-        synchronized (this) {
-            if (pool == null) {
-                final T[] all = newArray(maxPoolSize);
-                pool = all;
-                for (nextAvailable = initialPoolSize; nextAvailable > 0;) {
-                    putInPool(factory.newInstance());
-                }
+        AtomicReferenceArray<T> pool = this.pool;
+        if (pool == null) {
+            pool = new AtomicReferenceArray<>(maxPoolSize);
+            for (int i = 0; i < initialPoolSize; ++i) {
+                pool.set(i, factory.newInstance());
             }
-            while (nextAvailable == maxPoolSize) {
-                try {
-                    wait();
-                } catch (final InterruptedException e) {
-                    throw new RuntimeException("Interrupted whilst waiting for a free item in the pool: "
-                        + e.getMessage());
+            this.pool = pool;
+        }
+        final int start = startIndex();
+        for (int i = 0; i < maxPoolSize; ++i) {
+            final int index = (start + i) % maxPoolSize;
+            if (pool.get(index) != null) {
+                final T result = pool.getAndSet(index, null);
+                if (result != null) {
+                    return result;
                 }
             }
-            result = pool[nextAvailable++];
-            if (result == null) {
-                result = factory.newInstance();
-                putInPool(result);
-                ++nextAvailable;
-            }
         }
-        return result;
+        return factory.newInstance();
     }
 
     protected void putInPool(final T object) {
-        synchronized (this) {
-            if (nextAvailable == 0) {
-                throw new IllegalStateException("Cannot put more objects than "
-                    + maxPoolSize
-                    + " elements into this pool");
-            }
-            pool[--nextAvailable] = object;
-            if (object == null) {
-                for (int i = maxPoolSize; i > nextAvailable;) {
-                    if (pool[--i] != null) {
-                        pool[nextAvailable] = pool[i];
-                        pool[i] = null;
-                        break;
-                    }
+        final AtomicReferenceArray<T> pool = this.pool;
+        if (object != null && pool != null) {
+            final int start = startIndex();
+            for (int i = 0; i < maxPoolSize; ++i) {
+                if (pool.compareAndSet((start + i) % maxPoolSize, null, object)) {
+                    break;
                 }
             }
-
-            notify();
         }
     }
+
+    private int startIndex() {
+        final int hash = System.identityHashCode(Thread.currentThread());
+        return ((hash ^ hash >>> 16) & Integer.MAX_VALUE) % maxPoolSize;
+    }
 }
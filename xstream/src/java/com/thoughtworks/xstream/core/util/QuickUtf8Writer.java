@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
+
+
+/**
+ * A {@link PrettyPrintWriter.PureWriter} encoding the characters directly in UTF-8 into a byte buffer.
+ * <p>
+ * In contrast to the {@link QuickWriter} on top of an {@link java.io.OutputStreamWriter} the characters are not
+ * buffered a second time before the encoding. ASCII characters are copied without any further conversion. A surrogate
+ * pair may be split across two write calls, a malformed surrogate is written as U+FFFD replacement character.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class QuickUtf8Writer implements PrettyPrintWriter.PureWriter, Closeable {
+
+    private static final int REPLACEMENT = '\ufffd';
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int pointer;
+    private char highSurrogate;
+
+    /**
+     * Construct a QuickUtf8Writer with a default buffer size.
+     *
+     * @param out the target stream
+     * @since upcoming
+     */
+    public QuickUtf8Writer(final OutputStream out) {
+        this(out, 4096);
+    }
+
+    /**
+     * Construct a QuickUtf8Writer.
+     *
+     * @param out the target stream
+     * @param bufferSize the size of the byte buffer, must at least be 4
+     * @since upcoming
+     */
+    public QuickUtf8Writer(final OutputStream out, final int bufferSize) {
+        if (bufferSize < 4) {
+            throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+        }
+        this.out = out;
+        buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(final String str) {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(final String str, final int offset, final int length) {
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (highSurrogate == 0) {
+                // ASCII fast path
+                final int limit = Math.min(end, i + buffer.length - pointer);
+                while (i < limit) {
+                    final char c = str.charAt(i);
+                    if (c >= 0x80) {
+                        break;
+                    }
+                    buffer[pointer++] = (byte)c;
+                    ++i;
+                }
+                if (i == end) {
+                    break;
+                }
+                if (i == limit) {
+                    drain();
+                    continue;
+                }
+            }
+            encode(str.charAt(i++));
+        }
+    }
+
+    @Override
+    public void write(final char c) {
+        if (c < 0x80 && highSurrogate == 0) {
+            if (pointer == buffer.length) {
+                drain();
+            }
+            buffer[pointer++] = (byte)c;
+        } else {
+            encode(c);
+        }
+    }
+
+    @Override
+    public void write(final char[] c) {
+        for (final char ch : c) {
+            write(ch);
+        }
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            encodeCodePoint(REPLACEMENT);
+        }
+        drain();
+        try {
+            out.close();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private void encode(final char c) {
+        if (highSurrogate != 0) {
+            final char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                encodeCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            encodeCodePoint(REPLACEMENT);
+        }
+        if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            encodeCodePoint(REPLACEMENT);
+        } else {
+            encodeCodePoint(c);
+        }
+    }
+
+    private void encodeCodePoint(final int c) {
+        if (pointer + 4 > buffer.length) {
+            drain();
+        }
+        if (c < 0x80) {
+            buffer[pointer++] = (byte)c;
+        } else if (c < 0x800) {
+            buffer[pointer++] = (byte)(0xc0 | c >> 6);
+            buffer[pointer++] = (byte)(0x80 | c & 0x3f);
+        } else if (c < 0x10000) {
+            buffer[pointer++] = (byte)(0xe0 | c >> 12);
+            buffer[pointer++] = (byte)(0x80 | c >> 6 & 0x3f);
+            buffer[pointer++] = (byte)(0x80 | c & 0x3f);
+        } else {
+            buffer[pointer++] = (byte)(0xf0 | c >> 18);
+            buffer[pointer++] = (byte)(0x80 | c >> 12 & 0x3f);
+            buffer[pointer++] = (byte)(0x80 | c >> 6 & 0x3f);
+            buffer[pointer++] = (byte)(0x80 | c & 0x3f);
+        }
+    }
+
+    private void drain() {
+        if (pointer > 0) {
+            try {
+                out.write(buffer, 0, pointer);
+                pointer = 0;
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+        }
+    }
+}
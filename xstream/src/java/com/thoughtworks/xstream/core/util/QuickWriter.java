@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2014, 2023, 2025 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2014, 2023, 2025, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -47,6 +47,26 @@ public class QuickWriter implements PrettyPrintWriter.PureWriter, Closeable {
         pointer += len;
     }
 
+    /**
+     * Write a part of a string.
+     *
+     * @param str the string
+     * @param offset the index of the first character to write
+     * @param length the number of characters to write
+     * @since upcoming
+     */
+    public void write(final String str, final int offset, final int length) {
+        if (pointer + length > buffer.length) {
+            flush();
+            if (length > buffer.length) {
+                raw(str, offset, length);
+                return;
+            }
+        }
+        str.getChars(offset, offset + length, buffer, pointer);
+        pointer += length;
+    }
+
     public void write(final char c) {
         if (pointer + 1 > buffer.length) {
             flush();
@@ -101,6 +121,15 @@ public class QuickWriter implements PrettyPrintWriter.PureWriter, Closeable {
         }
     }
 
+    private void raw(final String str, final int offset, final int length) {
+        try {
+            writer.write(str, offset, length);
+            writer.flush();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
     private void raw(final char c) {
         try {
             writer.write(c);
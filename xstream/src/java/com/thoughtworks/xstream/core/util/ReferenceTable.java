@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.Arrays;
+
+
+/**
+ * An open-addressed hash table for the references tracked while marshalling or unmarshalling a single object graph.
+ * <p>
+ * Keys and values are stored alternating in one array that is searched with linear probing. In contrast to the
+ * {@link ObjectIdDictionary} a lookup does not allocate any wrapper object and the keys are strongly referenced, since
+ * an instance is only used for the lifetime of a single marshalling or unmarshalling process. The keys are either
+ * compared by identity or by {@link Object#equals(Object)}. Null keys are not supported, the table is not thread-safe.
+ * </p>
+ *
+ * @since upcoming
+ */
+public final class ReferenceTable<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final boolean identity;
+    private Object[] table;
+    private int shift;
+    private int size;
+    private int threshold;
+
+    /**
+     * Construct a ReferenceTable.
+     *
+     * @param identity <code>true</code> if keys are compared by identity
+     * @since upcoming
+     */
+    public ReferenceTable(final boolean identity) {
+        this(identity, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct a ReferenceTable with an expected number of entries.
+     *
+     * @param identity <code>true</code> if keys are compared by identity
+     * @param expectedSize the expected number of entries
+     * @since upcoming
+     */
+    public ReferenceTable(final boolean identity, final int expectedSize) {
+        this.identity = identity;
+        int capacity = 4;
+        while (capacity * 2 < expectedSize * 3 && capacity < 1 << 29) {
+            capacity <<= 1;
+        }
+        init(capacity);
+    }
+
+    private void init(final int capacity) {
+        table = new Object[capacity * 2];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        threshold = capacity * 2 / 3;
+    }
+
+    /**
+     * Retrieve the value associated with a key.
+     *
+     * @param key the key
+     * @return the value or <code>null</code> if the key is unknown
+     * @since upcoming
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        final int i = indexOf(key);
+        return i < 0 ? null : (V)table[i + 1];
+    }
+
+    /**
+     * Check for a key.
+     *
+     * @param key the key
+     * @return <code>true</code> if the key is known
+     * @since upcoming
+     */
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Associate a value with a key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value previously associated with the key or <code>null</code>
+     * @since upcoming
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final K key, final V value) {
+        final Object[] tab = table;
+        final int mask = tab.length - 1;
+        int i = slot(key);
+        Object k;
+        while ((k = tab[i]) != null) {
+            if (matches(key, k)) {
+                final V old = (V)tab[i + 1];
+                tab[i + 1] = value;
+                return old;
+            }
+            i = i + 2 & mask;
+        }
+        if (size >= threshold) {
+            resize();
+            return put(key, value);
+        }
+        tab[i] = key;
+        tab[i + 1] = value;
+        ++size;
+        return null;
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key the key
+     * @return the value that has been associated with the key or <code>null</code>
+     * @since upcoming
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final Object key) {
+        int d = indexOf(key);
+        if (d < 0) {
+            return null;
+        }
+        final Object[] tab = table;
+        final int mask = tab.length - 1;
+        final V old = (V)tab[d + 1];
+        tab[d] = null;
+        tab[d + 1] = null;
+        --size;
+        // shift back any following entry of the probe sequence that would otherwise no longer be found
+        Object k;
+        for (int i = d + 2 & mask; (k = tab[i]) != null; i = i + 2 & mask) {
+            final int r = slot(k);
+            if (i < r && (r <= d || d <= i) || r <= d && d <= i) {
+                tab[d] = k;
+                tab[d + 1] = tab[i + 1];
+                tab[i] = null;
+                tab[i + 1] = null;
+                d = i;
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Retrieve the number of entries.
+     *
+     * @return the number of entries
+     * @since upcoming
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all entries.
+     *
+     * @since upcoming
+     */
+    public void clear() {
+        Arrays.fill(table, null);
+        size = 0;
+    }
+
+    private int indexOf(final Object key) {
+        final Object[] tab = table;
+        final int mask = tab.length - 1;
+        int i = slot(key);
+        Object k;
+        while ((k = tab[i]) != null) {
+            if (matches(key, k)) {
+                return i;
+            }
+            i = i + 2 & mask;
+        }
+        return -1;
+    }
+
+    private boolean matches(final Object key, final Object k) {
+        return key == k || !identity && key.equals(k);
+    }
+
+    private int slot(final Object key) {
+        final int h = identity ? System.identityHashCode(key) : key.hashCode();
+        // Fibonacci hashing, the upper bits of the product select the slot
+        return (h * 0x9E3779B9 >>> shift) << 1;
+    }
+
+    private void resize() {
+        final Object[] old = table;
+        if (old.length == 1 << 30) {
+            throw new IllegalStateException("Capacity exhausted");
+        }
+        init(old.length);
+        final Object[] tab = table;
+        final int mask = tab.length - 1;
+        for (int j = 0; j < old.length; j += 2) {
+            final Object k = old[j];
+            if (k != null) {
+                int i = slot(k);
+                while (tab[i] != null) {
+                    i = i + 2 & mask;
+                }
+                tab[i] = k;
+                tab[i + 1] = old[j + 1];
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2007, 2008, 2014, 2016, 2022 XStream Committers.
+ * Copyright (c) 2007, 2008, 2014, 2016, 2022, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -25,7 +25,7 @@ import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
  * </p>
  * <p>
  * The pool has a maximum capacity, to limit overhead. If all instances in the pool are in use and another is required,
- * it shall block until one becomes available.
+ * a new one is created and dropped again if the pool is already full. The pool is lock-free and never blocks a thread.
  * </p>
  *
  * @author J&ouml;rg Schaible
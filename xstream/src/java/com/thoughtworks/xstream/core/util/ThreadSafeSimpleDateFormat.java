@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2012, 2014, 2022 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2012, 2014, 2022, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -28,7 +28,7 @@ import java.util.TimeZone;
  * </p>
  * <p>
  * The pool has a maximum capacity, to limit overhead. If all instances in the pool are in use and another is required,
- * it shall block until one becomes available.
+ * a new one is created and dropped again if the pool is already full. The pool is lock-free and never blocks a thread.
  * </p>
  * 
  * @author Joe Walnes
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2008, 2010, 2014, 2015, 2020 XStream Committers.
+ * Copyright (C) 2007, 2008, 2010, 2014, 2015, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -18,7 +18,13 @@ import java.io.InputStreamReader;
 import java.io.PushbackInputStream;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,14 +32,16 @@ import java.util.Map;
 /**
  * A {@link Reader} that evaluates the XML header. It selects its encoding based on the encoding read with the XML
  * header of the provided {@link InputStream}. The default encoding is <em>UTF-8</em> and the version is 1.0 if the
- * stream does not contain an XML header or the attributes are not set within the header.
+ * stream does not contain an XML header or the attributes are not set within the header. The content of a
+ * {@link ByteBuffer} is decoded directly from the buffer.
  * 
  * @author J&ouml;rg Schaible
  * @since 1.3
  */
 public final class XmlHeaderAwareReader extends Reader {
 
-    private final InputStreamReader reader;
+    private final Reader reader;
+    private final String encoding;
     private final double version;
 
     private static final String KEY_ENCODING = "encoding";
@@ -61,7 +69,40 @@ public final class XmlHeaderAwareReader extends Reader {
             : new PushbackInputStream(in, 64)};
         final Map<String, String> header = getHeader(pin);
         version = Double.parseDouble(header.get(KEY_VERSION));
-        reader = new InputStreamReader(pin[0], header.get(KEY_ENCODING));
+        final InputStreamReader inputStreamReader = new InputStreamReader(pin[0], header.get(KEY_ENCODING));
+        encoding = inputStreamReader.getEncoding();
+        reader = inputStreamReader;
+    }
+
+    /**
+     * Constructs an XmlHeaderAwareReader for the remaining bytes of a {@link ByteBuffer}. The position of the buffer is
+     * not modified.
+     * 
+     * @param in the {@link ByteBuffer}
+     * @throws UnsupportedEncodingException if the encoding is not supported
+     * @throws IOException occurred while reading the XML header
+     * @since upcoming
+     */
+    public XmlHeaderAwareReader(final ByteBuffer in) throws UnsupportedEncodingException, IOException {
+        final ByteBuffer buffer = in.duplicate();
+        final int position = buffer.position();
+        if (buffer.remaining() >= 3
+            && buffer.get(position) == (byte)0xEF
+            && buffer.get(position + 1) == (byte)0xBB
+            && buffer.get(position + 2) == (byte)0xBF) {
+            buffer.position(position + 3);
+        }
+        final Map<String, String> header = getHeader(new PushbackInputStream[]{
+            new PushbackInputStream(new ByteBufferInputStream(buffer), 64)});
+        version = Double.parseDouble(header.get(KEY_VERSION));
+        final Charset charset;
+        try {
+            charset = Charset.forName(header.get(KEY_ENCODING));
+        } catch (final IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(header.get(KEY_ENCODING));
+        }
+        encoding = charset.name();
+        reader = new ByteBufferReader(buffer, charset);
     }
 
     private Map<String, String> getHeader(final PushbackInputStream[] in) throws IOException {
@@ -183,7 +224,7 @@ public final class XmlHeaderAwareReader extends Reader {
      * @since 1.3
      */
     public String getEncoding() {
-        return reader.getEncoding();
+        return encoding;
     }
 
     /**
@@ -258,4 +299,69 @@ public final class XmlHeaderAwareReader extends Reader {
     public String toString() {
         return reader.toString();
     }
+
+    private static final class ByteBufferReader extends Reader {
+
+        private final ByteBuffer in;
+        private final CharsetDecoder decoder;
+        private final CharBuffer pending = CharBuffer.allocate(2);
+        private boolean decoded;
+        private boolean flushed;
+
+        ByteBufferReader(final ByteBuffer in, final Charset charset) {
+            this.in = in;
+            decoder = charset
+                .newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            pending.flip();
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!pending.hasRemaining()) {
+                final CharBuffer out = CharBuffer.wrap(cbuf, offset, length);
+                decode(out);
+                final int n = out.position() - offset;
+                if (n > 0 || flushed) {
+                    return n == 0 ? -1 : n;
+                }
+                // the buffer is too small for a surrogate pair
+                pending.clear();
+                decode(pending);
+                pending.flip();
+                if (!pending.hasRemaining()) {
+                    return -1;
+                }
+            }
+            final int n = Math.min(length, pending.remaining());
+            pending.get(cbuf, offset, n);
+            return n;
+        }
+
+        private void decode(final CharBuffer out) {
+            if (!decoded) {
+                if (decoder.decode(in, out, true).isOverflow()) {
+                    return;
+                }
+                decoded = true;
+            }
+            if (!flushed && decoder.flush(out).isUnderflow()) {
+                flushed = true;
+            }
+        }
+
+        @Override
+        public boolean ready() {
+            return pending.hasRemaining() || !flushed;
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,11 +12,16 @@
 package com.thoughtworks.xstream.io;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.thoughtworks.xstream.core.util.ByteBufferInputStream;
 
 /**
  * Provides implementation of stream parsers and writers to XStream.
@@ -66,6 +71,44 @@ public interface HierarchicalStreamDriver {
      */
     HierarchicalStreamReader createReader(File in);
 
+    /**
+     * Create the HierarchicalStreamReader with the stream parser reading the remaining bytes of a ByteBuffer.
+     * 
+     * The position of the buffer is not modified. The default implementation reads the buffer with an
+     * {@link InputStream}, implementations may parse the buffer directly.
+     * 
+     * @param in the {@link ByteBuffer} with the data to parse, e.g. a {@link java.nio.MappedByteBuffer}
+     * @return the HierarchicalStreamReader
+     * @since upcoming
+     */
+    default HierarchicalStreamReader createReader(final ByteBuffer in) {
+        return createReader(new ByteBufferInputStream(in));
+    }
+
+    /**
+     * Create the HierarchicalStreamReader with the stream parser reading from a FileChannel.
+     * 
+     * The content of the channel is mapped into memory starting at its current position and parsed with
+     * {@link #createReader(ByteBuffer)}. Content exceeding the size of a single mapped buffer is read from an
+     * {@link InputStream} mapping the channel region by region. The channel is not closed by the reader.
+     * 
+     * @param in the {@link FileChannel} with the data to parse
+     * @return the HierarchicalStreamReader
+     * @throws StreamException if the channel cannot be mapped into memory
+     * @since upcoming
+     */
+    default HierarchicalStreamReader createReader(final FileChannel in) {
+        try {
+            final long position = in.position();
+            final long size = in.size() - position;
+            return size <= Integer.MAX_VALUE
+                ? createReader(in.map(FileChannel.MapMode.READ_ONLY, position, size))
+                : createReader(new ByteBufferInputStream(in));
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
     /**
      * Create the HierarchicalStreamWriter with the formatted writer.
      * 
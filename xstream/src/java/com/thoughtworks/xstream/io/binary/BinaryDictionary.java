@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.binary;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import com.thoughtworks.xstream.mapper.Mapper;
+
+
+/**
+ * A dictionary of names shared by the {@link BinaryStream2Writer} and the {@link BinaryStream2Reader}.
+ * <p>
+ * Names of nodes and attributes contained in the dictionary are never written into the stream, they are referenced by
+ * their id only. Writer and reader must therefore use the same dictionary. The writer stores the checksum of its
+ * dictionary in the stream, the reader will refuse to read a stream that has been written with a different dictionary.
+ * </p>
+ * <p>
+ * The names are sorted, i.e. a dictionary created from the same names has always the same ids and the same checksum,
+ * independent of the order the names have been provided.
+ * </p>
+ *
+ * @see BinaryStream2Driver
+ * @since upcoming
+ */
+public final class BinaryDictionary {
+
+    private static final String[] SYSTEM_ATTRIBUTES = {
+        "class", "defined-in", "enum-type", "id", "reference", "resolves-to", "serialization"};
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int checksum;
+
+    /**
+     * Construct a BinaryDictionary from names.
+     *
+     * @param names the names
+     * @since upcoming
+     */
+    public BinaryDictionary(final Collection<String> names) {
+        this.names = new TreeSet<>(names).toArray(new String[0]);
+        ids = new HashMap<>(this.names.length * 2);
+        final CRC32 crc = new CRC32();
+        for (int i = 0; i < this.names.length; ++i) {
+            ids.put(this.names[i], Integer.valueOf(i));
+            crc.update(this.names[i].getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        checksum = (int)crc.getValue();
+    }
+
+    /**
+     * Construct a BinaryDictionary from the names used by a Mapper for some types.
+     * <p>
+     * The dictionary will contain the aliases of the system attributes and the names of the given types, of their
+     * fields and of the types of those fields. The types of the fields are processed recursively unless they are part
+     * of the Java runtime.
+     * </p>
+     *
+     * @param mapper the mapper
+     * @param types the types
+     * @since upcoming
+     */
+    public BinaryDictionary(final Mapper mapper, final Class<?>... types) {
+        this(collectNames(mapper, types));
+    }
+
+    private static Set<String> collectNames(final Mapper mapper, final Class<?>... types) {
+        final Set<String> names = new HashSet<>();
+        for (final String attribute : SYSTEM_ATTRIBUTES) {
+            addName(names, mapper.aliasForSystemAttribute(attribute));
+        }
+        addName(names, mapper.serializedClass(null));
+        final Set<Class<?>> visited = new HashSet<>();
+        for (final Class<?> type : types) {
+            collectNames(mapper, type, names, visited);
+        }
+        return names;
+    }
+
+    private static void collectNames(final Mapper mapper, Class<?> type, final Set<String> names,
+            final Set<Class<?>> visited) {
+        while (type.isArray()) {
+            addName(names, mapper.serializedClass(type));
+            type = type.getComponentType();
+        }
+        if (!visited.add(type)) {
+            return;
+        }
+        addName(names, mapper.serializedClass(type));
+        if (type.isPrimitive() || type.isInterface() || isRuntimeType(type)) {
+            return;
+        }
+        for (Class<?> definedIn = type; definedIn != null && !isRuntimeType(definedIn); definedIn = definedIn
+            .getSuperclass()) {
+            for (final Field field : definedIn.getDeclaredFields()) {
+                if ((field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT)) != 0
+                    || field.isSynthetic()
+                    || !mapper.shouldSerializeMember(definedIn, field.getName())) {
+                    continue;
+                }
+                addName(names, mapper.serializedMember(definedIn, field.getName()));
+                final Mapper.ImplicitCollectionMapping mapping = mapper.getImplicitCollectionDefForFieldName(
+                    definedIn, field.getName());
+                if (mapping != null) {
+                    addName(names, mapping.getItemFieldName());
+                    if (mapping.getItemType() != null) {
+                        collectNames(mapper, mapping.getItemType(), names, visited);
+                    }
+                }
+                collectNames(mapper, field.getType(), names, visited);
+            }
+        }
+    }
+
+    private static boolean isRuntimeType(final Class<?> type) {
+        return type.getName().startsWith("java.");
+    }
+
+    private static void addName(final Set<String> names, final String name) {
+        if (name != null) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * Retrieve the id of a name.
+     *
+     * @param name the name
+     * @return the id or -1 if the name is not part of the dictionary
+     * @since upcoming
+     */
+    public int getId(final String name) {
+        final Integer id = ids.get(name);
+        return id == null ? -1 : id.intValue();
+    }
+
+    /**
+     * Retrieve the name of an id.
+     *
+     * @param id the id
+     * @return the name
+     * @throws IndexOutOfBoundsException if the id is not part of the dictionary
+     * @since upcoming
+     */
+    public String getName(final int id) {
+        return names[id];
+    }
+
+    /**
+     * Retrieve the names in the order of their ids.
+     *
+     * @return the unmodifiable list of names
+     * @since upcoming
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Retrieve the number of names.
+     *
+     * @return the size of the dictionary
+     * @since upcoming
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Retrieve the checksum of the dictionary.
+     *
+     * @return the CRC32 of all names
+     * @since upcoming
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+}
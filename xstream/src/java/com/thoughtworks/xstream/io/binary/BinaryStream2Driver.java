@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.binary;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+
+
+/**
+ * HierarchicalStreamDriver for the second version of XStream's binary format.
+ * <p>
+ * The driver writes the format of the {@link BinaryStream2Writer}, that does not create any objects for the single
+ * events and writes booleans and integral numbers as typed values. Like the {@link BinaryStreamDriver} it reads streams
+ * in both versions of the format, the version is detected by the header of the stream.
+ * </p>
+ * <p>
+ * A driver with a {@link BinaryDictionary} writes only the ids of the names contained in the dictionary. Any driver
+ * reading such a stream must use the same dictionary.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class BinaryStream2Driver extends BinaryStreamDriver {
+
+    private final BinaryDictionary dictionary;
+
+    /**
+     * Construct a BinaryStream2Driver.
+     *
+     * @since upcoming
+     */
+    public BinaryStream2Driver() {
+        this(null);
+    }
+
+    /**
+     * Construct a BinaryStream2Driver with a dictionary.
+     *
+     * @param dictionary the dictionary shared by writer and reader, may be <code>null</code>
+     * @since upcoming
+     */
+    public BinaryStream2Driver(final BinaryDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public HierarchicalStreamReader createReader(final InputStream in) {
+        return createReader(in, dictionary);
+    }
+
+    @Override
+    public HierarchicalStreamReader createReader(final ByteBuffer in) {
+        return createReader(in, dictionary);
+    }
+
+    @Override
+    public HierarchicalStreamWriter createWriter(final OutputStream out) {
+        return new BinaryStream2Writer(out, dictionary);
+    }
+}
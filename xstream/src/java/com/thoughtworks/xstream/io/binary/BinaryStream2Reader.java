@@ -0,0 +1,424 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.binary;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.thoughtworks.xstream.converters.ErrorWriter;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.StreamException;
+
+
+/**
+ * A HierarchicalStreamReader that reads from a binary stream created by {@link BinaryStream2Writer}.
+ * <p>
+ * The reader decodes the stream with a cursor in a reusable byte buffer and keeps the state of all levels in arrays,
+ * it does not create any objects for the single events. Only the values and the names at their first occurrence are
+ * created as strings. Data provided in a {@link ByteBuffer}, e.g. a memory-mapped file, is decoded directly from that
+ * buffer without any copy.
+ * </p>
+ * <p>
+ * A stream written with a {@link BinaryDictionary} can only be read with the same dictionary.
+ * </p>
+ *
+ * @see BinaryStream2Driver
+ * @since upcoming
+ */
+public class BinaryStream2Reader implements HierarchicalStreamReader {
+
+    private static final int EVENT_START_NODE = 1;
+    private static final int EVENT_END_NODE = 2;
+    private static final int EVENT_CONTENT = 3;
+    private static final String[] BOOLEANS = {"true", "false"};
+
+    private final InputStream in;
+    private final ByteBuffer buffer;
+    private int pos;
+    private int limit;
+    private char[] chars = new char[64];
+
+    private final BinaryDictionary dictionary;
+    private int dictionaryBase;
+    private String[] localNames = new String[64];
+    private int localNamesSize;
+
+    private int depth;
+    private String[] names = new String[16];
+    private String[] values = new String[16];
+    private boolean[] moreChildren = new boolean[16];
+    private int[] attributeStart = new int[16];
+    private String[] attributeNames = new String[16];
+    private String[] attributeValues = new String[16];
+    private int attributeCount;
+
+    private int pendingEvent;
+    private int pendingId;
+
+    /**
+     * Construct a BinaryStream2Reader.
+     *
+     * @param inputStream the source stream
+     * @throws StreamException if the stream does not start with the header of the binary format in version 2
+     * @since upcoming
+     */
+    public BinaryStream2Reader(final InputStream inputStream) {
+        this(inputStream, null);
+    }
+
+    /**
+     * Construct a BinaryStream2Reader with a dictionary.
+     *
+     * @param inputStream the source stream
+     * @param dictionary the dictionary shared with the writer, may be <code>null</code>
+     * @throws StreamException if the stream does not start with the header of the binary format in version 2 or if it
+     *             has been written with a different dictionary
+     * @since upcoming
+     */
+    public BinaryStream2Reader(final InputStream inputStream, final BinaryDictionary dictionary) {
+        this(inputStream, ByteBuffer.wrap(new byte[8192]), 0, dictionary);
+    }
+
+    /**
+     * Construct a BinaryStream2Reader reading the remaining bytes of a ByteBuffer.
+     * <p>
+     * The position of the buffer is not modified.
+     * </p>
+     *
+     * @param buffer the buffer with the data
+     * @param dictionary the dictionary shared with the writer, may be <code>null</code>
+     * @throws StreamException if the data does not start with the header of the binary format in version 2 or if it has
+     *             been written with a different dictionary
+     * @since upcoming
+     */
+    public BinaryStream2Reader(final ByteBuffer buffer, final BinaryDictionary dictionary) {
+        this(null, buffer, buffer.position(), dictionary);
+    }
+
+    private BinaryStream2Reader(
+            final InputStream inputStream, final ByteBuffer buffer, final int start, final BinaryDictionary dictionary) {
+        in = inputStream;
+        this.buffer = buffer;
+        pos = start;
+        limit = inputStream == null ? buffer.limit() : start;
+        this.dictionary = dictionary;
+        if (readByte() != BinaryStream2Writer.HEADER || readByte() != BinaryStream2Writer.VERSION) {
+            throw new StreamException("Stream does not contain binary format in version 2");
+        }
+        if (readByte() == BinaryStream2Writer.TAG_DICTIONARY) {
+            final long size = readVarLong();
+            final long checksum = readVarLong();
+            if (dictionary == null) {
+                throw new StreamException("Stream has been written with a dictionary");
+            }
+            if (size != dictionary.size() || checksum != (dictionary.getChecksum() & 0xFFFFFFFFL)) {
+                throw new StreamException("Stream has been written with a different dictionary");
+            }
+            dictionaryBase = dictionary.size();
+        } else {
+            --pos;
+        }
+        pendingEvent = readEvent(false);
+        moveDown();
+    }
+
+    @Override
+    public boolean hasMoreChildren() {
+        return moreChildren[depth];
+    }
+
+    @Override
+    public String getNodeName() {
+        return names[depth];
+    }
+
+    @Override
+    public String getValue() {
+        final String value = values[depth];
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public String getAttribute(final String name) {
+        for (int i = attributeStart[depth]; i < attributeCount; ++i) {
+            if (attributeNames[i].equals(name)) {
+                return attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getAttribute(final int index) {
+        return index < getAttributeCount() ? attributeValues[attributeStart[depth] + index] : null;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return attributeCount - attributeStart[depth];
+    }
+
+    @Override
+    public String getAttributeName(final int index) {
+        return index < getAttributeCount() ? attributeNames[attributeStart[depth] + index] : null;
+    }
+
+    @Override
+    public Iterator<String> getAttributeNames() {
+        return Arrays.asList(attributeNames).subList(attributeStart[depth], attributeCount).iterator();
+    }
+
+    @Override
+    public void moveDown() {
+        if (pendingEvent != EVENT_START_NODE) {
+            throw new StreamException("Expected StartNode");
+        }
+        if (++depth == names.length) {
+            final int length = depth * 2;
+            names = Arrays.copyOf(names, length);
+            values = Arrays.copyOf(values, length);
+            moreChildren = Arrays.copyOf(moreChildren, length);
+            attributeStart = Arrays.copyOf(attributeStart, length);
+        }
+        names[depth] = getName(pendingId);
+        values[depth] = null;
+        attributeStart[depth] = attributeCount;
+        int event;
+        while ((event = readEvent(true)) == EVENT_CONTENT) {
+            // attributes and value are stored
+        }
+        pendingEvent = event;
+        moreChildren[depth] = event == EVENT_START_NODE;
+    }
+
+    @Override
+    public void moveUp() {
+        // We're done with this depth. Skip over all events until we get to its end.
+        int level = 0;
+        for (int event = pendingEvent;; event = readEvent(false)) {
+            if (event == EVENT_END_NODE) {
+                if (level-- == 0) {
+                    break;
+                }
+            } else if (event == EVENT_START_NODE) {
+                ++level;
+            }
+        }
+        attributeCount = attributeStart[depth];
+        names[depth] = null;
+        values[depth] = null;
+        if (--depth == 0) {
+            pendingEvent = 0;
+            return;
+        }
+        pendingEvent = readEvent(false);
+        if (pendingEvent == EVENT_CONTENT) {
+            throw new StreamException("Unexpected content after child node");
+        }
+        moreChildren[depth] = pendingEvent == EVENT_START_NODE;
+    }
+
+    @Override
+    public int getLevel() {
+        return depth;
+    }
+
+    @Override
+    public String peekNextChild() {
+        return moreChildren[depth] ? getName(pendingId) : null;
+    }
+
+    @Override
+    public void close() {
+        if (in == null) {
+            return;
+        }
+        try {
+            in.close();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public HierarchicalStreamReader underlyingReader() {
+        return this;
+    }
+
+    @Override
+    public void appendErrors(final ErrorWriter errorWriter) {
+        // no position information available
+    }
+
+    private int readEvent(final boolean store) {
+        final int tag = readByte();
+        switch (tag & ~BinaryStream2Writer.KIND_MASK) {
+        case BinaryStream2Writer.TAG_START_NODE:
+            if (tag > BinaryStream2Writer.TAG_START_NEW_NODE) {
+                break;
+            }
+            pendingId = tag == BinaryStream2Writer.TAG_START_NEW_NODE ? readName() : readId();
+            return EVENT_START_NODE;
+        case BinaryStream2Writer.TAG_END_NODE:
+            if (tag != BinaryStream2Writer.TAG_END_NODE) {
+                break;
+            }
+            return EVENT_END_NODE;
+        case BinaryStream2Writer.TAG_ATTRIBUTE:
+        case BinaryStream2Writer.TAG_NEW_ATTRIBUTE:
+            final int id = (tag & BinaryStream2Writer.TAG_NEW_ATTRIBUTE) == BinaryStream2Writer.TAG_NEW_ATTRIBUTE
+                ? readName()
+                : readId();
+            final String attributeValue = readValue(tag & BinaryStream2Writer.KIND_MASK, store);
+            if (store) {
+                if (attributeCount == attributeNames.length) {
+                    attributeNames = Arrays.copyOf(attributeNames, attributeCount * 2);
+                    attributeValues = Arrays.copyOf(attributeValues, attributeCount * 2);
+                }
+                attributeNames[attributeCount] = getName(id);
+                attributeValues[attributeCount++] = attributeValue;
+            }
+            return EVENT_CONTENT;
+        case BinaryStream2Writer.TAG_VALUE:
+            final String value = readValue(tag & BinaryStream2Writer.KIND_MASK, store);
+            if (store) {
+                values[depth] = value;
+            }
+            return EVENT_CONTENT;
+        default:
+        }
+        throw new StreamException("Unknown tag " + tag);
+    }
+
+    private String getName(final int id) {
+        return id < dictionaryBase ? dictionary.getName(id) : localNames[id - dictionaryBase];
+    }
+
+    private int readName() {
+        if (localNamesSize == localNames.length) {
+            localNames = Arrays.copyOf(localNames, localNamesSize * 2);
+        }
+        localNames[localNamesSize] = readString(true);
+        return dictionaryBase + localNamesSize++;
+    }
+
+    private int readId() {
+        final long id = readVarLong();
+        if (id < 0 || id >= dictionaryBase + localNamesSize) {
+            throw new StreamException("Unknown ID : " + id);
+        }
+        return (int)id;
+    }
+
+    private String readValue(final int kind, final boolean store) {
+        switch (kind) {
+        case BinaryStream2Writer.KIND_STRING:
+            return readString(store);
+        case BinaryStream2Writer.KIND_LONG:
+            final long l = readVarLong();
+            return store ? Long.toString(l >>> 1 ^ -(l & 1)) : null;
+        case BinaryStream2Writer.KIND_TRUE:
+        case BinaryStream2Writer.KIND_FALSE:
+            return BOOLEANS[kind - BinaryStream2Writer.KIND_TRUE];
+        default:
+            throw new StreamException("Unknown value type " + kind);
+        }
+    }
+
+    private String readString(final boolean store) {
+        final long length = readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new StreamException("Invalid string length " + length);
+        }
+        final int n = (int)length;
+        char[] buf = chars;
+        int i = 0;
+        while (i < n) {
+            if (i == buf.length) {
+                // grow only with the data actually read
+                chars = buf = Arrays.copyOf(buf, (int)Math.min(n, 2L * buf.length));
+            }
+            if (pos == limit) {
+                fill();
+            }
+            // ASCII fast path
+            final int end = Math.min(limit, pos + Math.min(n, buf.length) - i);
+            final ByteBuffer bytes = buffer;
+            byte b;
+            while (pos < end && (b = bytes.get(pos)) >= 0) {
+                buf[i++] = (char)b;
+                ++pos;
+            }
+            if (i < n && i < buf.length && pos < limit) {
+                // the next byte starts a multi-byte sequence
+                buf[i++] = readMultiByteChar();
+            }
+        }
+        return store ? new String(buf, 0, n) : null;
+    }
+
+    private char readMultiByteChar() {
+        final int b = readByte();
+        if ((b & 0xE0) == 0xC0) {
+            return (char)((b & 0x1F) << 6 | readContinuation());
+        } else if ((b & 0xF0) == 0xE0) {
+            return (char)((b & 0x0F) << 12 | readContinuation() << 6 | readContinuation());
+        }
+        throw new StreamException("Malformed character data");
+    }
+
+    private int readContinuation() {
+        final int b = readByte();
+        if ((b & 0xC0) != 0x80) {
+            throw new StreamException("Malformed character data");
+        }
+        return b & 0x3F;
+    }
+
+    private long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = readByte();
+            result |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new StreamException("Malformed variable length number");
+    }
+
+    private int readByte() {
+        if (pos == limit) {
+            fill();
+        }
+        return buffer.get(pos++) & 0xFF;
+    }
+
+    private void fill() {
+        if (in == null) {
+            throw new StreamException(new EOFException());
+        }
+        try {
+            final int n = in.read(buffer.array());
+            if (n <= 0) {
+                throw new StreamException(new EOFException());
+            }
+            pos = 0;
+            limit = n;
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+}
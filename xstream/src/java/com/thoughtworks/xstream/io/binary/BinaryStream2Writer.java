@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.StreamException;
+
+
+/**
+ * A HierarchicalStreamWriter for the second version of XStream's binary format.
+ * <p>
+ * The stream starts with a version header. Each event is written as a single tag byte followed by its data directly
+ * into a reusable byte buffer. Names of nodes and attributes are written once and referenced afterwards by a variable
+ * length id in order of their first occurrence. Values and attribute values that represent a boolean or an integral
+ * number in its canonical decimal form are written as typed values, any other text with its number of characters
+ * followed by the characters in CESU-8, i.e. UTF-8 with surrogates encoded individually. The format is read by the
+ * {@link BinaryStream2Reader}.
+ * </p>
+ * <p>
+ * A {@link BinaryDictionary} shared with the reader avoids writing the names at all. In this case the stream contains
+ * the size and the checksum of the dictionary after the header.
+ * </p>
+ *
+ * @see BinaryStream2Driver
+ * @since upcoming
+ */
+public class BinaryStream2Writer implements HierarchicalStreamWriter {
+
+    static final int HEADER = 0x01;
+    static final int VERSION = 0x02;
+
+    static final int TAG_START_NODE = 0x10;
+    static final int TAG_START_NEW_NODE = 0x11;
+    static final int TAG_END_NODE = 0x20;
+    static final int TAG_ATTRIBUTE = 0x30;
+    static final int TAG_NEW_ATTRIBUTE = 0x38;
+    static final int TAG_VALUE = 0x40;
+    static final int TAG_DICTIONARY = 0x50;
+
+    static final int KIND_MASK = 0x07;
+    static final int KIND_STRING = 0x00;
+    static final int KIND_LONG = 0x01;
+    static final int KIND_TRUE = 0x02;
+    static final int KIND_FALSE = 0x03;
+
+    private final OutputStream out;
+    private final BinaryDictionary dictionary;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final byte[] buffer;
+    private int pointer;
+    private long number;
+
+    /**
+     * Construct a BinaryStream2Writer.
+     *
+     * @param outputStream the target stream
+     * @since upcoming
+     */
+    public BinaryStream2Writer(final OutputStream outputStream) {
+        this(outputStream, 8192);
+    }
+
+    /**
+     * Construct a BinaryStream2Writer with a buffer of given size.
+     *
+     * @param outputStream the target stream
+     * @param bufferSize the size of the byte buffer, at least 16
+     * @since upcoming
+     */
+    public BinaryStream2Writer(final OutputStream outputStream, final int bufferSize) {
+        this(outputStream, null, bufferSize);
+    }
+
+    /**
+     * Construct a BinaryStream2Writer with a dictionary.
+     *
+     * @param outputStream the target stream
+     * @param dictionary the dictionary shared with the reader, may be <code>null</code>
+     * @since upcoming
+     */
+    public BinaryStream2Writer(final OutputStream outputStream, final BinaryDictionary dictionary) {
+        this(outputStream, dictionary, 8192);
+    }
+
+    /**
+     * Construct a BinaryStream2Writer with a dictionary and a buffer of given size.
+     *
+     * @param outputStream the target stream
+     * @param dictionary the dictionary shared with the reader, may be <code>null</code>
+     * @param bufferSize the size of the byte buffer, at least 16
+     * @since upcoming
+     */
+    public BinaryStream2Writer(
+            final OutputStream outputStream, final BinaryDictionary dictionary, final int bufferSize) {
+        out = outputStream;
+        this.dictionary = dictionary;
+        buffer = new byte[Math.max(16, bufferSize)];
+        buffer[pointer++] = HEADER;
+        buffer[pointer++] = VERSION;
+        if (dictionary != null) {
+            buffer[pointer++] = TAG_DICTIONARY;
+            writeVarLong(dictionary.size());
+            writeVarLong(dictionary.getChecksum() & 0xFFFFFFFFL);
+        }
+    }
+
+    @Override
+    public void startNode(final String name) {
+        final int id = lookupId(name);
+        if (id < 0) {
+            writeByte(TAG_START_NEW_NODE);
+            writeString(name);
+        } else {
+            writeByte(TAG_START_NODE);
+            writeVarLong(id);
+        }
+    }
+
+    @Override
+    public void startNode(final String name, final Class<?> clazz) {
+        startNode(name);
+    }
+
+    @Override
+    public void addAttribute(final String name, final String value) {
+        final int kind = kindOf(value);
+        final int id = lookupId(name);
+        if (id < 0) {
+            writeByte(TAG_NEW_ATTRIBUTE | kind);
+            writeString(name);
+        } else {
+            writeByte(TAG_ATTRIBUTE | kind);
+            writeVarLong(id);
+        }
+        writeValue(kind, value);
+    }
+
+    @Override
+    public void setValue(final String text) {
+        final int kind = kindOf(text);
+        writeByte(TAG_VALUE | kind);
+        writeValue(kind, text);
+    }
+
+    @Override
+    public void endNode() {
+        writeByte(TAG_END_NODE);
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        drain();
+        try {
+            out.close();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public HierarchicalStreamWriter underlyingWriter() {
+        return this;
+    }
+
+    /**
+     * Lookup the id of a name. An unknown name gets registered with the next id.
+     *
+     * @return the id or -1 if the name has been registered
+     */
+    private int lookupId(final String name) {
+        if (dictionary != null) {
+            final int id = dictionary.getId(name);
+            if (id >= 0) {
+                return id;
+            }
+        }
+        final Integer id = ids.get(name);
+        if (id == null) {
+            ids.put(name, Integer.valueOf((dictionary == null ? 0 : dictionary.size()) + ids.size()));
+            return -1;
+        }
+        return id.intValue();
+    }
+
+    private int kindOf(final String value) {
+        final int length = value.length();
+        if (length == 0 || length > 20) {
+            return KIND_STRING;
+        }
+        final char first = value.charAt(0);
+        if (first == 't') {
+            return "true".equals(value) ? KIND_TRUE : KIND_STRING;
+        }
+        if (first == 'f') {
+            return "false".equals(value) ? KIND_FALSE : KIND_STRING;
+        }
+        return parseCanonicalLong(value) ? KIND_LONG : KIND_STRING;
+    }
+
+    /**
+     * Check whether the text is the decimal representation of a long as created by {@link Long#toString(long)} and keep
+     * its value.
+     */
+    private boolean parseCanonicalLong(final String value) {
+        final int length = value.length();
+        final boolean negative = value.charAt(0) == '-';
+        int i = negative ? 1 : 0;
+        if (i == length || value.charAt(i) == '0' && (length > i + 1 || negative)) {
+            return false;
+        }
+        // accumulate negatively to cover Long.MIN_VALUE
+        long result = 0;
+        for (; i < length; ++i) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < Long.MIN_VALUE / 10) {
+                return false;
+            }
+            result *= 10;
+            if (result < Long.MIN_VALUE + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                return false;
+            }
+            result = -result;
+        }
+        number = result;
+        return true;
+    }
+
+    private void writeValue(final int kind, final String value) {
+        switch (kind) {
+        case KIND_LONG:
+            writeVarLong(number << 1 ^ number >> 63);
+            break;
+        case KIND_STRING:
+            writeString(value);
+            break;
+        default:
+            // no data
+        }
+    }
+
+    private void writeByte(final int b) {
+        if (pointer == buffer.length) {
+            drain();
+        }
+        buffer[pointer++] = (byte)b;
+    }
+
+    private void writeVarLong(long value) {
+        if (pointer + 10 > buffer.length) {
+            drain();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[pointer++] = (byte)(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buffer[pointer++] = (byte)value;
+    }
+
+    private void writeString(final String s) {
+        final int length = s.length();
+        writeVarLong(length);
+        final byte[] buf = buffer;
+        for (int i = 0; i < length; ++i) {
+            if (pointer + 3 > buf.length) {
+                drain();
+            }
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                buf[pointer++] = (byte)c;
+            } else if (c < 0x800) {
+                buf[pointer++] = (byte)(0xC0 | c >> 6);
+                buf[pointer++] = (byte)(0x80 | c & 0x3F);
+            } else {
+                // surrogates are written individually, any Java string is written unmodified
+                buf[pointer++] = (byte)(0xE0 | c >> 12);
+                buf[pointer++] = (byte)(0x80 | c >> 6 & 0x3F);
+                buf[pointer++] = (byte)(0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private void drain() {
+        if (pointer > 0) {
+            try {
+                out.write(buffer, 0, pointer);
+                pointer = 0;
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2011, 2014 XStream Committers.
+ * Copyright (C) 2011, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,20 +10,29 @@
  */
 package com.thoughtworks.xstream.io.binary;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
+import com.thoughtworks.xstream.core.util.ByteBufferInputStream;
 import com.thoughtworks.xstream.io.AbstractDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.StreamException;
 
 
 /**
  * HierarchicalStreamDriver for binary input and output. The driver uses an optimized binary format to store an object
  * graph. The format is not as compact as Java serialization, but a lot more than typical text-based formats like XML.
  * However, due to its nature it cannot use a {@link Reader} for input or a {@link Writer} for output.
+ * <p>
+ * The driver reads also the second version of the binary format written by the {@link BinaryStream2Driver}. Data in
+ * this format provided as {@link ByteBuffer} is decoded directly from the buffer.
+ * </p>
  * 
  * @author J&ouml;rg Schaible
  * @since 1.4.2
@@ -40,7 +49,33 @@ public class BinaryStreamDriver extends AbstractDriver {
 
     @Override
     public HierarchicalStreamReader createReader(final InputStream in) {
-        return new BinaryStreamReader(in);
+        return createReader(in, null);
+    }
+
+    static HierarchicalStreamReader createReader(final InputStream in, final BinaryDictionary dictionary) {
+        final PushbackInputStream input = new PushbackInputStream(in);
+        try {
+            final int header = input.read();
+            if (header >= 0) {
+                input.unread(header);
+            }
+            return header == BinaryStream2Writer.HEADER
+                ? new BinaryStream2Reader(input, dictionary)
+                : new BinaryStreamReader(input);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public HierarchicalStreamReader createReader(final ByteBuffer in) {
+        return createReader(in, null);
+    }
+
+    static HierarchicalStreamReader createReader(final ByteBuffer in, final BinaryDictionary dictionary) {
+        return in.hasRemaining() && in.get(in.position()) == BinaryStream2Writer.HEADER
+            ? new BinaryStream2Reader(in, dictionary)
+            : new BinaryStreamReader(new ByteBufferInputStream(in));
     }
 
     /**
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.copy;
+
+import java.util.Arrays;
+
+import com.thoughtworks.xstream.converters.ErrorWriter;
+import com.thoughtworks.xstream.io.AbstractReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+
+
+/**
+ * A HierarchicalStreamWriter that records all events in memory to write them later into another writer.
+ * <p>
+ * The buffer keeps the events in plain arrays including the type passed with
+ * {@link #startNode(String, Class)}, i.e. replaying the buffer into a writer is equivalent to writing directly into it.
+ * The buffer may contain any number of sibling nodes at top level. It is not thread-safe, but any number of readers
+ * created with {@link #createReader()} may read the buffer concurrently as long as it is no longer modified.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class HierarchicalStreamBuffer implements HierarchicalStreamWriter {
+
+    private static final byte START_NODE = 1;
+    private static final byte ATTRIBUTE = 2;
+    private static final byte VALUE = 3;
+    private static final byte END_NODE = 4;
+
+    private byte[] events = new byte[64];
+    private Object[] data = new Object[128];
+    private int size;
+
+    @Override
+    public void startNode(final String name) {
+        add(START_NODE, name, null);
+    }
+
+    @Override
+    public void startNode(final String name, final Class<?> clazz) {
+        add(START_NODE, name, clazz);
+    }
+
+    @Override
+    public void addAttribute(final String name, final String value) {
+        add(ATTRIBUTE, name, value);
+    }
+
+    @Override
+    public void setValue(final String text) {
+        add(VALUE, text, null);
+    }
+
+    @Override
+    public void endNode() {
+        add(END_NODE, null, null);
+    }
+
+    @Override
+    public void flush() {
+        // nothing to flush
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+
+    @Override
+    public HierarchicalStreamWriter underlyingWriter() {
+        return this;
+    }
+
+    /**
+     * Write all recorded events into a writer.
+     *
+     * @param writer the target writer
+     * @since upcoming
+     */
+    public void writeTo(final HierarchicalStreamWriter writer) {
+        for (int i = 0; i < size; ++i) {
+            final Object first = data[2 * i];
+            final Object second = data[2 * i + 1];
+            switch (events[i]) {
+            case START_NODE:
+                if (second == null) {
+                    writer.startNode((String)first);
+                } else {
+                    writer.startNode((String)first, (Class<?>)second);
+                }
+                break;
+            case ATTRIBUTE:
+                writer.addAttribute((String)first, (String)second);
+                break;
+            case VALUE:
+                writer.setValue((String)first);
+                break;
+            case END_NODE:
+                writer.endNode();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Create a reader for the first recorded node.
+     * <p>
+     * The reader is positioned at the first node at top level, that must have been completely recorded. The names of
+     * the nodes and attributes are returned as they were written into the buffer.
+     * </p>
+     *
+     * @return the new reader
+     * @throws IllegalStateException if the buffer does not contain a node
+     * @since upcoming
+     */
+    public HierarchicalStreamReader createReader() {
+        if (size == 0 || events[0] != START_NODE) {
+            throw new IllegalStateException("Buffer does not start with a node");
+        }
+        return new BufferReader();
+    }
+
+    /**
+     * Remove all recorded events.
+     *
+     * @since upcoming
+     */
+    public void clear() {
+        Arrays.fill(data, 0, 2 * size, null);
+        size = 0;
+    }
+
+    /**
+     * Retrieve the number of recorded events.
+     *
+     * @return the number of events
+     * @since upcoming
+     */
+    public int size() {
+        return size;
+    }
+
+    private void add(final byte event, final Object first, final Object second) {
+        if (size == events.length) {
+            events = Arrays.copyOf(events, size * 2);
+            data = Arrays.copyOf(data, size * 4);
+        }
+        events[size] = event;
+        data[2 * size] = first;
+        data[2 * size++ + 1] = second;
+    }
+
+    private class BufferReader extends AbstractReader {
+
+        private int[] parents = new int[16];
+        private int depth;
+        private int current;
+        private int next;
+
+        BufferReader() {
+            moveTo(0);
+        }
+
+        private void moveTo(final int index) {
+            current = index;
+            next = index + 1;
+            while (next < size && (events[next] == ATTRIBUTE || events[next] == VALUE)) {
+                ++next;
+            }
+        }
+
+        @Override
+        public boolean hasMoreChildren() {
+            return next < size && events[next] == START_NODE;
+        }
+
+        @Override
+        public String peekNextChild() {
+            return hasMoreChildren() ? (String)data[2 * next] : null;
+        }
+
+        @Override
+        public void moveDown() {
+            if (depth == parents.length) {
+                parents = Arrays.copyOf(parents, depth * 2);
+            }
+            parents[depth++] = current;
+            moveTo(next);
+        }
+
+        @Override
+        public void moveUp() {
+            int level = 0;
+            while (next < size) {
+                final byte event = events[next++];
+                if (event == START_NODE) {
+                    ++level;
+                } else if (event == END_NODE && level-- == 0) {
+                    break;
+                }
+            }
+            current = parents[--depth];
+        }
+
+        @Override
+        public int getLevel() {
+            return depth + 1;
+        }
+
+        @Override
+        public String getNodeName() {
+            return (String)data[2 * current];
+        }
+
+        @Override
+        public String getValue() {
+            for (int i = current + 1; i < size; ++i) {
+                if (events[i] == VALUE) {
+                    return (String)data[2 * i];
+                } else if (events[i] != ATTRIBUTE) {
+                    break;
+                }
+            }
+            return "";
+        }
+
+        @Override
+        public String getAttribute(final String name) {
+            for (int i = current + 1; i < size && events[i] == ATTRIBUTE; ++i) {
+                if (name.equals(data[2 * i])) {
+                    return (String)data[2 * i + 1];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String getAttribute(final int index) {
+            return index < getAttributeCount() ? (String)data[2 * (current + 1 + index) + 1] : null;
+        }
+
+        @Override
+        public int getAttributeCount() {
+            int count = 0;
+            while (current + 1 + count < size && events[current + 1 + count] == ATTRIBUTE) {
+                ++count;
+            }
+            return count;
+        }
+
+        @Override
+        public String getAttributeName(final int index) {
+            return index < getAttributeCount() ? (String)data[2 * (current + 1 + index)] : null;
+        }
+
+        @Override
+        public void appendErrors(final ErrorWriter errorWriter) {
+            // no additional information
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
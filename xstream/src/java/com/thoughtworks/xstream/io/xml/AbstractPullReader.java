@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2010, 2011, 2014, 2015, 2016 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2010, 2011, 2014, 2015, 2016, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,9 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.thoughtworks.xstream.core.util.FastStack;
 import com.thoughtworks.xstream.io.naming.NameCoder;
 
@@ -18,6 +21,10 @@ import com.thoughtworks.xstream.io.naming.NameCoder;
 /**
  * Base class that contains common functionality across HierarchicalStreamReader implementations that need to read from
  * a pull parser.
+ * <p>
+ * The reader keeps a symbol table for the names of elements and attributes. Repeated names are returned as identical
+ * String instance and are decoded only once.
+ * </p>
  *
  * @author Joe Walnes
  * @author James Strachan
@@ -30,16 +37,30 @@ public abstract class AbstractPullReader extends AbstractXmlReader {
     protected static final int COMMENT = 4;
     protected static final int OTHER = 0;
 
-    private final FastStack<String> elementStack = new FastStack<>(16);
+    private static final int MAX_SYMBOLS = 4096;
+
+    private final FastStack<Symbol> elementStack = new FastStack<>(16);
     private final FastStack<Event> pool = new FastStack<>(16);
 
     private final FastStack<Event> lookahead = new FastStack<>(4);
     private final FastStack<Event> lookback = new FastStack<>(4);
     private boolean marked;
+    private final Map<String, Symbol> symbols = new HashMap<>();
 
     private static class Event {
         int type;
         String value;
+        Symbol symbol;
+    }
+
+    private static class Symbol {
+        final String name;
+        String node;
+        String attribute;
+
+        Symbol(final String name) {
+            this.name = name;
+        }
     }
 
     /**
@@ -127,7 +148,7 @@ public abstract class AbstractPullReader extends AbstractXmlReader {
         pool.push(event);
         switch (event.type) {
         case START_NODE:
-            elementStack.push(pullElementName());
+            elementStack.push(event.symbol);
             break;
         case END_NODE:
             elementStack.pop();
@@ -154,16 +175,30 @@ public abstract class AbstractPullReader extends AbstractXmlReader {
     private Event readRealEvent() {
         final Event event = pool.hasStuff() ? (Event)pool.pop() : new Event();
         event.type = pullNextEvent();
+        event.symbol = null;
         if (event.type == TEXT) {
             event.value = pullText();
         } else if (event.type == START_NODE) {
-            event.value = pullElementName();
+            event.symbol = symbol(pullElementName());
+            event.value = event.symbol.name;
         } else {
             event.value = null;
         }
         return event;
     }
 
+    private Symbol symbol(final String name) {
+        Symbol symbol = symbols.get(name);
+        if (symbol == null) {
+            symbol = new Symbol(name);
+            // do not let a document with arbitrary names grow the table without limit
+            if (symbols.size() < MAX_SYMBOLS) {
+                symbols.put(name, symbol);
+            }
+        }
+        return symbol;
+    }
+
     public void mark() {
         marked = true;
     }
@@ -215,7 +250,28 @@ public abstract class AbstractPullReader extends AbstractXmlReader {
 
     @Override
     public String getNodeName() {
-        return unescapeXmlName(elementStack.peek());
+        final Symbol symbol = elementStack.peek();
+        if (symbol.node == null) {
+            symbol.node = unescapeXmlName(symbol.name);
+        }
+        return symbol.node;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The decoded name is kept in the symbol table of the reader.
+     * </p>
+     *
+     * @since upcoming
+     */
+    @Override
+    public String decodeAttribute(final String name) {
+        final Symbol symbol = symbol(name);
+        if (symbol.attribute == null) {
+            symbol.attribute = super.decodeAttribute(name);
+        }
+        return symbol.attribute;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009, 2011, 2014, 2018, 2020 XStream Committers.
+ * Copyright (C) 2009, 2011, 2014, 2018, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -17,6 +17,7 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
@@ -71,6 +72,17 @@ public abstract class AbstractXppDomDriver extends AbstractXmlDriver {
         }
     }
 
+    @Override
+    public HierarchicalStreamReader createReader(final ByteBuffer in) {
+        try {
+            return createReader(new XmlHeaderAwareReader(in));
+        } catch (final UnsupportedEncodingException e) {
+            throw new StreamException(e);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
     @Override
     public HierarchicalStreamWriter createWriter(final Writer out) {
         return new PrettyPrintWriter(out, getNameCoder());
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009, 2011, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2009, 2011, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -17,6 +17,7 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
@@ -37,6 +38,8 @@ import com.thoughtworks.xstream.io.naming.NameCoder;
  */
 public abstract class AbstractXppDriver extends AbstractXmlDriver {
 
+    private boolean directUtf8Output;
+
     /**
      * Construct an AbstractXppDriver.
      * 
@@ -68,6 +71,17 @@ public abstract class AbstractXppDriver extends AbstractXmlDriver {
         }
     }
 
+    @Override
+    public HierarchicalStreamReader createReader(final ByteBuffer in) {
+        try {
+            return createReader(new XmlHeaderAwareReader(in));
+        } catch (final UnsupportedEncodingException e) {
+            throw new StreamException(e);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
     @Override
     public HierarchicalStreamWriter createWriter(final Writer out) {
         return new PrettyPrintWriter(out, getNameCoder());
@@ -75,7 +89,39 @@ public abstract class AbstractXppDriver extends AbstractXmlDriver {
 
     @Override
     public HierarchicalStreamWriter createWriter(final OutputStream out) {
-        return createWriter(new OutputStreamWriter(out));
+        return directUtf8Output ? createUtf8Writer(out) : createWriter(new OutputStreamWriter(out));
+    }
+
+    /**
+     * Create a writer that encodes the XML directly into UTF-8 bytes. Used by {@link #createWriter(OutputStream)} if
+     * direct UTF-8 output has been selected. Overload this method, if you need a different writer, e.g. a
+     * {@link CompactWriter}.
+     *
+     * @param out the target stream
+     * @return the new writer
+     * @since upcoming
+     */
+    protected HierarchicalStreamWriter createUtf8Writer(final OutputStream out) {
+        return new PrettyPrintWriter(out, getNameCoder());
+    }
+
+    /**
+     * Select whether a writer for an OutputStream encodes the XML directly into UTF-8 bytes instead of using an
+     * OutputStreamWriter with the platform encoding. Note, that in this case {@link #createWriter(Writer)} is no longer
+     * called for an OutputStream.
+     *
+     * @param directUtf8Output <code>true</code> to write UTF-8 bytes directly
+     * @since upcoming
+     */
+    public void setDirectUtf8Output(final boolean directUtf8Output) {
+        this.directUtf8Output = directUtf8Output;
+    }
+
+    /**
+     * @since upcoming
+     */
+    public boolean isDirectUtf8Output() {
+        return directUtf8Output;
     }
 
     /**
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2023, 2024, 2025 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2023, 2024, 2025, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,9 +11,11 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.io.OutputStream;
 import java.io.Writer;
 
 import com.thoughtworks.xstream.core.util.FastStack;
+import com.thoughtworks.xstream.core.util.QuickUtf8Writer;
 import com.thoughtworks.xstream.core.util.QuickWriter;
 import com.thoughtworks.xstream.io.StreamException;
 import com.thoughtworks.xstream.io.naming.NameCoder;
@@ -86,6 +88,19 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     public interface PureWriter {
         void write(String str);
 
+        /**
+         * Write a part of a string. The default implementation writes the substring, implementations should override it
+         * to avoid the copy.
+         *
+         * @param str the string
+         * @param offset the index of the first character to write
+         * @param length the number of characters to write
+         * @since upcoming
+         */
+        default void write(final String str, final int offset, final int length) {
+            write(str.substring(offset, offset + length));
+        }
+
         void write(char ch);
 
         void write(char[] chars);
@@ -95,7 +110,7 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
         void close();
     }
 
-    private final QuickWriter writer;
+    private final PureWriter writer;
     private final FastStack<String> elementStack = new FastStack<>(16);
     private final char[] lineIndenter;
     private final int mode;
@@ -114,14 +129,86 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     private static final char[] APOS = "&apos;".toCharArray();
     private static final char[] CLOSE = "</".toCharArray();
     private static final char[] REPLACEMENT = "&#xfffd;".toCharArray();
+    private static final char[] HEX_ENTITY_START = "&#x".toCharArray();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // ASCII characters that can be written as they are, and the entities of those that are always escaped
+    private static final boolean[] PLAIN_TEXT_CHARS = new boolean[128];
+    private static final boolean[] PLAIN_ATTRIBUTE_CHARS = new boolean[128];
+    private static final char[][] ENTITIES = new char[128][];
+    static {
+        for (char c = ' '; c < '\u007f'; ++c) {
+            PLAIN_TEXT_CHARS[c] = true;
+        }
+        PLAIN_TEXT_CHARS['\t'] = true;
+        PLAIN_TEXT_CHARS['\n'] = true;
+        ENTITIES['&'] = AMP;
+        ENTITIES['<'] = LT;
+        ENTITIES['>'] = GT;
+        ENTITIES['"'] = QUOT;
+        ENTITIES['\''] = APOS;
+        ENTITIES['\r'] = CR;
+        for (int i = 0; i < ENTITIES.length; ++i) {
+            if (ENTITIES[i] != null) {
+                PLAIN_TEXT_CHARS[i] = false;
+            }
+        }
+        System.arraycopy(PLAIN_TEXT_CHARS, 0, PLAIN_ATTRIBUTE_CHARS, 0, PLAIN_TEXT_CHARS.length);
+        PLAIN_ATTRIBUTE_CHARS['\t'] = false;
+        PLAIN_ATTRIBUTE_CHARS['\n'] = false;
+        ENTITIES['\t'] = "&#x9;".toCharArray();
+        ENTITIES['\n'] = "&#xa;".toCharArray();
+    }
 
     /**
      * @since 1.4
      */
     public PrettyPrintWriter(
             final Writer writer, final int mode, final char[] lineIndenter, final NameCoder nameCoder) {
+        this(new QuickWriter(writer), mode, lineIndenter, nameCoder);
+    }
+
+    /**
+     * Construct a PrettyPrintWriter writing directly UTF-8 encoded bytes into an OutputStream.
+     *
+     * @param out the target stream
+     * @param mode the XML mode
+     * @param lineIndenter the characters used to indent a line
+     * @param nameCoder the coder for the tag and attribute names
+     * @since upcoming
+     */
+    public PrettyPrintWriter(
+            final OutputStream out, final int mode, final char[] lineIndenter, final NameCoder nameCoder) {
+        this(new QuickUtf8Writer(out), mode, lineIndenter, nameCoder);
+    }
+
+    /**
+     * Construct a PrettyPrintWriter writing directly UTF-8 encoded bytes into an OutputStream.
+     *
+     * @param out the target stream
+     * @param mode the XML mode
+     * @param nameCoder the coder for the tag and attribute names
+     * @since upcoming
+     */
+    public PrettyPrintWriter(final OutputStream out, final int mode, final NameCoder nameCoder) {
+        this(out, mode, new char[]{' ', ' '}, nameCoder);
+    }
+
+    /**
+     * Construct a PrettyPrintWriter writing directly UTF-8 encoded bytes into an OutputStream.
+     *
+     * @param out the target stream
+     * @param nameCoder the coder for the tag and attribute names
+     * @since upcoming
+     */
+    public PrettyPrintWriter(final OutputStream out, final NameCoder nameCoder) {
+        this(out, XML_QUIRKS, nameCoder);
+    }
+
+    private PrettyPrintWriter(
+            final PureWriter writer, final int mode, final char[] lineIndenter, final NameCoder nameCoder) {
         super(nameCoder);
-        this.writer = new QuickWriter(writer);
+        this.writer = writer;
         this.lineIndenter = lineIndenter;
         this.mode = mode;
         if (mode < XML_QUIRKS || mode > XML_1_1_REPLACEMENT) {
@@ -223,7 +310,11 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
         tagIsEmpty = false;
         finishTag();
 
-        writeText(writer, text);
+        if (writer instanceof QuickWriter) {
+            writeText((QuickWriter)writer, text);
+        } else {
+            writeText(writer, text);
+        }
     }
 
     @Override
@@ -232,7 +323,11 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
         writer.write(encodeAttribute(key));
         writer.write('=');
         writer.write('\"');
-        writeAttributeValue(writer, value);
+        if (writer instanceof QuickWriter) {
+            writeAttributeValue((QuickWriter)writer, value);
+        } else {
+            writeAttributeValue(writer, value);
+        }
         writer.write('\"');
     }
 
@@ -277,98 +372,99 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     }
 
     private void writeText(final String text, final boolean isAttribute) {
-        text.codePoints().forEach(c -> {
-            switch (c) {
-            case '\0':
-                if (mode == XML_QUIRKS) {
-                    writer.write(NULL);
-                } else if (mode == XML_1_0_REPLACEMENT || mode == XML_1_1_REPLACEMENT) {
-                    writer.write(REPLACEMENT);
-                } else {
-                    throw new StreamException("Invalid character 0x0 in XML stream");
-                }
-                break;
-            case '&':
-                writer.write(AMP);
-                break;
-            case '<':
-                writer.write(LT);
-                break;
-            case '>':
-                writer.write(GT);
-                break;
-            case '"':
-                writer.write(QUOT);
-                break;
-            case '\'':
-                writer.write(APOS);
-                break;
-            case '\r':
-                writer.write(CR);
-                break;
-            case '\t':
-            case '\n':
-                if (!isAttribute) {
-                    writer.write(Character.toChars(c));
-                    break;
-                }
-                //$FALL-THROUGH$
-            default:
-                if (Character.isDefined(c) && !Character.isISOControl(c)) {
-                    boolean replaced = false;
-                    if (mode != XML_QUIRKS) {
-                        if (c > '\ud7ff' && c < '\ue000') {
-                            if (mode == XML_1_0_REPLACEMENT || mode == XML_1_1_REPLACEMENT) {
-                                writer.write(REPLACEMENT);
-                                replaced = true;
-                            } else {
-                                throw new StreamException("Invalid character 0x"
-                                    + Integer.toHexString(c)
-                                    + " in XML stream");
-                            }
-                        }
-                    }
-                    if (!replaced) {
-                        writer.write(Character.toChars(c));
+        final boolean[] plainChars = isAttribute ? PLAIN_ATTRIBUTE_CHARS : PLAIN_TEXT_CHARS;
+        final int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length;) {
+            final char c = text.charAt(i);
+            if (c < plainChars.length
+                ? plainChars[c]
+                : c >= '\u00a0' && !Character.isSurrogate(c) && Character.isDefined(c)) {
+                ++i;
+                continue;
+            }
+            if (start < i) {
+                writer.write(text, start, i - start);
+            }
+            final char[] entity = c < ENTITIES.length ? ENTITIES[c] : null;
+            if (entity != null) {
+                writer.write(entity);
+                ++i;
+            } else {
+                final int codePoint = text.codePointAt(i);
+                writeCodePoint(codePoint);
+                i += Character.charCount(codePoint);
+            }
+            start = i;
+        }
+        if (start == 0) {
+            writer.write(text);
+        } else if (start < length) {
+            writer.write(text, start, length - start);
+        }
+    }
+
+    private void writeCodePoint(final int c) {
+        if (c == '\0') {
+            if (mode == XML_QUIRKS) {
+                writer.write(NULL);
+            } else if (mode == XML_1_0_REPLACEMENT || mode == XML_1_1_REPLACEMENT) {
+                writer.write(REPLACEMENT);
+            } else {
+                throw new StreamException("Invalid character 0x0 in XML stream");
+            }
+        } else if (Character.isDefined(c) && !Character.isISOControl(c)) {
+            boolean replaced = false;
+            if (mode != XML_QUIRKS) {
+                if (c > '\ud7ff' && c < '\ue000') {
+                    if (mode == XML_1_0_REPLACEMENT || mode == XML_1_1_REPLACEMENT) {
+                        writer.write(REPLACEMENT);
+                        replaced = true;
+                    } else {
+                        throw new StreamException("Invalid character 0x" + Integer.toHexString(c) + " in XML stream");
                     }
+                }
+            }
+            if (!replaced) {
+                if (Character.isBmpCodePoint(c)) {
+                    writer.write((char)c);
                 } else {
-                    boolean replaced = false;
-                    if (mode == XML_1_0 || mode == XML_1_0_REPLACEMENT) {
-                        if (c < 9
-                            || c == '\u000b'
-                            || c == '\u000c'
-                            || c == '\u000e'
-                            || c >= '\u000f' && c <= '\u001f') {
-                            if (mode == XML_1_0_REPLACEMENT) {
-                                writer.write(REPLACEMENT);
-                                replaced = true;
-                            } else {
-                                throw new StreamException("Invalid character 0x"
-                                    + Integer.toHexString(c)
-                                    + " in XML 1.0 stream");
-                            }
-                        }
-                    }
-                    if (mode != XML_QUIRKS) {
-                        if (c == '\ufffe' || c == '\uffff') {
-                            if (mode == XML_1_0_REPLACEMENT || mode == XML_1_1_REPLACEMENT) {
-                                writer.write(REPLACEMENT);
-                                replaced = true;
-                            } else {
-                                throw new StreamException("Invalid character 0x"
-                                    + Integer.toHexString(c)
-                                    + " in XML stream");
-                            }
-                        }
+                    writer.write(Character.highSurrogate(c));
+                    writer.write(Character.lowSurrogate(c));
+                }
+            }
+        } else {
+            boolean replaced = false;
+            if (mode == XML_1_0 || mode == XML_1_0_REPLACEMENT) {
+                if (c < 9 || c == '\u000b' || c == '\u000c' || c == '\u000e' || c >= '\u000f' && c <= '\u001f') {
+                    if (mode == XML_1_0_REPLACEMENT) {
+                        writer.write(REPLACEMENT);
+                        replaced = true;
+                    } else {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML 1.0 stream");
                     }
-                    if (!replaced) {
-                        writer.write("&#x");
-                        writer.write(Integer.toHexString(c));
-                        writer.write(';');
+                }
+            }
+            if (mode != XML_QUIRKS) {
+                if (c == '\ufffe' || c == '\uffff') {
+                    if (mode == XML_1_0_REPLACEMENT || mode == XML_1_1_REPLACEMENT) {
+                        writer.write(REPLACEMENT);
+                        replaced = true;
+                    } else {
+                        throw new StreamException("Invalid character 0x" + Integer.toHexString(c) + " in XML stream");
                     }
                 }
             }
-        });
+            if (!replaced) {
+                writer.write(HEX_ENTITY_START);
+                for (int shift = (31 - Integer.numberOfLeadingZeros(c)) & ~3; shift >= 0; shift -= 4) {
+                    writer.write(HEX_DIGITS[c >> shift & 0xf]);
+                }
+                writer.write(';');
+            }
+        }
     }
 
     @Override
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2013, 2014, 2015, 2019, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2013, 2014, 2015, 2019, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -49,6 +49,7 @@ public class StaxDriver extends AbstractXmlDriver {
     private QNameMap qnameMap;
     private XMLInputFactory inputFactory;
     private XMLOutputFactory outputFactory;
+    private boolean directUtf8Output;
 
     public StaxDriver() {
         this(new QNameMap());
@@ -168,6 +169,9 @@ public class StaxDriver extends AbstractXmlDriver {
 
     @Override
     public HierarchicalStreamWriter createWriter(final OutputStream out) {
+        if (directUtf8Output) {
+            return createUtf8Writer(out);
+        }
         try {
             return createStaxWriter(getOutputFactory().createXMLStreamWriter(out));
         } catch (final XMLStreamException e) {
@@ -175,6 +179,19 @@ public class StaxDriver extends AbstractXmlDriver {
         }
     }
 
+    /**
+     * Create a writer that encodes the XML directly into UTF-8 bytes. Used by {@link #createWriter(OutputStream)} if
+     * direct UTF-8 output has been selected. The default implementation writes compact XML without XML declaration
+     * and does not apply the namespaces of the {@link QNameMap}.
+     *
+     * @param out the target stream
+     * @return the new writer
+     * @since upcoming
+     */
+    protected HierarchicalStreamWriter createUtf8Writer(final OutputStream out) {
+        return new CompactWriter(out, getNameCoder());
+    }
+
     public AbstractPullReader createStaxReader(final XMLStreamReader in) {
         return new StaxReader(qnameMap, in, getNameCoder());
     }
@@ -198,6 +215,24 @@ public class StaxDriver extends AbstractXmlDriver {
         this.qnameMap = qnameMap;
     }
 
+    /**
+     * Select whether a writer for an OutputStream encodes the XML directly into UTF-8 bytes instead of using an
+     * XMLStreamWriter of the StAX implementation.
+     *
+     * @param directUtf8Output <code>true</code> to write UTF-8 bytes directly
+     * @since upcoming
+     */
+    public void setDirectUtf8Output(final boolean directUtf8Output) {
+        this.directUtf8Output = directUtf8Output;
+    }
+
+    /**
+     * @since upcoming
+     */
+    public boolean isDirectUtf8Output() {
+        return directUtf8Output;
+    }
+
     public XMLInputFactory getInputFactory() {
         if (inputFactory == null) {
             inputFactory = createInputFactory();
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.xml;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+import com.thoughtworks.xstream.io.AbstractDriver;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.naming.NameCoder;
+
+
+/**
+ * A {@link com.thoughtworks.xstream.io.HierarchicalStreamDriver} with XStream's own pull parser for UTF-8 encoded XML.
+ * <p>
+ * The {@link Utf8PullReader} does not depend on any external parser. Like the {@link MXParserDriver} it will never
+ * resolve any external or declared entity. Input streams and buffers must contain UTF-8, any other declared encoding
+ * is rejected. The writer for an OutputStream writes UTF-8 directly.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class Utf8PullDriver extends AbstractDriver {
+
+    /**
+     * Construct a Utf8PullDriver.
+     *
+     * @since upcoming
+     */
+    public Utf8PullDriver() {
+        this(new XmlFriendlyNameCoder());
+    }
+
+    /**
+     * Construct a Utf8PullDriver.
+     *
+     * @param nameCoder the replacer for XML friendly names
+     * @since upcoming
+     */
+    public Utf8PullDriver(final NameCoder nameCoder) {
+        super(nameCoder);
+    }
+
+    @Override
+    public HierarchicalStreamReader createReader(final Reader in) {
+        return new Utf8PullReader(in, getNameCoder());
+    }
+
+    @Override
+    public HierarchicalStreamReader createReader(final InputStream in) {
+        return new Utf8PullReader(in, getNameCoder());
+    }
+
+    @Override
+    public HierarchicalStreamReader createReader(final ByteBuffer in) {
+        return new Utf8PullReader(in, getNameCoder());
+    }
+
+    @Override
+    public HierarchicalStreamWriter createWriter(final Writer out) {
+        return new PrettyPrintWriter(out, getNameCoder());
+    }
+
+    @Override
+    public HierarchicalStreamWriter createWriter(final OutputStream out) {
+        return new PrettyPrintWriter(out, getNameCoder());
+    }
+}
@@ -0,0 +1,893 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.xml;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.thoughtworks.xstream.converters.ErrorWriter;
+import com.thoughtworks.xstream.io.AbstractReader;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.naming.NameCoder;
+
+
+/**
+ * A HierarchicalStreamReader with a pull parser that tokenizes UTF-8 encoded XML directly from its bytes.
+ * <p>
+ * Names of elements and attributes are looked up in a symbol table of the reader by their bytes, i.e. each distinct
+ * name is created only once as string and decoded only once with the {@link NameCoder}. Text is kept as bytes and
+ * decoded only if {@link #getValue()} is called for it. Data provided in a {@link ByteBuffer}, e.g. a memory-mapped
+ * file, is parsed directly from that buffer without any copy. Characters provided by a {@link Reader} are encoded into
+ * UTF-8 before parsing.
+ * </p>
+ * <p>
+ * The parser supports no document type definitions. A DOCTYPE declaration is skipped completely, no entity declared
+ * in it is ever resolved, neither internal nor external ones. A reference to any other than the predefined entities
+ * or a character reference results in an exception.
+ * </p>
+ *
+ * @see Utf8PullDriver
+ * @since upcoming
+ */
+public class Utf8PullReader extends AbstractReader {
+
+    private static final int EVENT_START_NODE = 1;
+    private static final int EVENT_END_NODE = 2;
+
+    private final InputStream in;
+    private final Reader reader;
+    private final ByteBuffer buffer;
+    private int start;
+    private int pos;
+    private int limit;
+    private long lines;
+    private CharsetEncoder encoder;
+    private CharBuffer chars;
+    private boolean charsEnd;
+
+    private final SymbolTable symbols = new SymbolTable();
+    private byte[] nameBytes = new byte[64];
+    private final ByteSink text = new ByteSink();
+    private final ByteSink attribute = new ByteSink();
+    private String value;
+
+    private int depth;
+    private Symbol[] names = new Symbol[16];
+    private int[] attributeStart = new int[16];
+    private Symbol[] attributeNames = new Symbol[16];
+    private String[] attributeValues = new String[16];
+    private int attributeCount;
+
+    private int pendingEvent;
+    private Symbol pendingName;
+
+    /**
+     * Construct a Utf8PullReader reading from an InputStream.
+     *
+     * @param in the stream with the UTF-8 encoded XML
+     * @param nameCoder the coder for XML friendly tag and attribute names
+     * @throws StreamException if the document declares a different encoding or the root element cannot be read
+     * @since upcoming
+     */
+    public Utf8PullReader(final InputStream in, final NameCoder nameCoder) {
+        this(in, null, ByteBuffer.wrap(new byte[8192]), 0, nameCoder);
+    }
+
+    /**
+     * Construct a Utf8PullReader reading the remaining bytes of a ByteBuffer.
+     * <p>
+     * The position of the buffer is not modified.
+     * </p>
+     *
+     * @param buffer the buffer with the UTF-8 encoded XML
+     * @param nameCoder the coder for XML friendly tag and attribute names
+     * @throws StreamException if the document declares a different encoding or the root element cannot be read
+     * @since upcoming
+     */
+    public Utf8PullReader(final ByteBuffer buffer, final NameCoder nameCoder) {
+        this(null, null, buffer, buffer.position(), nameCoder);
+    }
+
+    /**
+     * Construct a Utf8PullReader reading characters. Any encoding declared by the document is ignored.
+     *
+     * @param reader the reader with the XML
+     * @param nameCoder the coder for XML friendly tag and attribute names
+     * @throws StreamException if the root element cannot be read
+     * @since upcoming
+     */
+    public Utf8PullReader(final Reader reader, final NameCoder nameCoder) {
+        this(null, reader, ByteBuffer.wrap(new byte[8192]), 0, nameCoder);
+    }
+
+    private Utf8PullReader(
+            final InputStream in, final Reader reader, final ByteBuffer buffer, final int start,
+            final NameCoder nameCoder) {
+        super(nameCoder);
+        this.in = in;
+        this.reader = reader;
+        this.buffer = buffer;
+        this.start = start;
+        pos = start;
+        if (in == null && reader == null) {
+            limit = buffer.limit();
+        } else {
+            limit = start;
+            if (reader != null) {
+                encoder = StandardCharsets.UTF_8
+                    .newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                // encoded characters will always fit into the byte buffer
+                chars = CharBuffer.allocate(2048);
+                chars.flip();
+            }
+        }
+        readProlog();
+        moveDown();
+    }
+
+    @Override
+    public boolean hasMoreChildren() {
+        return pendingEvent == EVENT_START_NODE;
+    }
+
+    @Override
+    public String getNodeName() {
+        return nodeName(names[depth]);
+    }
+
+    @Override
+    public String getValue() {
+        if (value == null) {
+            value = text.length == 0 ? "" : new String(text.bytes, 0, text.length, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    @Override
+    public String getAttribute(final String name) {
+        for (int i = attributeStart[depth]; i < attributeCount; ++i) {
+            if (attributeName(attributeNames[i]).equals(name)) {
+                return attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getAttribute(final int index) {
+        return index < getAttributeCount() ? attributeValues[attributeStart[depth] + index] : null;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return attributeCount - attributeStart[depth];
+    }
+
+    @Override
+    public String getAttributeName(final int index) {
+        return index < getAttributeCount() ? attributeName(attributeNames[attributeStart[depth] + index]) : null;
+    }
+
+    @Override
+    public void moveDown() {
+        if (pendingEvent != EVENT_START_NODE) {
+            throw new StreamException("Expected StartNode");
+        }
+        if (++depth == names.length) {
+            growLevels();
+        }
+        names[depth] = pendingName;
+        attributeStart[depth] = attributeCount;
+        if (readAttributes(true)) {
+            text.length = 0;
+            value = "";
+            pendingEvent = EVENT_END_NODE;
+        } else {
+            pendingEvent = readContent(true, pendingName);
+        }
+    }
+
+    @Override
+    public void moveUp() {
+        // We're done with this depth. Skip over all events until we get to its end.
+        int level = 0;
+        for (int event = pendingEvent;; event = readContent(false, names[depth + level])) {
+            if (event == EVENT_END_NODE) {
+                if (level-- == 0) {
+                    break;
+                }
+            } else if (!readAttributes(false)) {
+                if (depth + ++level == names.length) {
+                    growLevels();
+                }
+                names[depth + level] = pendingName;
+            }
+        }
+        attributeCount = attributeStart[depth];
+        names[depth] = null;
+        if (--depth == 0) {
+            text.length = 0;
+            value = "";
+            pendingEvent = 0;
+            return;
+        }
+        pendingEvent = readContent(true, names[depth]);
+    }
+
+    private void growLevels() {
+        final int length = names.length * 2;
+        names = Arrays.copyOf(names, length);
+        attributeStart = Arrays.copyOf(attributeStart, length);
+    }
+
+    @Override
+    public int getLevel() {
+        return depth;
+    }
+
+    @Override
+    public String peekNextChild() {
+        return pendingEvent == EVENT_START_NODE ? nodeName(pendingName) : null;
+    }
+
+    @Override
+    public void appendErrors(final ErrorWriter errorWriter) {
+        long line = lines + 1;
+        for (int i = start; i < pos; ++i) {
+            if (buffer.get(i) == '\n') {
+                ++line;
+            }
+        }
+        errorWriter.add("line number", String.valueOf(line));
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (in != null) {
+                in.close();
+            } else if (reader != null) {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private String nodeName(final Symbol symbol) {
+        if (symbol.node == null) {
+            symbol.node = decodeNode(symbol.name);
+        }
+        return symbol.node;
+    }
+
+    private String attributeName(final Symbol symbol) {
+        if (symbol.attribute == null) {
+            symbol.attribute = decodeAttribute(symbol.name);
+        }
+        return symbol.attribute;
+    }
+
+    /**
+     * Read anything in front of the root element and the name of the root element.
+     */
+    private void readProlog() {
+        if (peek() == 0xEF) {
+            ++pos;
+            if (read() != 0xBB || read() != 0xBF) {
+                throw new StreamException("Invalid byte order mark");
+            }
+        }
+        for (;;) {
+            int b = read();
+            while (isWhitespace(b)) {
+                b = read();
+            }
+            if (b != '<') {
+                throw b < 0 ? eof() : new StreamException("Content is not allowed in prolog");
+            }
+            b = read();
+            if (b == '?') {
+                readProcessingInstruction(true);
+            } else if (b == '!') {
+                b = read();
+                if (b == '-') {
+                    skipComment();
+                } else if (b == 'D') {
+                    skipDoctype();
+                } else {
+                    throw new StreamException("Illegal markup in prolog");
+                }
+            } else {
+                pendingName = readName(b);
+                pendingEvent = EVENT_START_NODE;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read the attributes of the pending start tag.
+     *
+     * @return <code>true</code> if the element is empty
+     */
+    private boolean readAttributes(final boolean store) {
+        for (;;) {
+            int b = read();
+            while (isWhitespace(b)) {
+                b = read();
+            }
+            if (b == '>') {
+                return false;
+            } else if (b == '/') {
+                if (read() != '>') {
+                    throw new StreamException("Expected '>' after '/' in tag");
+                }
+                return true;
+            } else if (b < 0) {
+                throw eof();
+            }
+            final Symbol name = readName(b);
+            b = read();
+            while (isWhitespace(b)) {
+                b = read();
+            }
+            if (b != '=') {
+                throw new StreamException("Expected '=' after attribute name " + name.name);
+            }
+            b = read();
+            while (isWhitespace(b)) {
+                b = read();
+            }
+            if (b != '"' && b != '\'') {
+                throw new StreamException("Expected quote for value of attribute " + name.name);
+            }
+            final String value = readAttributeValue(b, store);
+            if (store) {
+                if (attributeCount == attributeNames.length) {
+                    attributeNames = Arrays.copyOf(attributeNames, attributeCount * 2);
+                    attributeValues = Arrays.copyOf(attributeValues, attributeCount * 2);
+                }
+                attributeNames[attributeCount] = name;
+                attributeValues[attributeCount++] = value;
+            }
+        }
+    }
+
+    private String readAttributeValue(final int quote, final boolean store) {
+        final ByteSink sink = attribute;
+        sink.length = 0;
+        for (;;) {
+            final int b = read();
+            if (b == quote) {
+                break;
+            }
+            switch (b) {
+            case '&':
+                readReference(sink);
+                break;
+            case '\r':
+                if (peek() == '\n') {
+                    ++pos;
+                }
+                //$FALL-THROUGH$
+            case '\n':
+            case '\t':
+                sink.add(' ');
+                break;
+            case '<':
+                throw new StreamException("Character '<' is not allowed in attribute value");
+            case -1:
+                throw eof();
+            default:
+                sink.add(b);
+            }
+        }
+        return store ? new String(sink.bytes, 0, sink.length, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Read the content of the current element up to the next start or end tag. The text is collected unless it is
+     * skipped. The name of a start tag is kept as pending name, an end tag has to close the open element.
+     *
+     * @return the next event
+     */
+    private int readContent(final boolean store, final Symbol open) {
+        final ByteSink sink = text;
+        sink.length = 0;
+        value = null;
+        for (;;) {
+            // plain text fast path
+            final ByteBuffer bytes = buffer;
+            int p = pos;
+            final int end = limit;
+            byte c = 0;
+            while (p < end && (c = bytes.get(p)) != '<' && c != '&' && c != '\r') {
+                ++p;
+            }
+            if (store && p > pos) {
+                sink.add(bytes, pos, p);
+            }
+            pos = p;
+            if (p == end) {
+                if (!fill()) {
+                    throw eof();
+                }
+                continue;
+            }
+            ++pos;
+            if (c == '&') {
+                if (store) {
+                    readReference(sink);
+                } else {
+                    readReference(attribute);
+                }
+                continue;
+            }
+            if (c == '\r') {
+                if (peek() == '\n') {
+                    ++pos;
+                }
+                if (store) {
+                    sink.add('\n');
+                }
+                continue;
+            }
+            int b = read();
+            if (b == '/') {
+                final Symbol name = readName(read());
+                b = read();
+                while (isWhitespace(b)) {
+                    b = read();
+                }
+                if (b != '>') {
+                    throw new StreamException("Expected '>' after end tag name " + name.name);
+                }
+                if (name != open) {
+                    throw new StreamException("End tag " + name.name + " does not match start tag " + open.name);
+                }
+                return EVENT_END_NODE;
+            } else if (b == '!') {
+                b = read();
+                if (b == '-') {
+                    skipComment();
+                } else if (b == '[') {
+                    readCData(store ? sink : null);
+                } else {
+                    throw new StreamException("Illegal markup in element " + open.name);
+                }
+            } else if (b == '?') {
+                readProcessingInstruction(false);
+            } else {
+                pendingName = readName(b);
+                return EVENT_START_NODE;
+            }
+        }
+    }
+
+    private Symbol readName(int b) {
+        if (b < 0) {
+            throw eof();
+        }
+        if (isDelimiter(b)) {
+            throw new StreamException("Illegal character in name: " + (char)b);
+        }
+        byte[] bytes = nameBytes;
+        int length = 0;
+        int hash = 0;
+        for (;;) {
+            if (length == bytes.length) {
+                nameBytes = bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte)b;
+            hash = 31 * hash + b;
+            if (pos == limit && !fill()) {
+                break;
+            }
+            b = buffer.get(pos) & 0xFF;
+            if (isDelimiter(b)) {
+                break;
+            }
+            ++pos;
+        }
+        return symbols.lookup(bytes, length, hash);
+    }
+
+    private void readReference(final ByteSink sink) {
+        int b = read();
+        if (b == '#') {
+            int radix = 10;
+            b = read();
+            if (b == 'x') {
+                radix = 16;
+                b = read();
+            }
+            int codePoint = 0;
+            int digits = 0;
+            for (; b != ';'; b = read()) {
+                final int digit = Character.digit(b, radix);
+                if (b < 0 || digit < 0 || ++digits > 8) {
+                    throw new StreamException("Invalid character reference");
+                }
+                if (codePoint <= Character.MAX_CODE_POINT) {
+                    // stop accumulating before the int overflows
+                    codePoint = codePoint * radix + digit;
+                }
+            }
+            if (digits == 0 || codePoint > Character.MAX_CODE_POINT) {
+                throw new StreamException("Invalid character reference");
+            }
+            sink.addCodePoint(codePoint);
+            return;
+        }
+        final StringBuilder name = new StringBuilder();
+        for (; b != ';'; b = read()) {
+            if (b < 0 || isDelimiter(b) || name.length() > 8) {
+                throw new StreamException("Invalid entity reference");
+            }
+            name.append((char)b);
+        }
+        switch (name.toString()) {
+        case "lt":
+            sink.add('<');
+            break;
+        case "gt":
+            sink.add('>');
+            break;
+        case "amp":
+            sink.add('&');
+            break;
+        case "quot":
+            sink.add('"');
+            break;
+        case "apos":
+            sink.add('\'');
+            break;
+        default:
+            throw new StreamException("Could not resolve entity named '" + name + "'");
+        }
+    }
+
+    private void readCData(final ByteSink sink) {
+        for (final char c : "CDATA[".toCharArray()) {
+            if (read() != c) {
+                throw new StreamException("Illegal markup, expected CDATA section");
+            }
+        }
+        int brackets = 0;
+        for (;;) {
+            final int b = read();
+            if (b < 0) {
+                throw eof();
+            } else if (b == ']') {
+                ++brackets;
+                continue;
+            }
+            final boolean end = b == '>' && brackets >= 2;
+            if (sink != null) {
+                for (int i = end ? brackets - 2 : brackets; i > 0; --i) {
+                    sink.add(']');
+                }
+                if (end) {
+                    // done
+                } else if (b == '\r') {
+                    if (peek() == '\n') {
+                        ++pos;
+                    }
+                    sink.add('\n');
+                } else {
+                    sink.add(b);
+                }
+            }
+            if (end) {
+                return;
+            }
+            brackets = 0;
+        }
+    }
+
+    private void readProcessingInstruction(final boolean prolog) {
+        final StringBuilder content = prolog ? new StringBuilder() : null;
+        boolean question = false;
+        for (;;) {
+            final int b = read();
+            if (b < 0) {
+                throw eof();
+            } else if (b == '>' && question) {
+                break;
+            }
+            question = b == '?';
+            if (content != null && content.length() < 256) {
+                content.append((char)b);
+            }
+        }
+        if (content != null
+            && reader == null
+            && content.length() > 3
+            && content.indexOf("xml") == 0
+            && isWhitespace(content.charAt(3))) {
+            checkEncoding(content.toString());
+        }
+    }
+
+    private void checkEncoding(final String declaration) {
+        final int index = declaration.indexOf("encoding");
+        if (index < 0) {
+            return;
+        }
+        int i = declaration.indexOf('=', index);
+        while (++i < declaration.length() && Character.isWhitespace(declaration.charAt(i))) {
+            // skip
+        }
+        if (i < declaration.length()) {
+            final char quote = declaration.charAt(i);
+            final int end = declaration.indexOf(quote, i + 1);
+            if (end > 0) {
+                final String encoding = declaration.substring(i + 1, end);
+                if (!encoding.equalsIgnoreCase("UTF-8")
+                    && !encoding.equalsIgnoreCase("UTF8")
+                    && !encoding.equalsIgnoreCase("US-ASCII")
+                    && !encoding.equalsIgnoreCase("ASCII")) {
+                    throw new StreamException("Unsupported encoding " + encoding + ", only UTF-8 can be parsed");
+                }
+            }
+        }
+    }
+
+    private void skipComment() {
+        if (read() != '-') {
+            throw new StreamException("Illegal markup, expected comment");
+        }
+        int dashes = 0;
+        for (;;) {
+            final int b = read();
+            if (b < 0) {
+                throw eof();
+            } else if (b == '-') {
+                ++dashes;
+            } else if (b == '>' && dashes >= 2) {
+                return;
+            } else {
+                dashes = 0;
+            }
+        }
+    }
+
+    private void skipDoctype() {
+        for (final char c : "OCTYPE".toCharArray()) {
+            if (read() != c) {
+                throw new StreamException("Illegal markup, expected DOCTYPE");
+            }
+        }
+        int quote = 0;
+        int brackets = 0;
+        int recent = 0;
+        for (;;) {
+            final int b = read();
+            if (b < 0) {
+                throw eof();
+            }
+            recent = recent << 8 | b;
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (recent == ('<' << 24 | '!' << 16 | '-' << 8 | '-')) {
+                skipCommentContent();
+                recent = 0;
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '[') {
+                ++brackets;
+            } else if (b == ']') {
+                --brackets;
+            } else if (b == '>' && brackets <= 0) {
+                return;
+            }
+        }
+    }
+
+    private void skipCommentContent() {
+        int dashes = 0;
+        for (;;) {
+            final int b = read();
+            if (b < 0) {
+                throw eof();
+            } else if (b == '-') {
+                ++dashes;
+            } else if (b == '>' && dashes >= 2) {
+                return;
+            } else {
+                dashes = 0;
+            }
+        }
+    }
+
+    private static boolean isWhitespace(final int b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isDelimiter(final int b) {
+        return b <= ' ' || b == '/' || b == '>' || b == '=' || b == '<' || b == '"' || b == '\'' || b == '&';
+    }
+
+    private int read() {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer.get(pos++) & 0xFF;
+    }
+
+    private int peek() {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer.get(pos) & 0xFF;
+    }
+
+    private boolean fill() {
+        if (in == null && reader == null) {
+            return false;
+        }
+        for (int i = start; i < limit; ++i) {
+            if (buffer.get(i) == '\n') {
+                ++lines;
+            }
+        }
+        start = pos = limit = 0;
+        try {
+            if (in != null) {
+                final int n = in.read(buffer.array());
+                if (n < 0) {
+                    return false;
+                }
+                limit = n;
+            } else {
+                buffer.clear();
+                while (buffer.position() == 0 && !charsEnd) {
+                    chars.compact();
+                    final int n = reader.read(chars);
+                    chars.flip();
+                    if (n < 0) {
+                        charsEnd = true;
+                        encoder.encode(chars, buffer, true);
+                        encoder.flush(buffer);
+                    } else {
+                        encoder.encode(chars, buffer, false);
+                    }
+                }
+                limit = buffer.position();
+                if (limit == 0) {
+                    return false;
+                }
+            }
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+        return true;
+    }
+
+    private static StreamException eof() {
+        return new StreamException("Unexpected end of document", new EOFException());
+    }
+
+    private static final class Symbol {
+        final byte[] bytes;
+        final int hash;
+        final String name;
+        String node;
+        String attribute;
+
+        Symbol(final byte[] bytes, final int hash) {
+            this.bytes = bytes;
+            this.hash = hash;
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * An open-addressed table of symbols looked up by the bytes of the name.
+     */
+    private static final class SymbolTable {
+        private Symbol[] table = new Symbol[64];
+        private int size;
+
+        Symbol lookup(final byte[] bytes, final int length, final int hash) {
+            int mask = table.length - 1;
+            int index = hash & mask;
+            for (Symbol symbol; (symbol = table[index]) != null; index = index + 1 & mask) {
+                if (symbol.hash == hash && symbol.bytes.length == length && Arrays.equals(symbol.bytes, 0, length,
+                    bytes, 0, length)) {
+                    return symbol;
+                }
+            }
+            final Symbol symbol = new Symbol(Arrays.copyOf(bytes, length), hash);
+            if (++size * 2 > table.length) {
+                final Symbol[] old = table;
+                table = new Symbol[old.length * 2];
+                mask = table.length - 1;
+                for (final Symbol s : old) {
+                    if (s != null) {
+                        int i = s.hash & mask;
+                        while (table[i] != null) {
+                            i = i + 1 & mask;
+                        }
+                        table[i] = s;
+                    }
+                }
+                index = hash & mask;
+                while (table[index] != null) {
+                    index = index + 1 & mask;
+                }
+            }
+            table[index] = symbol;
+            return symbol;
+        }
+    }
+
+    /**
+     * A growing array of bytes.
+     */
+    private static final class ByteSink {
+        byte[] bytes = new byte[256];
+        int length;
+
+        void add(final int b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte)b;
+        }
+
+        void add(final ByteBuffer buffer, final int from, final int to) {
+            final int n = to - from;
+            if (length + n > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + n, length * 2));
+            }
+            if (buffer.hasArray()) {
+                System.arraycopy(buffer.array(), buffer.arrayOffset() + from, bytes, length, n);
+                length += n;
+            } else {
+                for (int i = from; i < to; ++i) {
+                    bytes[length++] = buffer.get(i);
+                }
+            }
+        }
+
+        void addCodePoint(final int c) {
+            if (c < 0x80) {
+                add(c);
+            } else if (c < 0x800) {
+                add(0xC0 | c >> 6);
+                add(0x80 | c & 0x3F);
+            } else if (c < 0x10000) {
+                add(0xE0 | c >> 12);
+                add(0x80 | c >> 6 & 0x3F);
+                add(0x80 | c & 0x3F);
+            } else {
+                add(0xF0 | c >> 18);
+                add(0x80 | c >> 12 & 0x3F);
+                add(0x80 | c >> 6 & 0x3F);
+                add(0x80 | c & 0x3F);
+            }
+        }
+    }
+}
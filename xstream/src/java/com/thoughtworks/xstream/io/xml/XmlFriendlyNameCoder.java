@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2019, 2020, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2019, 2020, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,10 +12,10 @@
 package com.thoughtworks.xstream.io.xml;
 
 import java.util.BitSet;
-import java.util.HashMap;
 import java.util.Map;
 
 import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
+import com.thoughtworks.xstream.core.util.ClockCache;
 import com.thoughtworks.xstream.io.naming.NameCoder;
 
 
@@ -38,6 +38,10 @@ import com.thoughtworks.xstream.io.naming.NameCoder;
  * The valid characters are defined by the intersection of the XML 1.0 specification (4th edition) and later
  * specifications till XML 1.1 specification.
  * </p>
+ * <p>
+ * Names that contain any character to encode or decode are cached. The caches are thread-safe and limited in size, a
+ * name that has not been used recently is evicted if the limit is reached.
+ * </p>
  *
  * @author J&ouml;rg Schaible
  * @author Mauro Talevi
@@ -50,6 +54,7 @@ import com.thoughtworks.xstream.io.naming.NameCoder;
  * @since 1.4
  */
 public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
+    private static final int DEFAULT_CACHE_SIZE = 4096;
     private static final BitSet XML_NAME_START_CHARS;
     private static final BitSet XML_NAME_CHARS;
     static {
@@ -420,6 +425,7 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
     private transient Map<String, String> escapeCache;
     private transient Map<String, String> unescapeCache;
     private final String hexPrefix;
+    private final int cacheSize;
 
     /**
      * Construct a new XmlFriendlyNameCoder.
@@ -451,9 +457,30 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
      */
     public XmlFriendlyNameCoder(
             final String dollarReplacement, final String escapeCharReplacement, final String hexPrefix) {
+        this(dollarReplacement, escapeCharReplacement, hexPrefix, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Construct a new XmlFriendlyNameCoder with custom replacement strings for dollar, the escape character and the
+     * prefix for hexadecimal encoding of invalid characters in XML names and a limit for the number of cached names.
+     *
+     * @param dollarReplacement
+     * @param escapeCharReplacement
+     * @param hexPrefix
+     * @param cacheSize the maximum number of names cached for encoding and for decoding each
+     * @throws IllegalArgumentException if the cache size is not positive
+     * @since upcoming
+     */
+    public XmlFriendlyNameCoder(
+            final String dollarReplacement, final String escapeCharReplacement, final String hexPrefix,
+            final int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + cacheSize);
+        }
         this.dollarReplacement = dollarReplacement;
         this.escapeCharReplacement = escapeCharReplacement;
         this.hexPrefix = hexPrefix;
+        this.cacheSize = cacheSize;
         readResolve();
     }
 
@@ -478,24 +505,25 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
     }
 
     private String encodeName(final String name) {
-        String s = escapeCache.get(name);
-        if (s == null) {
-            final int length = name.length();
+        final int length = name.length();
 
-            // First, fast (common) case: nothing to escape
-            int i = 0;
+        // First, fast (common) case: nothing to escape, no need for the cache
+        int i = 0;
 
-            for (; i < length; i++) {
-                final char c = name.charAt(i);
-                if (c < 'A' || (c > 'Z' && c < 'a') || c > 'z') {
-                    break;
-                }
+        for (; i < length; i++) {
+            final char c = name.charAt(i);
+            if ((c < 'A' || (c > 'Z' && c < 'a') || c > 'z')
+                && (i == 0 || (c < '0' || c > '9') && c != '-' && c != '.')) {
+                break;
             }
+        }
 
-            if (i == length) {
-                return name;
-            }
+        if (i == length) {
+            return name;
+        }
 
+        String s = escapeCache.get(name);
+        if (s == null) {
             // Otherwise full processing
             final StringBuffer result = new StringBuffer(length + 8);
 
@@ -531,29 +559,29 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
     }
 
     private String decodeName(final String name) {
-        String s = unescapeCache.get(name);
-        if (s == null) {
-            final char dollarReplacementFirstChar = dollarReplacement.charAt(0);
-            final char escapeReplacementFirstChar = escapeCharReplacement.charAt(0);
-            final char hexPrefixFirstChar = hexPrefix.charAt(0);
-            final int length = name.length();
-
-            // First, fast (common) case: nothing to decode
-            int i = 0;
-
-            for (; i < length; i++) {
-                final char c = name.charAt(i);
-                // We'll do a quick check for potential match
-                if (c == dollarReplacementFirstChar || c == escapeReplacementFirstChar || c == hexPrefixFirstChar) {
-                    // and if it might be a match, just quit, will check later on
-                    break;
-                }
+        final char dollarReplacementFirstChar = dollarReplacement.charAt(0);
+        final char escapeReplacementFirstChar = escapeCharReplacement.charAt(0);
+        final char hexPrefixFirstChar = hexPrefix.charAt(0);
+        final int length = name.length();
+
+        // First, fast (common) case: nothing to decode, no need for the cache
+        int i = 0;
+
+        for (; i < length; i++) {
+            final char c = name.charAt(i);
+            // We'll do a quick check for potential match
+            if (c == dollarReplacementFirstChar || c == escapeReplacementFirstChar || c == hexPrefixFirstChar) {
+                // and if it might be a match, just quit, will check later on
+                break;
             }
+        }
 
-            if (i == length) {
-                return name;
-            }
+        if (i == length) {
+            return name;
+        }
 
+        String s = unescapeCache.get(name);
+        if (s == null) {
             // Otherwise full processing
             final StringBuffer result = new StringBuffer(length + 8);
 
@@ -604,8 +632,17 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
         return this;
     }
 
+    /**
+     * Create a map for the cache of the encoded or decoded names.
+     * <p>
+     * The default implementation creates a thread-safe {@link ClockCache} limited to the configured cache size.
+     * </p>
+     *
+     * @return the new map
+     * @since 1.4
+     */
     protected Map<String, String> createCacheMap() {
-        return new HashMap<>();
+        return new ClockCache<>(cacheSize > 0 ? cacheSize : DEFAULT_CACHE_SIZE);
     }
 
     private static boolean isXmlNameStartChar(final int cp) {
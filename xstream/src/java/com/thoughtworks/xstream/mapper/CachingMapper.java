@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2020, 2025 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2020, 2025, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,6 +16,7 @@ import java.util.concurrent.ConcurrentMap;
 
 import com.thoughtworks.xstream.XStreamException;
 import com.thoughtworks.xstream.core.Caching;
+import com.thoughtworks.xstream.core.Instrumentation;
 import com.thoughtworks.xstream.security.ForbiddenClassException;
 
 
@@ -28,6 +29,7 @@ import com.thoughtworks.xstream.security.ForbiddenClassException;
 public class CachingMapper extends MapperWrapper implements Caching {
 
     private transient ConcurrentMap<String, ? super Object> realClassCache;
+    private transient Instrumentation instrumentation;
 
     public CachingMapper(final Mapper wrapped) {
         super(wrapped);
@@ -37,6 +39,9 @@ public class CachingMapper extends MapperWrapper implements Caching {
     @Override
     public Class<?> realClass(final String elementName) {
         final Object cached = realClassCache.get(elementName);
+        if (instrumentation != null) {
+            instrumentation.classLookedUp(elementName, cached != null);
+        }
         if (cached != null) {
             if (cached instanceof Class) {
                 return (Class<?>)cached;
@@ -72,6 +77,16 @@ public class CachingMapper extends MapperWrapper implements Caching {
         }
     }
 
+    /**
+     * Set the instrumentation notified about the cache hits.
+     *
+     * @param instrumentation the instrumentation or <code>null</code>
+     * @since upcoming
+     */
+    public void setInstrumentation(final Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     @Override
     public void flushCache() {
         realClassCache.clear();
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008, 2014, 2020 XStream Committers.
+ * Copyright (C) 2008, 2014, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,13 +15,42 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.ConverterLookup;
@@ -31,23 +60,58 @@ import com.thoughtworks.xstream.mapper.Mapper;
 
 /**
  * Abstract base class for file based persistence strategies.
+ * <p>
+ * A value is written into a temporary file in the target directory, that replaces the target file atomically. A crash
+ * will therefore never leave a partially written value behind, although a temporary file may remain. Whether a written
+ * value survives a crash of the operating system depends on the policy set with {@link #setSyncInterval(long)}.
+ * </p>
+ * <p>
+ * By default all files are kept in the base directory. For a large number of entries the files can be distributed
+ * into a hierarchy of sub directories, see {@link #setShardLevels(int)}.
+ * </p>
  *
  * @author Guilherme Silveira
  * @author Joerg Schaible
  * @since 1.3.1
  */
-public abstract class AbstractFilePersistenceStrategy<K, V> implements PersistenceStrategy<K, V> {
+public abstract class AbstractFilePersistenceStrategy<K, V> implements PersistenceStrategy<K, V>, Flushable {
+
+    /**
+     * Sync interval to leave it to the operating system when written files are stored on the device.
+     *
+     * @since upcoming
+     */
+    public static final long SYNC_NEVER = -1;
+    /**
+     * Sync interval to force every written file to the device.
+     *
+     * @since upcoming
+     */
+    public static final long SYNC_ALWAYS = 0;
+
+    private static final String MANIFEST = "manifest.properties";
+    private static final String SHARD_LEVELS = "shard.levels";
+    private static final String COUNT = "count";
 
     private final FilenameFilter filter;
     private final File baseDirectory;
     private final String encoding;
     private final transient XStream xstream;
+    private volatile long syncInterval = SYNC_NEVER;
+    private volatile GroupCommit groupCommit;
+    private volatile int shardLevels;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong modifications = new AtomicLong();
+    private final AtomicInteger pendingModifications = new AtomicInteger();
+    private final Object manifestLock = new Object();
+    private volatile boolean dirty;
 
     public AbstractFilePersistenceStrategy(final File baseDirectory, final XStream xstream, final String encoding) {
         this.baseDirectory = baseDirectory;
         this.xstream = xstream;
         this.encoding = encoding;
         filter = new ValidFilenameFilter();
+        readManifest();
     }
 
     protected ConverterLookup getConverterLookup() {
@@ -58,6 +122,163 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
         return xstream.getMapper();
     }
 
+    /**
+     * Set the policy to force written files to the storage device.
+     * <p>
+     * With {@link #SYNC_NEVER} (or any other negative value) the operating system decides when written data is stored
+     * on the device. With {@link #SYNC_ALWAYS} every write returns after the file and its directory have been forced to
+     * the device. A positive interval enables group commit: the files written concurrently by different threads are
+     * forced together and their directories once for all of them, at most once per interval. A write returns after its
+     * group has been forced.
+     * </p>
+     *
+     * @param millis the sync interval in milliseconds
+     * @since upcoming
+     */
+    public void setSyncInterval(final long millis) {
+        groupCommit = millis > 0 ? new GroupCommit(TimeUnit.MILLISECONDS.toNanos(millis)) : null;
+        syncInterval = millis;
+    }
+
+    /**
+     * Distribute the files into a hierarchy of sub directories.
+     * <p>
+     * The path of a file is derived from a hash of its name, every level adds a sub directory with one of 256 names.
+     * The number of levels and the number of entries are kept in a manifest file in the base directory, a sharded base
+     * directory is therefore recognized automatically. Files found in the base directory itself are moved into the
+     * sub directories. The number of entries is maintained on every modification and written into the manifest by
+     * {@link #flush()}. If it has not been written after the last modification, the entries are counted again when the
+     * size is requested the next time. A sharded base directory must not be modified by multiple instances at the same time.
+     * </p>
+     *
+     * @param levels the number of directory levels between 1 and 4
+     * @throws IllegalArgumentException if the number of levels is out of range
+     * @throws IllegalStateException if the base directory is already sharded with a different number of levels
+     * @throws StreamException if the manifest cannot be written or a file cannot be moved
+     * @since upcoming
+     */
+    public void setShardLevels(final int levels) {
+        if (levels < 1 || levels > 4) {
+            throw new IllegalArgumentException("Number of shard levels must be between 1 and 4");
+        }
+        synchronized (manifestLock) {
+            if (shardLevels == levels) {
+                return;
+            } else if (shardLevels != 0) {
+                throw new IllegalStateException("Base directory is already sharded with " + shardLevels + " levels");
+            }
+            shardLevels = levels;
+            final File[] files = baseDirectory.listFiles(filter);
+            try {
+                if (files != null) {
+                    for (final File file : files) {
+                        final File target = getFile(file.getName());
+                        target.getParentFile().mkdirs();
+                        Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                count.set(countFiles());
+                dirty = false;
+                writeManifest(count.get());
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+        }
+    }
+
+    /**
+     * Write the number of entries into the manifest of a sharded base directory.
+     *
+     * @throws StreamException if the manifest cannot be written
+     * @since upcoming
+     */
+    @Override
+    public void flush() {
+        if (shardLevels > 0) {
+            synchronized (manifestLock) {
+                dirty = false;
+                try {
+                    writeManifest(count.get());
+                } catch (final IOException e) {
+                    throw new StreamException(e);
+                }
+            }
+        }
+    }
+
+    private void readManifest() {
+        final File manifest = new File(baseDirectory, MANIFEST);
+        if (manifest.isFile()) {
+            final Properties properties = new Properties();
+            try (final InputStream in = new FileInputStream(manifest)) {
+                properties.load(in);
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+            shardLevels = Integer.parseInt(properties.getProperty(SHARD_LEVELS));
+            count.set(Long.parseLong(properties.getProperty(COUNT, "-1")));
+        }
+    }
+
+    private void writeManifest(final long entries) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(SHARD_LEVELS, String.valueOf(shardLevels));
+        if (entries >= 0) {
+            properties.setProperty(COUNT, String.valueOf(entries));
+        }
+        baseDirectory.mkdirs();
+        final File temporaryFile = File.createTempFile(".xstream", ".tmp", baseDirectory);
+        try {
+            try (final OutputStream out = new FileOutputStream(temporaryFile)) {
+                properties.store(out, "XStream persistence manifest");
+            }
+            replace(Collections.singletonList(new File[]{temporaryFile, new File(baseDirectory, MANIFEST)}),
+                syncInterval >= 0, null);
+        } finally {
+            temporaryFile.delete();
+        }
+    }
+
+    private void beginModification() {
+        // announce before the generation changes, see size()
+        pendingModifications.incrementAndGet();
+        modifications.incrementAndGet();
+    }
+
+    private void endModification(final long delta) {
+        try {
+            if (delta != 0) {
+                modified(delta);
+            }
+        } finally {
+            pendingModifications.decrementAndGet();
+        }
+    }
+
+    private void modified(final long delta) {
+        count.getAndUpdate(entries -> entries < 0 ? entries : entries + delta);
+        if (!dirty) {
+            synchronized (manifestLock) {
+                if (!dirty) {
+                    dirty = true;
+                    try {
+                        writeManifest(-1);
+                    } catch (final IOException e) {
+                        throw new StreamException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private long countFiles() {
+        long entries = 0;
+        for (final Iterator<File> iter = new FileIterator(); iter.hasNext(); iter.next()) {
+            ++entries;
+        }
+        return entries;
+    }
+
     protected boolean isValid(final File dir, final String name) {
         return name.endsWith(".xml");
     }
@@ -85,17 +306,70 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
         }
     }
 
-    protected class XmlMapEntriesIterator implements Iterator<Map.Entry<K, V>> {
+    /**
+     * Iterates lazily over the valid files of the base directory and its shards. The entries of a single directory
+     * are read at once, to close the directory stream immediately.
+     */
+    private class FileIterator implements Iterator<File> {
+        private final Deque<Iterator<File>> directories = new ArrayDeque<>();
+        private File next;
+
+        FileIterator() {
+            directories.push(list(baseDirectory, 0));
+        }
 
-        private final File[] files = baseDirectory.listFiles(filter);
+        private Iterator<File> list(final File directory, final int level) {
+            final List<File> files = new ArrayList<>();
+            try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath())) {
+                for (final Path path : stream) {
+                    final File file = path.toFile();
+                    if (level < shardLevels ? file.isDirectory() : filter.accept(directory, file.getName())) {
+                        files.add(file);
+                    }
+                }
+            } catch (final NoSuchFileException e) {
+                // no entries
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+            return files.iterator();
+        }
 
-        private int position = -1;
+        @Override
+        public boolean hasNext() {
+            while (next == null && !directories.isEmpty()) {
+                final Iterator<File> files = directories.peek();
+                if (!files.hasNext()) {
+                    directories.pop();
+                } else if (directories.size() <= shardLevels) {
+                    directories.push(list(files.next(), directories.size()));
+                } else {
+                    next = files.next();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final File file = next;
+            next = null;
+            return file;
+        }
+    }
+
+    protected class XmlMapEntriesIterator implements Iterator<Map.Entry<K, V>> {
+
+        private final Iterator<File> files = new FileIterator();
 
         private File current = null;
 
         @Override
         public boolean hasNext() {
-            return position + 1 < files.length;
+            return files.hasNext();
         }
 
         @Override
@@ -104,14 +378,16 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
                 throw new IllegalStateException();
             }
             // removes without loading
-            current.delete();
+            deleteFile(current);
         }
 
         @Override
         public Map.Entry<K, V> next() {
             return new Map.Entry<K, V>() {
-                private final File file = current = files[++position];
+                private final File file = current = files.next();
                 private final K key = extractKey(file.getName());
+                private V value;
+                private boolean loaded;
 
                 @Override
                 public K getKey() {
@@ -120,12 +396,20 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
 
                 @Override
                 public V getValue() {
-                    return readFile(file);
+                    // read on demand only once
+                    if (!loaded) {
+                        value = readFile(file);
+                        loaded = true;
+                    }
+                    return value;
                 }
 
                 @Override
                 public V setValue(final V value) {
-                    return put(key, value);
+                    final V old = put(key, value);
+                    this.value = value;
+                    loaded = true;
+                    return old;
                 }
 
                 @Override
@@ -154,20 +438,125 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
     }
 
     private void writeFile(final File file, final Object value) {
+        commit(Collections.singletonList(new File[]{writeTemporaryFile(file, value), file}));
+    }
+
+    private File writeTemporaryFile(final File file, final Object value) {
         try {
-            final FileOutputStream out = new FileOutputStream(file);
+            if (shardLevels > 0) {
+                file.getParentFile().mkdirs();
+            }
+            final File temporaryFile = File.createTempFile(".xstream", ".tmp", file.getParentFile());
+            final FileOutputStream out = new FileOutputStream(temporaryFile);
             try (final Writer writer = encoding != null
                 ? new OutputStreamWriter(out, encoding)
                 : new OutputStreamWriter(out)) {
                 xstream.toXML(value, writer);
+            } catch (final RuntimeException | IOException e) {
+                temporaryFile.delete();
+                throw e;
             }
+            return temporaryFile;
         } catch (final IOException e) {
             throw new StreamException(e);
         }
     }
 
+    private void commit(final List<File[]> files) {
+        try {
+            final GroupCommit group = groupCommit;
+            if (group != null) {
+                group.commit(files);
+            } else {
+                replace(files, syncInterval == SYNC_ALWAYS, shardLevels > 0 ? this : null);
+            }
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        } finally {
+            for (final File[] file : files) {
+                file[0].delete();
+            }
+        }
+    }
+
+    /**
+     * Replace the target files with the temporary files.
+     *
+     * @param files pairs of temporary and target file
+     * @param sync <code>true</code> to force the files and their directories to the device
+     * @param counter the strategy counting the new files or <code>null</code>
+     */
+    private static void replace(final List<File[]> files, final boolean sync,
+            final AbstractFilePersistenceStrategy<?, ?> counter) throws IOException {
+        final Set<File> directories = new LinkedHashSet<>();
+        if (counter != null) {
+            counter.beginModification();
+        }
+        long created = 0;
+        try {
+            for (final File[] file : files) {
+                if (sync) {
+                    try (final FileChannel channel = FileChannel.open(file[0].toPath(), StandardOpenOption.WRITE)) {
+                        channel.force(true);
+                    }
+                }
+                if (counter != null) {
+                    // a link creates the complete target atomically and only if it did not exist
+                    try {
+                        Files.createLink(file[1].toPath(), file[0].toPath());
+                        ++created;
+                        directories.add(file[1].getParentFile());
+                        continue;
+                    } catch (final FileAlreadyExistsException e) {
+                        // replace it
+                    } catch (final UnsupportedOperationException | FileSystemException e) {
+                        // no hard links supported by the file system
+                        if (!file[1].exists()) {
+                            ++created;
+                        }
+                    }
+                }
+                try {
+                    Files.move(file[0].toPath(), file[1].toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException e) {
+                    Files.move(file[0].toPath(), file[1].toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                directories.add(file[1].getParentFile());
+            }
+        } finally {
+            if (counter != null) {
+                counter.endModification(created);
+            }
+        }
+        if (sync) {
+            for (final File directory : directories) {
+                try (final FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+                    channel.force(true);
+                } catch (final IOException e) {
+                    // directories cannot be forced on every platform
+                }
+            }
+        }
+    }
+
     private File getFile(final String filename) {
-        return new File(baseDirectory, filename);
+        final int levels = shardLevels;
+        if (levels == 0) {
+            return new File(baseDirectory, filename);
+        }
+        int hash = filename.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        final StringBuilder path = new StringBuilder(3 * levels + filename.length());
+        for (int i = 0; i < levels; ++i) {
+            final int shard = (hash >>> (24 - 8 * i)) & 0xff;
+            path.append(Character.forDigit(shard >> 4, 16)).append(Character.forDigit(shard & 0xf, 16)).append(
+                File.separatorChar);
+        }
+        return new File(baseDirectory, path.append(filename).toString());
     }
 
     private V readFile(final File file) {
@@ -191,22 +580,126 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
     @Override
     public V put(final K key, final V value) {
         final V oldValue = get(key);
-        final String filename = getName(key);
-        writeFile(new File(baseDirectory, filename), value);
+        write(key, value);
         return oldValue;
     }
 
+    /**
+     * Write a value without reading the previous one.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void write(final Object key, final V value) {
+        writeFile(getFile(getName(key)), value);
+    }
+
+    /**
+     * Write and delete multiple values with a single commit.
+     *
+     * @param values the values to write
+     * @param keys the keys of the values to delete
+     */
+    void writeAll(final Map<?, ? extends V> values, final Collection<?> keys) {
+        final List<File[]> files = new ArrayList<>(values.size());
+        try {
+            for (final Map.Entry<?, ? extends V> entry : values.entrySet()) {
+                final File file = getFile(getName(entry.getKey()));
+                files.add(new File[]{writeTemporaryFile(file, entry.getValue()), file});
+            }
+        } catch (final RuntimeException e) {
+            for (final File[] file : files) {
+                file[0].delete();
+            }
+            throw e;
+        }
+        commit(files);
+        for (final Object key : keys) {
+            delete(key);
+        }
+    }
+
+    /**
+     * Delete a value without reading it.
+     *
+     * @param key the key
+     */
+    void delete(final Object key) {
+        deleteFile(getFile(getName(key)));
+    }
+
+    private boolean deleteFile(final File file) {
+        if (shardLevels == 0) {
+            return file.delete();
+        }
+        boolean deleted = false;
+        beginModification();
+        try {
+            deleted = file.delete();
+        } finally {
+            endModification(deleted ? -1 : 0);
+        }
+        return deleted;
+    }
+
     @Override
     public Iterator<Map.Entry<K, V>> iterator() {
         return new XmlMapEntriesIterator();
     }
 
+    /**
+     * Iterate over the keys extracted from the file names without reading any file.
+     * 
+     * @since upcoming
+     */
+    @Override
+    public Iterator<K> keyIterator() {
+        final Iterator<File> files = new FileIterator();
+        return new Iterator<K>() {
+            private File current = null;
+
+            @Override
+            public boolean hasNext() {
+                return files.hasNext();
+            }
+
+            @Override
+            public K next() {
+                current = files.next();
+                return extractKey(current.getName());
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                deleteFile(current);
+                current = null;
+            }
+        };
+    }
+
     @Override
     public int size() {
+        if (shardLevels > 0) {
+            long entries = count.get();
+            if (entries < 0) {
+                // keep the result only if no file has been created or deleted while walking the directories
+                final long generation = modifications.get();
+                final boolean idle = pendingModifications.get() == 0;
+                entries = countFiles();
+                if (idle && modifications.get() == generation) {
+                    count.compareAndSet(-1, entries);
+                }
+            }
+            return (int)Math.min(entries, Integer.MAX_VALUE);
+        }
         return baseDirectory.list(filter).length;
     }
 
-    public boolean containsKey(final K key) {
+    @Override
+    public boolean containsKey(final Object key) {
         // faster lookup
         final File file = getFile(getName(key));
         return file.isFile();
@@ -224,9 +717,72 @@ public abstract class AbstractFilePersistenceStrategy<K, V> implements Persisten
         V value = null;
         if (file.isFile()) {
             value = readFile(file);
-            file.delete();
+            deleteFile(file);
         }
         return value;
     }
 
+    /**
+     * Forces the files written concurrently in one group. The first waiting writer commits the group, as soon as the
+     * interval since the last commit has passed.
+     */
+    private final class GroupCommit {
+        private final long interval;
+        private final Lock lock = new ReentrantLock();
+        private final Condition committed = lock.newCondition();
+        private Group current = new Group();
+        private boolean committing;
+        private long nextCommit = System.nanoTime();
+
+        GroupCommit(final long interval) {
+            this.interval = interval;
+        }
+
+        void commit(final List<File[]> files) throws IOException {
+            lock.lock();
+            try {
+                final Group own = current;
+                own.files.addAll(files);
+                while (!own.done) {
+                    if (committing) {
+                        committed.awaitUninterruptibly();
+                        continue;
+                    }
+                    committing = true;
+                    try {
+                        for (long wait = nextCommit - System.nanoTime(); wait > 0; wait = nextCommit - System
+                            .nanoTime()) {
+                            committed.awaitNanos(wait);
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    current = new Group();
+                    lock.unlock();
+                    try {
+                        replace(own.files, true, shardLevels > 0 ? AbstractFilePersistenceStrategy.this : null);
+                    } catch (final IOException e) {
+                        own.failure = e;
+                    } finally {
+                        lock.lock();
+                        own.done = true;
+                        committing = false;
+                        nextCommit = System.nanoTime() + interval;
+                        committed.signalAll();
+                    }
+                }
+                if (own.failure != null) {
+                    throw own.failure;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Group {
+        private final List<File[]> files = new ArrayList<>();
+        private boolean done;
+        private IOException failure;
+    }
 }
@@ -0,0 +1,529 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.persistence;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import com.thoughtworks.xstream.io.StreamException;
+
+
+/**
+ * A PersistenceStrategy that keeps recently used values of another strategy in memory.
+ * <p>
+ * The strategy is a decorator for any other strategy, e.g. a {@link FilePersistenceStrategy} used by an
+ * {@link XmlMap}, {@link XmlArrayList} or {@link XmlSet}. It caches a bounded number of values with a least recently
+ * used eviction. Optionally the cache is also limited by the summed up weight of its values. A cached value is returned
+ * without reading it again, the same applies to a key known to be absent. The number of stored values is determined
+ * once and maintained afterwards.
+ * </p>
+ * <p>
+ * In write-behind mode, the strategy records modified values and writes them in a batch after a delay with the given
+ * executor. Repeated modifications of the same key within the delay are written only once. A file based strategy
+ * forces the whole batch at once, see {@link AbstractFilePersistenceStrategy#setSyncInterval(long)}. Pending values
+ * are not evicted. If the number of pending values reaches the maximum number of cached entries, the modifying thread
+ * writes the batch itself. Use {@link #flush()} to write the pending values immediately and {@link #close()} to write them
+ * finally, a closed strategy rejects any further modification. A failed write in the background keeps the values
+ * pending and the failure is thrown at the next modification, unless a flush succeeds in between.
+ * </p>
+ * <p>
+ * The cached values are shared with the callers, they must not be modified without storing them again. The underlying
+ * storage must not be modified by other means. The strategy is thread-safe, if the underlying strategy is thread-safe.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class CachingPersistenceStrategy<K, V> implements PersistenceStrategy<K, V>, Flushable, Closeable {
+
+    private final PersistenceStrategy<K, V> strategy;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final ScheduledExecutorService executor;
+    private final long delay;
+    private final TimeUnit unit;
+    private final Object writeLock = new Object();
+    private final Object flushLock = new Object();
+    private final Map<Object, Entry<V>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private Map<K, Entry<V>> pending = new LinkedHashMap<>();
+    private Map<K, Entry<V>> flushing = Collections.emptyMap();
+    private long weight;
+    private long modCount;
+    private int size = -1;
+    private Future<?> scheduledFlush;
+    private RuntimeException failure;
+    private boolean closed;
+
+    /**
+     * Construct a CachingPersistenceStrategy writing through to the underlying strategy.
+     *
+     * @param strategy the underlying strategy
+     * @param maxEntries the maximum number of cached entries
+     * @since upcoming
+     */
+    public CachingPersistenceStrategy(final PersistenceStrategy<K, V> strategy, final int maxEntries) {
+        this(strategy, maxEntries, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Construct a CachingPersistenceStrategy writing through to the underlying strategy with a limited weight.
+     *
+     * @param strategy the underlying strategy
+     * @param maxEntries the maximum number of cached entries
+     * @param maxWeight the maximum summed up weight of the cached values
+     * @param weigher the function calculating the weight of a value, may be <code>null</code> for an unlimited weight
+     * @since upcoming
+     */
+    public CachingPersistenceStrategy(
+            final PersistenceStrategy<K, V> strategy, final int maxEntries, final long maxWeight,
+            final ToLongFunction<? super V> weigher) {
+        this(strategy, maxEntries, maxWeight, weigher, null, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construct a CachingPersistenceStrategy in write-behind mode.
+     *
+     * @param strategy the underlying strategy
+     * @param maxEntries the maximum number of cached entries and pending modifications
+     * @param maxWeight the maximum summed up weight of the cached values
+     * @param weigher the function calculating the weight of a value, may be <code>null</code> for an unlimited weight
+     * @param executor the executor writing the modifications or <code>null</code> to write through
+     * @param delay the delay before pending modifications are written
+     * @param unit the unit of the delay
+     * @since upcoming
+     */
+    public CachingPersistenceStrategy(
+            final PersistenceStrategy<K, V> strategy, final int maxEntries, final long maxWeight,
+            final ToLongFunction<? super V> weigher, final ScheduledExecutorService executor, final long delay,
+            final TimeUnit unit) {
+        if (maxEntries < 0 || maxWeight < 0 || delay < 0) {
+            throw new IllegalArgumentException("Limits and delay must not be negative");
+        }
+        this.strategy = strategy;
+        this.maxEntries = maxEntries;
+        this.maxWeight = weigher == null ? Long.MAX_VALUE : maxWeight;
+        this.weigher = weigher;
+        this.executor = executor;
+        this.delay = delay;
+        this.unit = unit;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        final Iterator<K> keys = keyIterator();
+        return new Iterator<Map.Entry<K, V>>() {
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                return new CachedMapEntry(keys.next());
+            }
+
+            @Override
+            public void remove() {
+                keys.remove();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        flush();
+        final Iterator<K> iterator = strategy.keyIterator();
+        return new Iterator<K>() {
+            private K current;
+            private boolean valid;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public K next() {
+                current = iterator.next();
+                valid = true;
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (!valid) {
+                    throw new IllegalStateException();
+                }
+                valid = false;
+                CachingPersistenceStrategy.this.remove(current);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        synchronized (writeLock) {
+            return initSize();
+        }
+    }
+
+    @Override
+    public V get(final Object key) {
+        final long count;
+        synchronized (this) {
+            final Entry<V> entry = lookup(key);
+            if (entry != null) {
+                return entry.value;
+            }
+            count = modCount;
+        }
+        final V value = strategy.get(key);
+        final Entry<V> entry = newEntry(value, value != null || contains(key));
+        synchronized (this) {
+            if (count == modCount) {
+                cache(key, entry);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Check the pending modifications and the cached entries first, before the underlying strategy is asked.
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        synchronized (this) {
+            final Entry<V> entry = lookup(key);
+            if (entry != null) {
+                return entry.present;
+            }
+        }
+        return strategy.containsKey(key);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        synchronized (writeLock) {
+            checkOpen();
+            checkFailure();
+            initSize();
+            final Entry<V> old = current(key);
+            if (executor == null) {
+                store(key, value);
+            }
+            update(key, newEntry(value, true), !old.present);
+            return old.value;
+        }
+    }
+
+    @Override
+    public V remove(final Object key) {
+        synchronized (writeLock) {
+            checkOpen();
+            checkFailure();
+            initSize();
+            final Entry<V> old = current(key);
+            if (old.present) {
+                if (executor == null) {
+                    erase(key);
+                }
+                @SuppressWarnings("unchecked")
+                final K k = (K)key;
+                update(k, newEntry(null, false), false);
+            }
+            return old.value;
+        }
+    }
+
+    /**
+     * Write all pending modifications.
+     *
+     * @throws StreamException if a modification cannot be written
+     * @since upcoming
+     */
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            final List<Map.Entry<K, Entry<V>>> batch;
+            synchronized (this) {
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                failure = null;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                flushing = pending;
+                pending = new LinkedHashMap<>();
+                batch = new ArrayList<>(flushing.entrySet());
+            }
+            int i = 0;
+            try {
+                if (strategy instanceof AbstractFilePersistenceStrategy) {
+                    writeAll(batch);
+                    i = batch.size();
+                }
+                for (; i < batch.size(); ++i) {
+                    final Map.Entry<K, Entry<V>> entry = batch.get(i);
+                    if (entry.getValue().present) {
+                        strategy.put(entry.getKey(), entry.getValue().value);
+                    } else {
+                        strategy.remove(entry.getKey());
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    if (i < batch.size()) {
+                        final Map<K, Entry<V>> remaining = new LinkedHashMap<>();
+                        for (final Map.Entry<K, Entry<V>> entry : batch.subList(i, batch.size())) {
+                            remaining.put(entry.getKey(), entry.getValue());
+                        }
+                        remaining.putAll(pending);
+                        pending = remaining;
+                    }
+                    flushing = Collections.emptyMap();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write all pending modifications and stop the background writes.
+     * <p>
+     * A scheduled background write is cancelled and any later modification is rejected with an
+     * {@link IllegalStateException}.
+     * </p>
+     *
+     * @throws StreamException if a modification cannot be written
+     * @since upcoming
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            synchronized (this) {
+                closed = true;
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+        }
+        flush();
+    }
+
+    private int initSize() {
+        if (size < 0) {
+            size = strategy.size();
+        }
+        return size;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Strategy is closed");
+        }
+    }
+
+    private void checkFailure() {
+        final RuntimeException e;
+        synchronized (this) {
+            e = failure;
+            failure = null;
+        }
+        if (e != null) {
+            throw new StreamException("Writing pending modifications failed", e);
+        }
+    }
+
+    private Entry<V> lookup(final Object key) {
+        Entry<V> entry = pending.get(key);
+        if (entry == null) {
+            entry = flushing.get(key);
+        }
+        if (entry == null) {
+            entry = cache.get(key);
+        }
+        return entry;
+    }
+
+    private Entry<V> current(final Object key) {
+        synchronized (this) {
+            final Entry<V> entry = lookup(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        final V value = strategy.get(key);
+        return newEntry(value, value != null || contains(key));
+    }
+
+    private void update(final K key, final Entry<V> entry, final boolean added) {
+        final boolean full;
+        synchronized (this) {
+            if (added) {
+                ++size;
+            } else if (!entry.present) {
+                --size;
+            }
+            ++modCount;
+            cache(key, entry);
+            if (executor == null) {
+                return;
+            }
+            pending.put(key, entry);
+            full = pending.size() >= maxEntries;
+            if (!full && scheduledFlush == null) {
+                scheduledFlush = executor.schedule(this::flushPending, delay, unit);
+            }
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    private void flushPending() {
+        try {
+            flush();
+        } catch (final RuntimeException e) {
+            synchronized (this) {
+                failure = e;
+            }
+        }
+    }
+
+    private void cache(final Object key, final Entry<V> entry) {
+        if (maxEntries == 0) {
+            return;
+        }
+        final Entry<V> old = cache.put(key, entry);
+        if (old != null) {
+            weight -= old.weight;
+        }
+        weight += entry.weight;
+        for (final Iterator<Entry<V>> iter = cache.values().iterator(); iter.hasNext()
+            && (cache.size() > maxEntries || weight > maxWeight);) {
+            weight -= iter.next().weight;
+            iter.remove();
+        }
+    }
+
+    private Entry<V> newEntry(final V value, final boolean present) {
+        return new Entry<>(value, present, weigher == null || value == null ? 0 : weigher.applyAsLong(value));
+    }
+
+    private boolean contains(final Object key) {
+        // a null value is distinguished from a missing one only by strategies with a direct lookup
+        if (strategy instanceof AbstractFilePersistenceStrategy || strategy instanceof LogPersistenceStrategy) {
+            return strategy.containsKey(key);
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeAll(final List<Map.Entry<K, Entry<V>>> batch) {
+        final Map<K, V> values = new LinkedHashMap<>();
+        final List<K> keys = new ArrayList<>();
+        for (final Map.Entry<K, Entry<V>> entry : batch) {
+            if (entry.getValue().present) {
+                values.put(entry.getKey(), entry.getValue().value);
+            } else {
+                keys.add(entry.getKey());
+            }
+        }
+        ((AbstractFilePersistenceStrategy<K, V>)strategy).writeAll(values, keys);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void store(final K key, final V value) {
+        if (strategy instanceof AbstractFilePersistenceStrategy) {
+            ((AbstractFilePersistenceStrategy<K, V>)strategy).write(key, value);
+        } else {
+            strategy.put(key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void erase(final Object key) {
+        if (strategy instanceof AbstractFilePersistenceStrategy) {
+            ((AbstractFilePersistenceStrategy<K, V>)strategy).delete(key);
+        } else {
+            strategy.remove(key);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final boolean present;
+        private final long weight;
+
+        Entry(final V value, final boolean present, final long weight) {
+            this.value = value;
+            this.present = present;
+            this.weight = weight;
+        }
+    }
+
+    private class CachedMapEntry implements Map.Entry<K, V> {
+        private final K key;
+
+        CachedMapEntry(final K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return get(key);
+        }
+
+        @Override
+        public V setValue(final V value) {
+            return put(key, value);
+        }
+
+        @Override
+        public int hashCode() {
+            final V value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry<?, ?>)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e2 = (Map.Entry<?, ?>)obj;
+            final Object key2 = e2.getKey();
+            if (key == null ? key2 == null : key.equals(key2)) {
+                final V value = getValue();
+                final Object value2 = e2.getValue();
+                return value == null ? value2 == null : value.equals(value2);
+            }
+            return false;
+        }
+    }
+}
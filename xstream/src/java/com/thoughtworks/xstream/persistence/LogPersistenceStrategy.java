@@ -0,0 +1,735 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+
+
+/**
+ * PersistenceStrategy appending all entries to a log of segment files in a single directory.
+ * <p>
+ * Every put or remove appends a record with the serialized key and value to the current segment file. The driver of
+ * the XStream instance defines the format of the serialized data, e.g. a BinaryStreamDriver results in a compact
+ * binary log. The strategy keeps an index with the position of the current record of every key in memory and reads a
+ * value with a positional read of its segment. The index is rebuilt from the segments when the strategy is created,
+ * a record that was not completely written at the end of the log is discarded. Therefore the keys must be restored by
+ * XStream as equal objects.
+ * </p>
+ * <p>
+ * A new segment is started when the current one exceeds the maximum segment size. As soon as at least half of a
+ * completed segment is occupied by outdated records, the executor copies its remaining records to the current segment
+ * and deletes it. The data is written into the file system without forcing it to the device, call {@link #flush()} to
+ * do so. The strategy is thread-safe, the directory must not be used by another instance at the same time.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class LogPersistenceStrategy<K, V> implements PersistenceStrategy<K, V>, Flushable, Closeable {
+
+    private static final int HEADER_SIZE = 12;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int COMPACTION_BATCH_SIZE = 256 * 1024;
+
+    private final File baseDirectory;
+    private final XStream xstream;
+    private final long maxSegmentSize;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Object, Location> index = new HashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<Segment> compactable = new ArrayList<>();
+    private Segment active;
+    private boolean closed;
+
+    /**
+     * Create a new LogPersistenceStrategy. Use a standard XStream instance with a {@link DomDriver}.
+     *
+     * @param baseDirectory the directory for the segment files
+     * @since upcoming
+     */
+    public LogPersistenceStrategy(final File baseDirectory) {
+        this(baseDirectory, new XStream(new DomDriver()));
+    }
+
+    /**
+     * Create a new LogPersistenceStrategy with a provided XStream instance. The segments are limited to 16 MB and
+     * compacted by an own daemon thread that is stopped by {@link #close()}.
+     *
+     * @param baseDirectory the directory for the segment files
+     * @param xstream the XStream instance to use for (de)serialization
+     * @since upcoming
+     */
+    public LogPersistenceStrategy(final File baseDirectory, final XStream xstream) {
+        this(baseDirectory, xstream, 16 * 1024 * 1024, Executors.newSingleThreadExecutor(
+            LogPersistenceStrategy::newCompactionThread), true);
+    }
+
+    /**
+     * Create a new LogPersistenceStrategy with a provided XStream instance.
+     *
+     * @param baseDirectory the directory for the segment files
+     * @param xstream the XStream instance to use for (de)serialization
+     * @param maxSegmentSize the size in bytes, that starts a new segment when exceeded
+     * @param executor the executor compacting the segments or <code>null</code> to compact them only by calling
+     *            {@link #compact()}; compaction performs blocking I/O and should not run in a shared pool for CPU
+     *            bound tasks
+     * @throws StreamException if the existing segments cannot be read
+     * @since upcoming
+     */
+    public LogPersistenceStrategy(
+            final File baseDirectory, final XStream xstream, final long maxSegmentSize, final Executor executor) {
+        this(baseDirectory, xstream, maxSegmentSize, executor, false);
+    }
+
+    private LogPersistenceStrategy(
+            final File baseDirectory, final XStream xstream, final long maxSegmentSize, final Executor executor,
+            final boolean ownExecutor) {
+        this.ownExecutor = ownExecutor ? (ExecutorService)executor : null;
+        if (maxSegmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        this.baseDirectory = baseDirectory;
+        this.xstream = xstream;
+        this.maxSegmentSize = maxSegmentSize;
+        this.executor = executor;
+        try {
+            baseDirectory.mkdirs();
+            recover();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        final Iterator<K> keys = keyIterator();
+        return new Iterator<Map.Entry<K, V>>() {
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                return new LogMapEntry(keys.next());
+            }
+
+            @Override
+            public void remove() {
+                keys.remove();
+            }
+        };
+    }
+
+    /**
+     * Iterate over a snapshot of the keys in the in-memory index without touching the segments.
+     */
+    @Override
+    public Iterator<K> keyIterator() {
+        final List<Object> keys;
+        lock.readLock().lock();
+        try {
+            keys = new ArrayList<>(index.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+        final Iterator<Object> iterator = keys.iterator();
+        return new Iterator<K>() {
+            private Object current;
+            private boolean valid;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public K next() {
+                current = iterator.next();
+                valid = true;
+                @SuppressWarnings("unchecked")
+                final K key = (K)current;
+                return key;
+            }
+
+            @Override
+            public void remove() {
+                if (!valid) {
+                    throw new IllegalStateException();
+                }
+                valid = false;
+                LogPersistenceStrategy.this.remove(current);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check the in-memory index for a key without reading its value.
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        lock.readLock().lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public V get(final Object key) {
+        final byte[] value;
+        lock.readLock().lock();
+        try {
+            final Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            value = read(location);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return deserialize(value);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        return write(key, serialize(value));
+    }
+
+    @Override
+    public V remove(final Object key) {
+        return write(key, null);
+    }
+
+    /**
+     * Force all written records to the storage device, including the ones in segments completed since the last flush.
+     *
+     * @throws StreamException if the data cannot be forced
+     * @since upcoming
+     */
+    @Override
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            force();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compact all completed segments containing outdated records.
+     *
+     * @throws StreamException if a segment cannot be compacted
+     * @since upcoming
+     */
+    public void compact() {
+        final List<Segment> candidates;
+        lock.readLock().lock();
+        try {
+            candidates = new ArrayList<>(segments);
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (final Segment segment : candidates) {
+            if (segment.garbage > 0) {
+                compact(segment);
+            }
+        }
+    }
+
+    /**
+     * Close the segment files and stop an own compaction thread.
+     *
+     * @throws StreamException if a segment cannot be closed
+     * @since upcoming
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+            for (final Segment segment : segments) {
+                segment.channel.close();
+            }
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private V write(final Object key, final byte[] value) {
+        final byte[] keyData = serialize(key);
+        final byte[] oldValue;
+        final List<Segment> candidates;
+        lock.writeLock().lock();
+        try {
+            final Location old = index.get(key);
+            if (old == null && value == null) {
+                return null;
+            }
+            oldValue = old == null ? null : read(old);
+            final Location location = append(keyData, value);
+            if (value == null) {
+                index.remove(key);
+                location.segment.garbage += location.length();
+            } else {
+                index.put(key, location);
+            }
+            if (old != null) {
+                old.segment.garbage += old.length();
+                checkCompactable(old.segment);
+            }
+            candidates = drainCompactable();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        schedule(candidates);
+        return oldValue == null ? null : deserialize(oldValue);
+    }
+
+    private void checkCompactable(final Segment segment) {
+        if (executor != null && segment != active && !segment.scheduled && 2 * segment.garbage >= segment.size) {
+            segment.scheduled = true;
+            compactable.add(segment);
+        }
+    }
+
+    private List<Segment> drainCompactable() {
+        final List<Segment> candidates = new ArrayList<>(compactable);
+        compactable.clear();
+        return candidates;
+    }
+
+    private void schedule(final List<Segment> candidates) {
+        for (final Segment segment : candidates) {
+            try {
+                executor.execute(() -> compact(segment));
+            } catch (final RejectedExecutionException e) {
+                // closed meanwhile
+            }
+        }
+    }
+
+    private void force() throws IOException {
+        for (final Segment segment : segments) {
+            if (segment.dirty) {
+                segment.channel.force(false);
+                segment.dirty = false;
+            }
+        }
+    }
+
+    private Location append(final byte[] key, final byte[] value) throws IOException {
+        if (active.size >= maxSegmentSize) {
+            final Segment previous = active;
+            active = openSegment(previous.id + 1);
+            segments.add(active);
+            checkCompactable(previous);
+        }
+        final int valueLength = value == null ? -1 : value.length;
+        final CRC32 crc = new CRC32();
+        crc.update(key);
+        if (value != null) {
+            crc.update(value);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + key.length + Math.max(valueLength, 0));
+        buffer.putInt(key.length).putInt(valueLength).putInt((int)crc.getValue()).put(key);
+        if (value != null) {
+            buffer.put(value);
+        }
+        buffer.flip();
+        final Location location = new Location(active, active.size, key.length, valueLength);
+        long position = active.size;
+        while (buffer.hasRemaining()) {
+            position += active.channel.write(buffer, position);
+        }
+        active.size = position;
+        active.dirty = true;
+        return location;
+    }
+
+    private static byte[] read(final Location location) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(location.valueLength);
+        long position = location.offset + HEADER_SIZE + location.keyLength;
+        while (buffer.hasRemaining()) {
+            final int read = location.segment.channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of segment " + location.segment.file);
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    private void compact(final Segment segment) {
+        final boolean oldest;
+        lock.writeLock().lock();
+        try {
+            if (segment.compacting) {
+                return;
+            }
+            if (closed || segment == active || !segments.contains(segment)) {
+                segment.scheduled = false;
+                return;
+            }
+            segment.compacting = true;
+            oldest = segments.get(0) == segment;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Segment> candidates = null;
+        try {
+            // a completed segment is no longer modified, read and deserialize its keys without lock
+            final List<Object> keys = new ArrayList<>();
+            final List<Record> records = new ArrayList<>();
+            final List<Long> offsets = new ArrayList<>();
+            long batchSize = 0;
+            try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(
+                segment.file)))) {
+                long offset = 0;
+                while (offset < segment.size) {
+                    final Record record = Record.read(in, segment.size - offset);
+                    keys.add(xstream.fromXML(new ByteArrayInputStream(record.key)));
+                    records.add(record);
+                    offsets.add(Long.valueOf(offset));
+                    offset += record.length();
+                    batchSize += record.length();
+                    if (batchSize >= COMPACTION_BATCH_SIZE) {
+                        if (!move(segment, oldest, keys, records, offsets)) {
+                            return;
+                        }
+                        batchSize = 0;
+                    }
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                if (!move(segment, oldest, keys, records, offsets)) {
+                    return;
+                }
+                force();
+                segments.remove(segment);
+                segment.channel.close();
+                segment.file.delete();
+                candidates = drainCompactable();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                segment.compacting = false;
+                segment.scheduled = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (candidates != null) {
+            schedule(candidates);
+        }
+    }
+
+    /**
+     * Append the records of the batch, that are still current, to the active segment and update their location.
+     *
+     * @return <code>false</code> if the strategy has been closed meanwhile
+     */
+    private boolean move(final Segment segment, final boolean oldest, final List<Object> keys,
+            final List<Record> records, final List<Long> offsets) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            for (int i = 0; i < keys.size(); ++i) {
+                final Object key = keys.get(i);
+                final Record record = records.get(i);
+                final Location current = index.get(key);
+                if (record.value != null) {
+                    if (current != null && current.segment == segment && current.offset == offsets.get(i)
+                        .longValue()) {
+                        index.put(key, append(record.key, record.value));
+                    }
+                } else if (current == null && !oldest) {
+                    append(record.key, null).segment.garbage += record.length();
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+            keys.clear();
+            records.clear();
+            offsets.clear();
+        }
+    }
+
+    private void recover() throws IOException {
+        final File[] files = baseDirectory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        final long[] ids = new long[files == null ? 0 : files.length];
+        for (int i = 0; i < ids.length; ++i) {
+            final String name = files[i].getName();
+            ids[i] = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        }
+        Arrays.sort(ids);
+        for (int i = 0; i < ids.length; ++i) {
+            final Segment segment = openSegment(ids[i]);
+            segments.add(segment);
+            recover(segment, i == ids.length - 1);
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(1));
+        }
+        active = segments.get(segments.size() - 1);
+    }
+
+    private void recover(final Segment segment, final boolean last) throws IOException {
+        final long size = segment.channel.size();
+        long offset = 0;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(
+            segment.file)))) {
+            while (offset < size) {
+                final Record record;
+                try {
+                    record = Record.read(in, size - offset);
+                } catch (final IOException e) {
+                    if (!last) {
+                        throw e;
+                    }
+                    // incompletely written record at the end of the log
+                    segment.channel.truncate(offset);
+                    break;
+                }
+                final Object key = xstream.fromXML(new ByteArrayInputStream(record.key));
+                final Location location = new Location(segment, offset, record.key.length, record.value == null
+                    ? -1
+                    : record.value.length);
+                final Location old = record.value == null ? index.remove(key) : index.put(key, location);
+                if (old != null) {
+                    old.segment.garbage += old.length();
+                }
+                if (record.value == null) {
+                    segment.garbage += location.length();
+                }
+                offset += record.length();
+            }
+        }
+        segment.size = offset;
+    }
+
+    private static Thread newCompactionThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "XStream log compaction");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private Segment openSegment(final long id) throws IOException {
+        final File file = new File(baseDirectory, String.format("%s%010d%s", PREFIX, Long.valueOf(id), SUFFIX));
+        return new Segment(id, file, FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private byte[] serialize(final Object object) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xstream.toXML(object, out);
+        return out.toByteArray();
+    }
+
+    private V deserialize(final byte[] data) {
+        @SuppressWarnings("unchecked")
+        final V value = (V)xstream.fromXML(new ByteArrayInputStream(data));
+        return value;
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private final FileChannel channel;
+        private long size;
+        private long garbage;
+        private boolean scheduled;
+        private boolean compacting;
+        private boolean dirty;
+
+        Segment(final long id, final File file, final FileChannel channel) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+
+    private static final class Location {
+        private final Segment segment;
+        private final long offset;
+        private final int keyLength;
+        private final int valueLength;
+
+        Location(final Segment segment, final long offset, final int keyLength, final int valueLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        long length() {
+            return HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+        }
+    }
+
+    private static final class Record {
+        private final byte[] key;
+        private final byte[] value;
+
+        Record(final byte[] key, final byte[] value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        long length() {
+            return HEADER_SIZE + key.length + (value == null ? 0 : value.length);
+        }
+
+        static Record read(final DataInputStream in, final long available) throws IOException {
+            if (available < HEADER_SIZE) {
+                throw new EOFException("Incomplete record header");
+            }
+            final int keyLength = in.readInt();
+            final int valueLength = in.readInt();
+            final int checksum = in.readInt();
+            if (keyLength < 0 || valueLength < -1 || HEADER_SIZE + (long)keyLength + Math.max(valueLength, 0)
+                > available) {
+                throw new IOException("Invalid record header");
+            }
+            final byte[] key = new byte[keyLength];
+            in.readFully(key);
+            final CRC32 crc = new CRC32();
+            crc.update(key);
+            byte[] value = null;
+            if (valueLength >= 0) {
+                value = new byte[valueLength];
+                in.readFully(value);
+                crc.update(value);
+            }
+            if ((int)crc.getValue() != checksum) {
+                throw new IOException("Invalid record checksum");
+            }
+            return new Record(key, value);
+        }
+    }
+
+    private class LogMapEntry implements Map.Entry<K, V> {
+        private final K key;
+        private V value;
+        private boolean loaded;
+
+        LogMapEntry(final K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            if (!loaded) {
+                value = get(key);
+                loaded = true;
+            }
+            return value;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            final V old = put(key, value);
+            this.value = value;
+            loaded = true;
+            return old;
+        }
+
+        @Override
+        public int hashCode() {
+            final V value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry<?, ?>)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e2 = (Map.Entry<?, ?>)obj;
+            final Object key2 = e2.getKey();
+            if (key == null ? key2 == null : key.equals(key2)) {
+                final V value = getValue();
+                final Object value2 = e2.getValue();
+                return value == null ? value2 == null : value.equals(value2);
+            }
+            return false;
+        }
+    }
+}
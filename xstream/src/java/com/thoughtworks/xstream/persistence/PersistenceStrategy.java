@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008, 2014 XStream Committers.
+ * Copyright (C) 2008, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -24,6 +24,58 @@ public interface PersistenceStrategy<K,V> {
 
     Iterator<Map.Entry<K, V>> iterator();
 
+    /**
+     * Iterate over the keys only.
+     * <p>
+     * The default implementation returns the keys of the entries of {@link #iterator()}. Implementations should
+     * override this method if they can provide the keys without creating the entries.
+     * </p>
+     * 
+     * @return an iterator over the keys, supporting {@link Iterator#remove()}
+     * @since upcoming
+     */
+    default Iterator<K> keyIterator() {
+        final Iterator<Map.Entry<K, V>> iterator = iterator();
+        return new Iterator<K>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return iterator.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
+    /**
+     * Check whether a value is stored for a key.
+     * <p>
+     * The default implementation iterates over the keys of {@link #keyIterator()}. Implementations should override this
+     * method if they can look up the key directly.
+     * </p>
+     * 
+     * @param key the key to look for
+     * @return <code>true</code> if a value is stored for the key
+     * @since upcoming
+     */
+    default boolean containsKey(final Object key) {
+        for (final Iterator<K> iter = keyIterator(); iter.hasNext();) {
+            final K k = iter.next();
+            if (key == null ? k == null : key.equals(k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     int size();
 
     V get(Object key);
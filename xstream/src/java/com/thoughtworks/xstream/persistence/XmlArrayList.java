@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2007, 2008, 2014, 2015, 2020 XStream Committers.
+ * Copyright (C) 2007, 2008, 2014, 2015, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,29 +12,114 @@
 package com.thoughtworks.xstream.persistence;
 
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
 
 
 /**
  * A persistent list implementation backed on a XmlMap.
+ * <p>
+ * By default the element at a position is stored with the position as key. Inserting or removing an element in the
+ * middle of such a list has therefore to read and rewrite every following element. An indexed list stores each element
+ * with a stable id instead and keeps the order of the ids in an index. The index is split into chunks of up to 256 ids
+ * stored with negative keys and a directory of the chunks stored with the key -1. Adding or removing an element writes
+ * then only the element itself and the affected chunk of the index. The directory is written only if a chunk is added
+ * or dropped.
+ * </p>
  * 
  * @author Guilherme Silveira
  */
 public class XmlArrayList<V> extends AbstractList<V> {
 
+    private static final Integer DIRECTORY_KEY = Integer.valueOf(-1);
+    private static final int CHUNK_SIZE = 256;
+
     private final XmlMap<Integer, V> map;
+    private final PersistenceStrategy<Integer, Object> indexStrategy;
+    private final List<Chunk> chunks;
+    private final List<Integer> droppedChunks;
+    private boolean directoryModified;
+    private int size;
+    private int nextId;
+    private int nextChunkKey = -2;
 
     public XmlArrayList(final PersistenceStrategy<Integer, V> persistenceStrategy) {
+        this(persistenceStrategy, false);
+    }
+
+    /**
+     * Constructs a persistent list.
+     * <p>
+     * A list that has been stored without index can be opened as indexed list, the index is then created with the next
+     * modification. An indexed list cannot be opened without index.
+     * </p>
+     * 
+     * @param persistenceStrategy the strategy to store the elements
+     * @param indexed <code>true</code> to store the elements with stable ids and a separate index
+     * @since upcoming
+     */
+    @SuppressWarnings("unchecked")
+    public XmlArrayList(final PersistenceStrategy<Integer, V> persistenceStrategy, final boolean indexed) {
         this.map = new XmlMap<>(persistenceStrategy);
+        if (!indexed) {
+            indexStrategy = null;
+            chunks = null;
+            droppedChunks = null;
+            return;
+        }
+        indexStrategy = (PersistenceStrategy<Integer, Object>)persistenceStrategy;
+        chunks = new ArrayList<>();
+        droppedChunks = new ArrayList<>();
+        final int[] directory = (int[])indexStrategy.get(DIRECTORY_KEY);
+        if (directory != null) {
+            final BitSet known = new BitSet();
+            for (final int key : directory) {
+                nextChunkKey = Math.min(nextChunkKey, key - 1);
+                final Chunk chunk = new Chunk(key);
+                chunk.stored = true;
+                final int[] ids = (int[])indexStrategy.get(Integer.valueOf(key));
+                if (ids != null) {
+                    for (final int id : ids) {
+                        // an interrupted split may leave an id in two chunks
+                        if (!known.get(id)) {
+                            known.set(id);
+                            chunk.ids[chunk.size++] = id;
+                            nextId = Math.max(nextId, id + 1);
+                        }
+                    }
+                }
+                if (chunk.size > 0) {
+                    chunks.add(chunk);
+                    size += chunk.size;
+                } else {
+                    droppedChunks.add(Integer.valueOf(key));
+                    directoryModified = true;
+                }
+            }
+        } else {
+            // positional keys are valid ids
+            final int count = persistenceStrategy.size();
+            for (int i = 0; i < count; i++) {
+                insert(i, i);
+            }
+            nextId = count;
+        }
     }
 
     @Override
     public int size() {
-        return map.size();
+        return indexStrategy != null ? size : map.size();
     }
 
     @Override
     public V set(final int index, final V element) {
         rangeCheck(index);
+        if (indexStrategy != null) {
+            return map.put(Integer.valueOf(idAt(index)), element);
+        }
         final V value = get(index);
         map.put(Integer.valueOf(index), element);
         return value;
@@ -46,6 +131,14 @@ public class XmlArrayList<V> extends AbstractList<V> {
         if (index >= size + 1 || index < 0) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
+        if (indexStrategy != null) {
+            final int id = nextId++;
+            map.put(Integer.valueOf(id), element);
+            insert(index, id);
+            modCount++;
+            writeIndex();
+            return;
+        }
         final int to = index != size ? index - 1 : index;
         for (int i = size; i > to; i--) {
             map.put(Integer.valueOf(i + 1), map.get(Integer.valueOf(i)));
@@ -53,6 +146,36 @@ public class XmlArrayList<V> extends AbstractList<V> {
         map.put(Integer.valueOf(index), element);
     }
 
+    @Override
+    public boolean addAll(final Collection<? extends V> c) {
+        return addAll(size(), c);
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends V> c) {
+        if (indexStrategy == null) {
+            return super.addAll(index, c);
+        }
+        if (index > size || index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int position = index;
+        try {
+            for (final V element : c) {
+                final int id = nextId++;
+                map.put(Integer.valueOf(id), element);
+                insert(position++, id);
+            }
+        } finally {
+            if (position != index) {
+                modCount++;
+                // write the index only once
+                writeIndex();
+            }
+        }
+        return position != index;
+    }
+
     private void rangeCheck(final int index) {
         final int size = size();
         if (index >= size || index < 0) {
@@ -63,13 +186,20 @@ public class XmlArrayList<V> extends AbstractList<V> {
     @Override
     public V get(final int index) {
         rangeCheck(index);
-        return map.get(Integer.valueOf(index));
+        return map.get(Integer.valueOf(indexStrategy != null ? idAt(index) : index));
     }
 
     @Override
     public V remove(final int index) {
         final int size = size();
         rangeCheck(index);
+        if (indexStrategy != null) {
+            final int id = removeAt(index);
+            modCount++;
+            // an element without index entry is just garbage
+            writeIndex();
+            return map.remove(Integer.valueOf(id));
+        }
         final V value = map.get(Integer.valueOf(index));
         for (int i = index; i < size - 1; i++) {
             map.put(Integer.valueOf(i), map.get(Integer.valueOf(i + 1)));
@@ -78,4 +208,170 @@ public class XmlArrayList<V> extends AbstractList<V> {
         return value;
     }
 
+    @Override
+    public void clear() {
+        if (indexStrategy == null) {
+            super.clear();
+            return;
+        }
+        final List<Chunk> removed = new ArrayList<>(chunks);
+        for (final Chunk chunk : removed) {
+            if (chunk.stored) {
+                droppedChunks.add(Integer.valueOf(chunk.key));
+            }
+        }
+        chunks.clear();
+        size = 0;
+        directoryModified = true;
+        modCount++;
+        writeIndex();
+        for (final Chunk chunk : removed) {
+            for (int i = 0; i < chunk.size; i++) {
+                delete(Integer.valueOf(chunk.ids[i]));
+            }
+        }
+    }
+
+    private int idAt(final int index) {
+        int offset = index;
+        for (final Chunk chunk : chunks) {
+            if (offset < chunk.size) {
+                return chunk.ids[offset];
+            }
+            offset -= chunk.size;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private void insert(final int index, final int id) {
+        int offset = index;
+        int i = 0;
+        Chunk chunk = null;
+        for (; i < chunks.size(); i++) {
+            chunk = chunks.get(i);
+            if (offset <= chunk.size) {
+                break;
+            }
+            offset -= chunk.size;
+        }
+        if (chunk == null) {
+            chunk = newChunk(0);
+        } else if (chunk.size == CHUNK_SIZE) {
+            if (offset < CHUNK_SIZE) {
+                final Chunk upper = newChunk(i + 1);
+                final int half = CHUNK_SIZE / 2;
+                System.arraycopy(chunk.ids, half, upper.ids, 0, CHUNK_SIZE - half);
+                upper.size = CHUNK_SIZE - half;
+                chunk.size = half;
+                chunk.modified = true;
+                if (offset > half) {
+                    chunk = upper;
+                    offset -= half;
+                }
+            } else if (i + 1 < chunks.size() && chunks.get(i + 1).size < CHUNK_SIZE) {
+                chunk = chunks.get(i + 1);
+                offset = 0;
+            } else {
+                chunk = newChunk(i + 1);
+                offset = 0;
+            }
+        }
+        System.arraycopy(chunk.ids, offset, chunk.ids, offset + 1, chunk.size - offset);
+        chunk.ids[offset] = id;
+        chunk.size++;
+        chunk.modified = true;
+        size++;
+    }
+
+    private int removeAt(final int index) {
+        int offset = index;
+        for (int i = 0; i < chunks.size(); i++) {
+            final Chunk chunk = chunks.get(i);
+            if (offset < chunk.size) {
+                final int id = chunk.ids[offset];
+                System.arraycopy(chunk.ids, offset + 1, chunk.ids, offset, chunk.size - offset - 1);
+                chunk.size--;
+                chunk.modified = true;
+                if (chunk.size == 0) {
+                    chunks.remove(i);
+                    directoryModified = true;
+                    if (chunk.stored) {
+                        droppedChunks.add(Integer.valueOf(chunk.key));
+                    }
+                }
+                size--;
+                return id;
+            }
+            offset -= chunk.size;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private Chunk newChunk(final int position) {
+        final Chunk chunk = new Chunk(nextChunkKey--);
+        chunks.add(position, chunk);
+        directoryModified = true;
+        return chunk;
+    }
+
+    private void writeIndex() {
+        // an interruption leaves at most ids in two chunks or unreferenced entries
+        for (final Chunk chunk : chunks) {
+            if (!chunk.stored) {
+                writeChunk(chunk);
+            }
+        }
+        if (directoryModified) {
+            final int[] directory = new int[chunks.size()];
+            for (int i = 0; i < directory.length; i++) {
+                directory[i] = chunks.get(i).key;
+            }
+            write(DIRECTORY_KEY, directory);
+            directoryModified = false;
+        }
+        for (final Chunk chunk : chunks) {
+            if (chunk.modified) {
+                writeChunk(chunk);
+            }
+        }
+        for (final Integer key : droppedChunks) {
+            delete(key);
+        }
+        droppedChunks.clear();
+    }
+
+    private void writeChunk(final Chunk chunk) {
+        write(Integer.valueOf(chunk.key), Arrays.copyOf(chunk.ids, chunk.size));
+        chunk.stored = true;
+        chunk.modified = false;
+    }
+
+    private void write(final Integer key, final Object value) {
+        if (indexStrategy instanceof AbstractFilePersistenceStrategy) {
+            // no need to read the old value
+            ((AbstractFilePersistenceStrategy<Integer, Object>)indexStrategy).write(key, value);
+        } else {
+            indexStrategy.put(key, value);
+        }
+    }
+
+    private void delete(final Integer key) {
+        if (indexStrategy instanceof AbstractFilePersistenceStrategy) {
+            ((AbstractFilePersistenceStrategy<Integer, Object>)indexStrategy).delete(key);
+        } else {
+            indexStrategy.remove(key);
+        }
+    }
+
+    private static final class Chunk {
+        private final int key;
+        private final int[] ids = new int[CHUNK_SIZE];
+        private int size;
+        private boolean stored;
+        private boolean modified;
+
+        Chunk(final int key) {
+            this.key = key;
+        }
+    }
 }
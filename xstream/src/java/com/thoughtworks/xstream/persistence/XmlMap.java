@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2007, 2008, 2014 XStream Committers.
+ * Copyright (C) 2007, 2008, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -23,6 +23,14 @@ import java.util.Set;
  * <p>
  * If you need an application-wide synchronized version of this map, try the respective Collections methods.
  * </p>
+ * <p>
+ * Every access reads or writes the persistent storage. Wrap the strategy into a {@link CachingPersistenceStrategy} to
+ * keep frequently used values in memory.
+ * </p>
+ * <p>
+ * The entries of the {@link #entrySet()} read their value from the persistent storage only when it is requested. The
+ * {@link #keySet()} does not create any entry at all and uses the {@link PersistenceStrategy#keyIterator()}.
+ * </p>
  * 
  * @author Guilherme Silveira
  */
@@ -55,11 +63,21 @@ public class XmlMap<K, V> extends AbstractMap<K, V> {
         return persistenceStrategy.remove(key);
     }
 
+    @Override
+    public boolean containsKey(final Object key) {
+        return persistenceStrategy.containsKey(key);
+    }
+
     @Override
     public Set<Map.Entry<K, V>> entrySet() {
         return new XmlMapEntries();
     }
 
+    @Override
+    public Set<K> keySet() {
+        return new XmlMapKeys();
+    }
+
     class XmlMapEntries extends AbstractSet<Map.Entry<K, V>> {
 
         @Override
@@ -79,4 +97,28 @@ public class XmlMap<K, V> extends AbstractMap<K, V> {
 
     }
 
+    class XmlMapKeys extends AbstractSet<K> {
+
+        @Override
+        public int size() {
+            return XmlMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return XmlMap.this.isEmpty();
+        }
+
+        @Override
+        public boolean contains(final Object key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return persistenceStrategy.keyIterator();
+        }
+
+    }
+
 }
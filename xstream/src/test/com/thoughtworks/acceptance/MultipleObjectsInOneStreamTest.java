@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2018, 2019, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2018, 2019, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -23,6 +23,12 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
@@ -37,6 +43,7 @@ import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.DataHolder;
 import com.thoughtworks.xstream.core.ReferenceByIdMarshaller;
 import com.thoughtworks.xstream.core.ReferenceByIdUnmarshaller;
+import com.thoughtworks.xstream.core.TreeMarshallingStrategy;
 import com.thoughtworks.xstream.core.util.DefaultDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
@@ -424,4 +431,142 @@ public class MultipleObjectsInOneStreamTest extends AbstractAcceptanceTest {
 
         ois.close();
     }
+
+    public void testIteratesLazilyOverItemsOfCollection() {
+        xstream.alias("person", Person.class);
+        final List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            people.add(new Person("Person", Integer.toString(i)));
+        }
+        final String xml = xstream.toXML(people);
+
+        final HierarchicalStreamReader reader = DefaultDriver.create().createReader(new StringReader(xml));
+        final Iterator<Person> iter = xstream.unmarshalIterator(reader, Person.class);
+        for (int i = 0; i < 100; ++i) {
+            assertTrue("should be another object to read (" + i + ")", iter.hasNext());
+            assertEquals(people.get(i), iter.next());
+        }
+        assertFalse("should be no more objects", iter.hasNext());
+        try {
+            iter.next();
+            fail("Thrown " + NoSuchElementException.class.getName() + " expected");
+        } catch (final NoSuchElementException e) {
+            // OK
+        }
+        reader.close();
+    }
+
+    public void testIteratesOverItemsOfArray() {
+        final String xml = xstream.toXML(new String[]{"one", null, "three"});
+
+        final HierarchicalStreamReader reader = DefaultDriver.create().createReader(new StringReader(xml));
+        final List<String> items = new ArrayList<>();
+        xstream.unmarshalIterator(reader, String.class).forEachRemaining(items::add);
+        reader.close();
+        assertEquals(Arrays.asList("one", null, "three"), items);
+    }
+
+    public void testIteratorRequiresPlainCollectionAsRoot() {
+        xstream.alias("person", Person.class);
+        for (final Object root : new Object[]{new Person("Postman", "Pat"), new TreeSet<>(Arrays.asList("a", "b"))}) {
+            final HierarchicalStreamReader reader = DefaultDriver.create().createReader(new StringReader(xstream
+                .toXML(root)));
+            try {
+                xstream.unmarshalIterator(reader, Object.class);
+                fail("Thrown " + ConversionException.class.getName() + " expected");
+            } catch (final ConversionException e) {
+                assertEquals(root.getClass().getName(), e.get("root-type"));
+            }
+            reader.close();
+        }
+    }
+
+    public void testIteratorFailsForItemOfUnexpectedType() {
+        final HierarchicalStreamReader reader = DefaultDriver.create().createReader(new StringReader(xstream.toXML(
+            new ArrayList<>(Arrays.asList("one", Integer.valueOf(2))))));
+        final Iterator<String> iter = xstream.unmarshalIterator(reader, String.class);
+        assertEquals("one", iter.next());
+        try {
+            iter.next();
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals(Integer.class.getName(), e.get("item-type"));
+        }
+        reader.close();
+    }
+
+    public void testMarshalsStreamAsList() {
+        xstream.alias("person", Person.class);
+        final Person alice = new Person("Alice", "Thing");
+        final Person jane = new Person("Jane", "Blah");
+        jane.secretary = alice;
+        final List<Object> people = Arrays.asList(alice, null, jane, "text");
+
+        final StringWriter buffer = new StringWriter();
+        final HierarchicalStreamWriter writer = new PrettyPrintWriter(buffer);
+        xstream.marshalStream(people.stream(), writer);
+        writer.close();
+
+        final String xml = buffer.toString();
+        assertEquals(xstream.toXML(new ArrayList<>(people)), xml);
+        final List<?> result = xstream.fromXML(xml);
+        assertEquals(people, result);
+        assertSame(result.get(0), ((Person)result.get(2)).secretary);
+    }
+
+    public void testMarshalIteratorFlushesRegularly() {
+        final int[] flushes = new int[1];
+        final StringWriter buffer = new StringWriter();
+        final HierarchicalStreamWriter writer = new PrettyPrintWriter(buffer) {
+            @Override
+            public void flush() {
+                ++flushes[0];
+                super.flush();
+            }
+        };
+        final Iterator<Integer> iter = new Iterator<Integer>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < 2500;
+            }
+
+            @Override
+            public Integer next() {
+                if (i == 1001) {
+                    assertEquals(1, flushes[0]);
+                    assertTrue(buffer.toString().endsWith("<int>999</int>"));
+                }
+                return Integer.valueOf(i++);
+            }
+        };
+        xstream.marshalIterator(iter, writer);
+        assertEquals(2, flushes[0]);
+
+        final Iterator<Integer> result = xstream.unmarshalIterator(DefaultDriver.create().createReader(
+            new StringReader(buffer.toString())), Integer.class);
+        for (int i = 0; i < 2500; ++i) {
+            assertEquals(Integer.valueOf(i), result.next());
+        }
+        assertFalse(result.hasNext());
+    }
+
+    public void testMarshalIteratorPassesRootThatCanBeInspected() {
+        final List<String> roots = new ArrayList<>();
+        xstream.setMarshallingStrategy(new TreeMarshallingStrategy() {
+            @Override
+            public void marshal(final HierarchicalStreamWriter writer, final Object obj,
+                    final ConverterLookup converterLookup, final Mapper mapper, final DataHolder dataHolder) {
+                roots.add(obj.toString());
+                super.marshal(writer, obj, converterLookup, mapper, dataHolder);
+            }
+        });
+        final List<String> items = Arrays.asList("one", "two");
+
+        final StringWriter buffer = new StringWriter();
+        xstream.marshalIterator(items.iterator(), new PrettyPrintWriter(buffer));
+        assertEquals(1, roots.size());
+        assertEquals(xstream.toXML(new ArrayList<>(items)), buffer.toString());
+    }
 }
@@ -19,6 +19,8 @@ import java.io.ObjectOutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.dom4j.Element;
 
@@ -35,6 +37,8 @@ import com.thoughtworks.acceptance.someobjects.Y;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.collections.BitSetConverter;
+import com.thoughtworks.xstream.core.Instrumentation;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.StreamException;
@@ -392,6 +396,24 @@ public class XStreamTest extends TestCase {
         }
     }
 
+    public void testLateConfigurationKeepsUnrelatedConverterLookupsCached() {
+        final List<Class<?>> misses = new ArrayList<>();
+        xstream.setInstrumentation(new Instrumentation() {
+            @Override
+            public void converterLookedUp(final Class<?> type, final boolean cached) {
+                if (!cached) {
+                    misses.add(type);
+                }
+            }
+        });
+        final Converter converter = xstream.getConverterLookup().lookupConverterForType(String.class);
+        xstream.registerConverter(new BitSetConverter());
+        xstream.alias("text", StringBuilder.class);
+        misses.clear();
+        assertSame(converter, xstream.getConverterLookup().lookupConverterForType(String.class));
+        assertEquals(0, misses.size());
+    }
+
     public void testUnmarshalsFromFile() throws IOException {
         final File file = createTestFile();
         xstream.registerConverter(new ElementConverter());
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.collections;
+
+import com.thoughtworks.acceptance.AbstractAcceptanceTest;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.basic.BooleanConverter;
+import com.thoughtworks.xstream.core.Base64Codec;
+
+
+public class PrimitiveArrayConverterTest extends AbstractAcceptanceTest {
+
+    public void testWritesElementForEachItem() {
+        assertBothWays(new int[]{1, -2, Integer.MAX_VALUE}, ""
+            + "<int-array>\n"
+            + "  <int>1</int>\n"
+            + "  <int>-2</int>\n"
+            + "  <int>2147483647</int>\n"
+            + "</int-array>");
+        assertBothWays(new long[]{Long.MIN_VALUE}, "<long-array>\n  <long>-9223372036854775808</long>\n</long-array>");
+        assertBothWays(new short[]{-1}, "<short-array>\n  <short>-1</short>\n</short-array>");
+        assertBothWays(new float[]{1.5f}, "<float-array>\n  <float>1.5</float>\n</float-array>");
+        assertBothWays(new double[]{Double.NaN}, "<double-array>\n  <double>NaN</double>\n</double-array>");
+        assertBothWays(new boolean[]{true, false}, ""
+            + "<boolean-array>\n"
+            + "  <boolean>true</boolean>\n"
+            + "  <boolean>false</boolean>\n"
+            + "</boolean-array>");
+        assertBothWays(new int[0], "<int-array/>");
+    }
+
+    public void testReadsValuesInAnyFormatOfTheItemConverter() {
+        final String xml = ""
+            + "<int-array>\n"
+            + "  <int>0x10</int>\n"
+            + "  <int>010</int>\n"
+            + "  <int>#ff</int>\n"
+            + "  <int>4294967295</int>\n"
+            + "  <int>+0</int>\n"
+            + "</int-array>";
+        assertArrayEquals(new int[]{16, 8, 255, -1, 0}, xstream.fromXML(xml));
+        assertArrayEquals(new long[]{-1L}, xstream.fromXML("<long-array><long>0xFFFFFFFFFFFFFFFF</long></long-array>"));
+        assertArrayEquals(new boolean[]{true, false}, xstream.fromXML(""
+            + "<boolean-array><boolean>TRUE</boolean><boolean>yes</boolean></boolean-array>"));
+    }
+
+    public void testFailsForValueOutOfRange() {
+        try {
+            xstream.fromXML("<short-array><short>65536</short></short-array>");
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals(NumberFormatException.class, e.getCause().getClass());
+        }
+    }
+
+    public void testUsesRegisteredConverterForItems() {
+        xstream.registerConverter(BooleanConverter.YES_NO);
+        assertBothWays(new boolean[]{true, false}, ""
+            + "<boolean-array>\n"
+            + "  <boolean>yes</boolean>\n"
+            + "  <boolean>no</boolean>\n"
+            + "</boolean-array>");
+    }
+
+    public void testWritesDelimitedValues() {
+        xstream.registerConverter(new PrimitiveArrayConverter(','));
+        assertBothWays(new int[]{1, -2, 3}, "<int-array>1,-2,3</int-array>");
+        assertBothWays(new double[]{0.5, -1e300}, "<double-array>0.5,-1.0E300</double-array>");
+        assertBothWays(new boolean[]{true, false}, "<boolean-array>true,false</boolean-array>");
+        assertBothWays(new char[]{'a', ',', 'b'}, "<char-array>a,b</char-array>");
+        assertBothWays(new long[0], "<long-array></long-array>");
+        assertArrayEquals(new int[]{1, 2}, xstream.fromXML("<int-array><int>1</int><int>2</int></int-array>"));
+        assertArrayEquals(new int[]{1, 2}, xstream.fromXML("<int-array> 1, 2 </int-array>"));
+    }
+
+    public void testRejectsDelimiterThatIsPartOfValues() {
+        for (final char delimiter : new char[]{'-', '.', 'E', '1', '\0'}) {
+            try {
+                new PrimitiveArrayConverter(delimiter);
+                fail("Thrown " + IllegalArgumentException.class.getName() + " expected for '" + delimiter + "'");
+            } catch (final IllegalArgumentException e) {
+                // OK
+            }
+        }
+    }
+
+    public void testWritesEncodedBinaryData() {
+        xstream.registerConverter(new PrimitiveArrayConverter(new Base64Codec()));
+        assertBothWays(new int[]{1, 2}, "<int-array>AAAAAQAAAAI=</int-array>");
+        assertBothWays(new short[]{-1}, "<short-array>//8=</short-array>");
+        assertBothWays(new boolean[]{true, false, true}, "<boolean-array>AQAB</boolean-array>");
+        assertBothWays(new double[]{1.0}, "<double-array>P/AAAAAAAAA=</double-array>");
+        assertArrayEquals(new int[]{1, 2}, xstream.fromXML("<int-array><int>1</int><int>2</int></int-array>"));
+        try {
+            xstream.fromXML("<int-array>AAAAAQAA</int-array>");
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("6", e.get("length"));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.reflection;
+
+public class MethodHandleReflectionProviderTest extends PureJavaReflectionProviderTest {
+
+    // inherits tests from superclass
+
+    @Override
+    public ReflectionProvider createReflectionProvider() {
+        return new MethodHandleReflectionProvider();
+    }
+
+    public void testWritesFinalFields() {
+        final WithFinalField object = new WithFinalField();
+        reflectionProvider.writeField(object, "value", "changed", WithFinalField.class);
+        assertEquals("changed", object.value);
+    }
+
+    public void testWritesPrimitiveFields() {
+        final WithPrimitiveFields object = new WithPrimitiveFields();
+        reflectionProvider.writeField(object, "i", Integer.valueOf(42), null);
+        reflectionProvider.writeField(object, "d", Double.valueOf(4.2), WithPrimitiveFields.class);
+        assertEquals(42, object.i);
+        assertEquals(4.2, object.d, 0.0);
+    }
+
+    public void testFailsToWriteIncompatibleValue() {
+        final WithPrimitiveFields object = new WithPrimitiveFields();
+        try {
+            reflectionProvider.writeField(object, "i", "forty-two", null);
+            fail("Thrown " + ObjectAccessException.class.getName() + " expected");
+        } catch (final ObjectAccessException e) {
+            assertEquals(WithPrimitiveFields.class.getName() + ".i", e.get("field"));
+        }
+    }
+
+    public void testFailsToWriteUnknownField() {
+        try {
+            reflectionProvider.writeField(new WithPrimitiveFields(), "unknown", null, null);
+            fail("Thrown " + MissingFieldException.class.getName() + " expected");
+        } catch (final MissingFieldException e) {
+            // ok
+        }
+    }
+
+    static class WithFinalField {
+        final String value = new String("original");
+    }
+
+    static class WithPrimitiveFields {
+        int i;
+        double d;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2010, 2013, 2014, 2018, 2019 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2010, 2013, 2014, 2018, 2019, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -155,6 +155,65 @@ public class ReflectionConverterTest extends TestCase {
 
     }
 
+    public void testMarshallingPlanIsFlushedWithCache() {
+        final XStream xstream = new XStream(DefaultDriver.create());
+        final ReflectionConverter converter = new ReflectionConverter(xstream.getMapper(), xstream
+            .getReflectionProvider(), TypesOfFields.class);
+        xstream.registerConverter(converter);
+        xstream.alias("types", TypesOfFields.class);
+        final TypesOfFields fields = new TypesOfFields();
+
+        assertEquals("<types>\n  <normal>normal</normal>\n</types>", xstream.toXML(fields));
+        xstream.aliasField("regular", TypesOfFields.class, "normal");
+        converter.flushCache();
+        assertEquals("<types>\n  <regular>normal</regular>\n</types>", xstream.toXML(fields));
+    }
+
+    public void testMarshallingPlanFollowsChangedConfiguration() {
+        final XStream xstream = new XStream(DefaultDriver.create());
+        xstream.allowTypes(TypesOfFields.class);
+        xstream.alias("types", TypesOfFields.class);
+        final TypesOfFields fields = new TypesOfFields();
+
+        assertEquals("<types>\n  <normal>normal</normal>\n</types>", xstream.toXML(fields));
+        xstream.aliasField("regular", TypesOfFields.class, "normal");
+        String xml = xstream.toXML(fields);
+        assertEquals("<types>\n  <regular>normal</regular>\n</types>", xml);
+        assertEquals("normal", ((TypesOfFields)xstream.fromXML(xml)).normal);
+        xstream.useAttributeFor(TypesOfFields.class, "normal");
+        xml = xstream.toXML(fields);
+        assertEquals("<types regular=\"normal\"/>", xml);
+        assertEquals("normal", ((TypesOfFields)xstream.fromXML(xml)).normal);
+        xstream.omitField(TypesOfFields.class, "normal");
+        assertEquals("<types/>", xstream.toXML(fields));
+    }
+
+    public void testMarshallingPlanSupportsVaryingFieldsOfReflectionProvider() {
+        final XStream xstream = new XStream(DefaultDriver.create());
+        xstream.registerConverter(new ReflectionConverter(xstream.getMapper(), new ReflectionProviderWrapper(xstream
+            .getReflectionProvider()) {
+            @Override
+            public void visitSerializableFields(final Object object, final Visitor visitor) {
+                super.visitSerializableFields(object, (name, type, definedIn, value) -> {
+                    if (value != null) {
+                        visitor.visit(name, type, definedIn, value);
+                    }
+                });
+            }
+        }, World.class));
+        xstream.alias("world", World.class);
+        final World world = new World();
+
+        final String xml = xstream.toXML(world);
+        world.anInteger = null;
+        world.anString = null;
+        assertEquals(xml.replace("  <anInteger>2</anInteger>\n", "").replace(
+            "  <anString>XStream programming!</anString>\n", ""), xstream.toXML(world));
+        world.anInteger = Integer.valueOf(2);
+        world.anString = "XStream programming!";
+        assertEquals(xml, xstream.toXML(world));
+    }
+
     static class CustomReflectionConverter extends ReflectionConverter {
 
         public CustomReflectionConverter(final Mapper mapper, final ReflectionProvider reflectionProvider) {
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,8 +16,10 @@ import java.util.BitSet;
 import junit.framework.TestCase;
 
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.SingleValueConverterWrapper;
+import com.thoughtworks.xstream.converters.basic.IntConverter;
 import com.thoughtworks.xstream.converters.basic.StringConverter;
 import com.thoughtworks.xstream.converters.collections.BitSetConverter;
 
@@ -41,4 +43,38 @@ public class DefaultConverterLookupTest extends TestCase {
 		assertEquals(lookup.lookupConverterForType(String.class), newConverter);
 	}
 
+	public void testLateRegistrationKeepsUnaffectedTypesCached() {
+		final int[] calls = new int[1];
+		final DefaultConverterLookup lookup = new DefaultConverterLookup();
+		lookup.registerConverter(new SingleValueConverterWrapper(new StringConverter()) {
+			@Override
+			public boolean canConvert(final Class<?> type) {
+				++calls[0];
+				return super.canConvert(type);
+			}
+		}, XStream.PRIORITY_NORMAL);
+		final Converter bitSetConverter = new BitSetConverter();
+		lookup.registerConverter(bitSetConverter, XStream.PRIORITY_NORMAL);
+		final Converter stringConverter = lookup.lookupConverterForType(String.class);
+		assertSame(bitSetConverter, lookup.lookupConverterForType(BitSet.class));
+		calls[0] = 0;
+
+		final Converter intConverter = new SingleValueConverterWrapper(new IntConverter());
+		lookup.registerConverter(intConverter, XStream.PRIORITY_NORMAL);
+		assertSame(stringConverter, lookup.lookupConverterForType(String.class));
+		assertSame(bitSetConverter, lookup.lookupConverterForType(BitSet.class));
+		assertSame(intConverter, lookup.lookupConverterForType(Integer.class));
+		assertEquals(0, calls[0]);
+	}
+
+	public void testFailsForUnknownType() {
+		final DefaultConverterLookup lookup = new DefaultConverterLookup();
+		lookup.registerConverter(new BitSetConverter(), XStream.PRIORITY_NORMAL);
+		try {
+			lookup.lookupConverterForType(String.class);
+			fail("Thrown " + ConversionException.class.getName() + " expected");
+		} catch (final ConversionException e) {
+			assertEquals(String.class.getName(), e.get("type"));
+		}
+	}
 }
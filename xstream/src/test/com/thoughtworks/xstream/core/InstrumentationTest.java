@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.thoughtworks.acceptance.AbstractAcceptanceTest;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.DataHolder;
+import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
+import com.thoughtworks.xstream.io.xml.CompactWriter;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+
+public class InstrumentationTest extends AbstractAcceptanceTest {
+
+    static class Thing {
+        String name;
+        Thing other;
+
+        Thing(final String name) {
+            this.name = name;
+        }
+    }
+
+    static class Recorder implements Instrumentation {
+        final Map<String, Integer> calls = new HashMap<>();
+        final List<String> graphs = new ArrayList<>();
+        int converterHits;
+        int converterMisses;
+        int classHits;
+        int classMisses;
+
+        @Override
+        public synchronized void converterCalled(final Class<?> type, final Converter converter,
+                final boolean marshalling, final long nanos) {
+            assertTrue(nanos >= 0);
+            calls.merge((marshalling ? "marshal " : "unmarshal ") + type.getSimpleName(), Integer.valueOf(1),
+                (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+        }
+
+        @Override
+        public synchronized void converterLookedUp(final Class<?> type, final boolean cached) {
+            if (cached) {
+                ++converterHits;
+            } else {
+                ++converterMisses;
+            }
+        }
+
+        @Override
+        public synchronized void classLookedUp(final String elementName, final boolean cached) {
+            if (cached) {
+                ++classHits;
+            } else {
+                ++classMisses;
+            }
+        }
+
+        @Override
+        public void marshalled(final Class<?> type, final long nanos, final int nodes, final long characters,
+                final int references) {
+            graphs.add("marshalled " + type.getSimpleName() + " " + nodes + " " + characters + " " + references);
+        }
+
+        @Override
+        public void unmarshalled(final Class<?> type, final long nanos, final int nodes, final long characters,
+                final int references) {
+            graphs.add("unmarshalled " + type.getSimpleName() + " " + nodes + " " + characters + " " + references);
+        }
+    }
+
+    private Recorder recorder;
+    private Thing thing;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        xstream.alias("thing", Thing.class);
+        recorder = new Recorder();
+        thing = new Thing("one");
+        thing.other = new Thing("two");
+        thing.other.other = thing;
+    }
+
+    public void testReportsConverterCallsAndGraphs() {
+        xstream.setInstrumentation(recorder);
+        xstream.setMode(XStream.ID_REFERENCES);
+        final String xml = xstream.toXML(thing);
+        final Thing result = xstream.fromXML(xml);
+        assertSame(result, result.other.other);
+
+        assertEquals(Integer.valueOf(2), recorder.calls.get("marshal Thing"));
+        assertEquals(Integer.valueOf(2), recorder.calls.get("marshal String"));
+        assertEquals(Integer.valueOf(2), recorder.calls.get("unmarshal Thing"));
+        assertEquals(Integer.valueOf(2), recorder.calls.get("unmarshal String"));
+        // nodes: thing, name, other, name, other; characters: "one", "two" and the ids
+        assertEquals("marshalled Thing 5 9 2", recorder.graphs.get(0));
+        assertEquals("unmarshalled Thing 5 6 2", recorder.graphs.get(1));
+        assertEquals(2, recorder.graphs.size());
+    }
+
+    public void testReportsCacheLookups() {
+        xstream.setInstrumentation(recorder);
+        xstream.setMode(XStream.NO_REFERENCES);
+        thing.other.other = null;
+        final String xml = xstream.toXML(thing);
+        xstream.fromXML(xml);
+        xstream.fromXML(xml);
+
+        assertTrue(recorder.converterMisses > 0);
+        assertTrue(recorder.converterHits > recorder.converterMisses);
+        assertTrue(recorder.classMisses > 0);
+        assertTrue(recorder.classHits > 0);
+    }
+
+    public void testReportsNothingWithoutInstrumentation() {
+        xstream.setInstrumentation(recorder);
+        xstream.setInstrumentation(null);
+        xstream.fromXML(xstream.toXML(thing));
+
+        assertEquals(0, recorder.calls.size());
+        assertEquals(0, recorder.graphs.size());
+        assertEquals(0, recorder.converterHits + recorder.converterMisses + recorder.classHits
+            + recorder.classMisses);
+    }
+
+    public void testReportsConverterCallsOfParallelChunks() {
+        xstream.setInstrumentation(recorder);
+        xstream.setMarshallingStrategy(new ParallelTreeMarshallingStrategy(Runnable::run, 2, 2));
+        final List<String> list = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            list.add("item " + i);
+        }
+        xstream.fromXML(xstream.toXML(list));
+
+        assertEquals(Integer.valueOf(5), recorder.calls.get("marshal String"));
+        assertEquals(Integer.valueOf(5), recorder.calls.get("unmarshal String"));
+        // nodes: list and 5 items; characters: 5 times "item n"
+        assertEquals("marshalled ArrayList 6 30 0", recorder.graphs.get(0));
+        assertEquals("unmarshalled ArrayList 6 30 0", recorder.graphs.get(1));
+        assertEquals(2, recorder.graphs.size());
+
+        recorder.graphs.clear();
+        xstream.setMarshallingStrategy(new TreeMarshallingStrategy());
+        xstream.fromXML(xstream.toXML(list));
+        assertEquals("marshalled ArrayList 6 30 0", recorder.graphs.get(0));
+        assertEquals("unmarshalled ArrayList 6 30 0", recorder.graphs.get(1));
+    }
+
+    public void testKeepsInstrumentationOutOfDataHolder() {
+        final DataHolder holder = new MapBackedDataHolder();
+        xstream.setInstrumentation(recorder);
+        xstream.marshal(thing, new CompactWriter(new StringWriter()), holder);
+        assertEquals(1, recorder.graphs.size());
+        assertNull(holder.get(XStream.INSTRUMENTATION));
+        assertFalse(holder.keys().hasNext());
+
+        xstream.setInstrumentation(null);
+        xstream.marshal(thing, new CompactWriter(new StringWriter()), holder);
+        assertEquals(1, recorder.graphs.size());
+    }
+
+    public void testCommitsJfrEvents() throws IOException {
+        final File file = File.createTempFile("xstream", ".jfr");
+        try (JfrInstrumentation instrumentation = new JfrInstrumentation()) {
+            xstream.setInstrumentation(instrumentation);
+            xstream.registerConverter(new ReflectionConverter(xstream.getMapper(), xstream.getReflectionProvider(),
+                Thing.class));
+            try (Recording recording = new Recording()) {
+                recording.enable(JfrInstrumentation.MarshalEvent.class);
+                recording.enable(JfrInstrumentation.UnmarshalEvent.class);
+                recording.enable(JfrInstrumentation.ConverterStatisticsEvent.class).with("period", "endChunk");
+                recording.enable(JfrInstrumentation.CacheStatisticsEvent.class).with("period", "endChunk");
+                recording.start();
+                xstream.fromXML(xstream.toXML(thing));
+                recording.stop();
+                recording.dump(file.toPath());
+            }
+
+            final Map<String, Long> counts = new HashMap<>();
+            long marshalCalls = 0;
+            for (final RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+                final String name = event.getEventType().getName();
+                counts.merge(name, Long.valueOf(1), (a, b) -> Long.valueOf(a.longValue() + b.longValue()));
+                if (name.equals("com.thoughtworks.xstream.Marshal")) {
+                    assertEquals(Thing.class.getName(), event.getClass("type").getName());
+                    assertTrue(event.getInt("nodes") > 0);
+                } else if (name.equals("com.thoughtworks.xstream.ConverterStatistics")
+                    && event.getClass("type").getName().equals(Thing.class.getName())) {
+                    assertEquals(ReflectionConverter.class.getName(), event.getClass("converter").getName());
+                    marshalCalls += event.getLong("marshalCount");
+                }
+            }
+            assertEquals(Long.valueOf(1), counts.get("com.thoughtworks.xstream.Marshal"));
+            assertEquals(Long.valueOf(1), counts.get("com.thoughtworks.xstream.Unmarshal"));
+            assertTrue(counts.containsKey("com.thoughtworks.xstream.CacheStatistics"));
+            assertEquals(2, marshalCalls);
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.thoughtworks.acceptance.AbstractAcceptanceTest;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.SingleValueConverter;
+
+
+public class ParallelTreeMarshallingStrategyTest extends AbstractAcceptanceTest {
+
+    static class Thing {
+        String name;
+        Object other;
+
+        Thing(final String name) {
+            this.name = name;
+        }
+    }
+
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newFixedThreadPool(4);
+        xstream.alias("thing", Thing.class);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    private String toXMLSequentially(final Object obj) {
+        xstream.setMode(XStream.NO_REFERENCES);
+        return xstream.toXML(obj);
+    }
+
+    private String toXMLInParallel(final Object obj, final int chunkSize, final int maxPendingChunks) {
+        xstream.setMarshallingStrategy(new ParallelTreeMarshallingStrategy(executor, chunkSize, maxPendingChunks));
+        return xstream.toXML(obj);
+    }
+
+    public void testWritesListInOriginalOrder() {
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            final Thing thing = new Thing("thing " + i);
+            thing.other = i % 3 == 0 ? Integer.valueOf(i) : new int[]{i, -i};
+            list.add(thing);
+        }
+        list.add(null);
+
+        final String expected = toXMLSequentially(list);
+        assertEquals(expected, toXMLInParallel(list, 7, 3));
+        assertEquals(expected, toXMLInParallel(list, 1000, 1));
+        assertEquals(list.size(), ((List<?>)xstream.fromXML(expected)).size());
+    }
+
+    public void testWritesMapInOriginalOrder() {
+        final Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < 500; ++i) {
+            map.put("key " + i, new Thing("thing " + i));
+        }
+
+        final String expected = toXMLSequentially(map);
+        assertEquals(expected, toXMLInParallel(map, 13, 2));
+    }
+
+    public void testMarshalsSmallCollectionsAndOtherObjectsSequentially() {
+        final List<Object> list = new ArrayList<>();
+        list.add(new Thing("one"));
+        final Thing thing = new Thing("two");
+        thing.other = list;
+
+        assertEquals(toXMLSequentially(list), toXMLInParallel(list, 10, 2));
+        assertEquals(toXMLSequentially(thing), toXMLInParallel(thing, 1, 2));
+    }
+
+    public void testPropagatesExceptionOfChunk() {
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            list.add(new Thing("thing " + i));
+        }
+        xstream.registerConverter(new SingleValueConverter() {
+
+            @Override
+            public boolean canConvert(final Class<?> type) {
+                return type == Thing.class;
+            }
+
+            @Override
+            public String toString(final Object obj) {
+                if ("thing 42".equals(((Thing)obj).name)) {
+                    throw new ConversionException("Cannot marshal thing 42");
+                }
+                return ((Thing)obj).name;
+            }
+
+            @Override
+            public Object fromString(final String str) {
+                return new Thing(str);
+            }
+        });
+
+        try {
+            toXMLInParallel(list, 10, 2);
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertTrue(e.getMessage().contains("Cannot marshal thing 42"));
+        }
+    }
+
+    public void testDetectsCircularReferenceToRoot() {
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            list.add(new Thing("thing " + i));
+        }
+        ((Thing)list.get(17)).other = list;
+
+        try {
+            toXMLInParallel(list, 5, 2);
+            fail("Thrown " + TreeMarshaller.CircularReferenceException.class.getName() + " expected");
+        } catch (final TreeMarshaller.CircularReferenceException e) {
+            // good
+        }
+    }
+
+    private Object fromXMLInParallel(final String xml, final int chunkSize, final int maxPendingChunks) {
+        xstream.setMarshallingStrategy(new ParallelTreeMarshallingStrategy(executor, chunkSize, maxPendingChunks));
+        return xstream.fromXML(xml);
+    }
+
+    public void testReadsListInDocumentOrder() {
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            list.add(i % 5 == 0 ? null : i % 2 == 0 ? new Thing("thing " + i) : (Object)("string " + i));
+        }
+        final String xml = toXMLSequentially(list);
+
+        final List<?> result = (List<?>)fromXMLInParallel(xml, 7, 3);
+        assertEquals(xml, toXMLSequentially(result));
+        assertEquals(xml, toXMLSequentially(fromXMLInParallel(xml, 999, 1)));
+    }
+
+    public void testReadsMapAndSetInDocumentOrder() {
+        final Map<Object, Object> map = new LinkedHashMap<>();
+        final LinkedHashSet<Object> set = new LinkedHashSet<>();
+        for (int i = 0; i < 500; ++i) {
+            map.put("key " + i, new Thing("thing " + i));
+            set.add(Integer.valueOf(500 - i));
+        }
+        final String mapXML = toXMLSequentially(map);
+        final String setXML = toXMLSequentially(set);
+
+        final Object mapResult = fromXMLInParallel(mapXML, 13, 2);
+        assertEquals(LinkedHashMap.class, mapResult.getClass());
+        assertEquals(mapXML, toXMLSequentially(mapResult));
+        final Object setResult = fromXMLInParallel(setXML, 13, 2);
+        assertEquals(set, setResult);
+        assertEquals(setXML, toXMLSequentially(setResult));
+    }
+
+    public void testReadsSmallCollectionsAndOtherObjects() {
+        final Thing thing = new Thing("one");
+        thing.other = new ArrayList<>();
+
+        assertEquals(new ArrayList<>(), fromXMLInParallel("<list/>", 10, 2));
+        assertEquals(toXMLSequentially(thing), toXMLSequentially(fromXMLInParallel(toXMLSequentially(thing), 1, 2)));
+    }
+
+    public void testPropagatesExceptionOfChunkAtUnmarshalling() {
+        final StringBuilder xml = new StringBuilder("<list>");
+        for (int i = 0; i < 100; ++i) {
+            xml.append(i == 42 ? "<int>x</int>" : "<int>" + i + "</int>");
+        }
+        xml.append("</list>");
+
+        try {
+            fromXMLInParallel(xml.toString(), 10, 2);
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals(NumberFormatException.class, e.getCause().getClass());
+        }
+    }
+}
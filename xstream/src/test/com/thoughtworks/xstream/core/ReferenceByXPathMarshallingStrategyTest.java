@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,13 +16,12 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import com.thoughtworks.acceptance.AbstractAcceptanceTest;
 import com.thoughtworks.acceptance.objects.StandardObject;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.ConverterLookup;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.ReferenceTable;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.path.Path;
@@ -146,9 +145,9 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
         xstream.toXML(list);
 
         // assert
-        final ObjectIdDictionary<?> trackedPathsOnMarshal = getReferences(marshallingStrategy.requestedMarshaller);
+        final ReferenceTable<?, ?> trackedPathsOnMarshal = getReferences(marshallingStrategy.requestedMarshaller);
 
-        assertTrue(trackedPathsOnMarshal.containsId(list));
+        assertTrue(trackedPathsOnMarshal.containsKey(list));
         assertEquals(1, trackedPathsOnMarshal.size());
     }
 
@@ -167,7 +166,7 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
         xstream.fromXML(document);
 
         // assert
-        final Map<Path, Object> trackedPathsOnUnmarshal = getReferences(marshallingStrategy.requestedUnmarshaller);
+        final ReferenceTable<Path, Object> trackedPathsOnUnmarshal = getReferences(marshallingStrategy.requestedUnmarshaller);
 
         assertTrue(trackedPathsOnUnmarshal.containsKey(new Path("/list")));
         assertEquals(1, trackedPathsOnUnmarshal.size());
@@ -202,7 +201,7 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
         xstream.fromXML(document);
 
         // assert
-        final Map<Path, Object> trackedPathsOnUnmarshal = getReferences(marshallingStrategy.requestedUnmarshaller);
+        final ReferenceTable<Path, Object> trackedPathsOnUnmarshal = getReferences(marshallingStrategy.requestedUnmarshaller);
 
         assertTrue(trackedPathsOnUnmarshal.containsKey(new Path("/list")));
         assertTrue(trackedPathsOnUnmarshal.containsKey(new Path("/list/thing")));
@@ -211,21 +210,21 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
     }
 
     @SuppressWarnings("unchecked")
-    private Map<Path, Object> getReferences(final ReferenceByXPathUnmarshaller requestedUnmarshaller) {
+    private ReferenceTable<Path, Object> getReferences(final ReferenceByXPathUnmarshaller requestedUnmarshaller) {
         try {
             final Field field = AbstractReferenceUnmarshaller.class.getDeclaredField("values");
             field.setAccessible(true);
-            return (Map<Path, Object>)field.get(requestedUnmarshaller);
+            return (ReferenceTable<Path, Object>)field.get(requestedUnmarshaller);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    private ObjectIdDictionary<?> getReferences(final ReferenceByXPathMarshaller requestedMarshaller) {
+    private ReferenceTable<?, ?> getReferences(final ReferenceByXPathMarshaller requestedMarshaller) {
         try {
             final Field field = AbstractReferenceMarshaller.class.getDeclaredField("references");
             field.setAccessible(true);
-            return (ObjectIdDictionary<?>)field.get(requestedMarshaller);
+            return (ReferenceTable<?, ?>)field.get(requestedMarshaller);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+
+public class ClockCacheTest extends TestCase {
+
+    public void testActsAsMap() {
+        final ClockCache<String, String> cache = new ClockCache<>(10);
+        assertNull(cache.put("a", "1"));
+        assertNull(cache.put("b", "2"));
+        assertEquals("1", cache.put("a", "3"));
+        assertEquals("3", cache.get("a"));
+        assertTrue(cache.containsKey("b"));
+        assertEquals(2, cache.size());
+        assertEquals("2", cache.remove("b"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.entrySet().size());
+        cache.clear();
+        assertTrue(cache.isEmpty());
+    }
+
+    public void testIsLimitedInSize() {
+        final ClockCache<Integer, Integer> cache = new ClockCache<>(100);
+        for (int i = 0; i < 1000; ++i) {
+            cache.put(Integer.valueOf(i), Integer.valueOf(i));
+            assertEquals(Math.min(i + 1, 100), cache.size());
+        }
+        for (int i = 900; i < 1000; ++i) {
+            assertEquals(Integer.valueOf(i), cache.get(Integer.valueOf(i)));
+        }
+    }
+
+    public void testKeepsRecentlyUsedEntries() {
+        final ClockCache<String, String> cache = new ClockCache<>(3);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+        cache.put("d", "4");
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        cache.put("e", "5");
+        assertFalse(cache.containsKey("c"));
+        assertEquals(3, cache.size());
+    }
+
+    public void testReusesSlotOfRemovedEntry() {
+        final ClockCache<String, String> cache = new ClockCache<>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.remove("a");
+        cache.put("c", "3");
+        assertEquals(2, cache.size());
+        assertTrue(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+    }
+
+    public void testConcurrentAccess() throws InterruptedException {
+        final ClockCache<Integer, Integer> cache = new ClockCache<>(64);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            final int offset = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20000; ++i) {
+                        final Integer key = Integer.valueOf((i * 7 + offset) % 200);
+                        final Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key);
+                        } else if (!value.equals(key)) {
+                            throw new AssertionError("Wrong value " + value + " for " + key);
+                        }
+                    }
+                } catch (final Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertTrue(cache.size() <= 64);
+    }
+}
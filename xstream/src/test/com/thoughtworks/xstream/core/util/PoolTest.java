@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+
+public class PoolTest extends TestCase {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final Pool<Object> pool = new Pool<>(2, 4, new Pool.Factory<Object>() {
+        @Override
+        public Object newInstance() {
+            created.incrementAndGet();
+            return new Object();
+        }
+    });
+
+    public void testCreatesInitialObjectsLazily() {
+        assertEquals(0, created.get());
+        final Object first = pool.fetchFromPool();
+        assertEquals(2, created.get());
+        pool.putInPool(first);
+        assertSame(first, pool.fetchFromPool());
+        assertNotNull(pool.fetchFromPool());
+        assertEquals(2, created.get());
+    }
+
+    public void testCreatesNewObjectsInsteadOfBlocking() {
+        final Set<Object> fetched = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (int i = 0; i < 10; ++i) {
+            fetched.add(pool.fetchFromPool());
+        }
+        assertEquals(10, fetched.size());
+        assertEquals(10, created.get());
+    }
+
+    public void testKeepsOnlyMaximumNumberOfObjects() {
+        final List<Object> fetched = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            fetched.add(pool.fetchFromPool());
+        }
+        for (final Object object : fetched) {
+            pool.putInPool(object);
+        }
+        final Set<Object> reused = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (int i = 0; i < 6; ++i) {
+            reused.add(pool.fetchFromPool());
+        }
+        assertEquals(6, reused.size());
+        assertEquals(12, created.get());
+    }
+
+    public void testConcurrentAccessNeverHandsOutAnObjectTwice() throws InterruptedException {
+        final Set<Object> inUse = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        final AtomicInteger failures = new AtomicInteger();
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; ++j) {
+                    final Object object = pool.fetchFromPool();
+                    synchronized (inUse) {
+                        if (!inUse.add(object)) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    synchronized (inUse) {
+                        inUse.remove(object);
+                    }
+                    pool.putInPool(object);
+                }
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+
+public class QuickUtf8WriterTest extends TestCase {
+
+    public void testEncodesLikeJdk() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 500; ++i) {
+            builder.append("Joe \u00e4\u00df \u20ac \u65e5\ud83e\udd8a ");
+        }
+        final String text = builder.toString();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuickUtf8Writer writer = new QuickUtf8Writer(out, 7)) {
+            writer.write(text);
+            writer.write(text, 3, 10);
+            writer.write('\u00e4');
+            writer.write(text.toCharArray());
+        }
+        final String expected = text + text.substring(3, 13) + '\u00e4' + text;
+        assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testSurrogatePairSplitAcrossCalls() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuickUtf8Writer writer = new QuickUtf8Writer(out)) {
+            writer.write('\ud83e');
+            writer.write("\udd8a!");
+        }
+        assertEquals("\ud83e\udd8a!", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testReplacesMalformedSurrogates() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuickUtf8Writer writer = new QuickUtf8Writer(out)) {
+            writer.write("a\udd8ab\ud83ec");
+            writer.write('\ud83e');
+        }
+        assertEquals("a\ufffdb\ufffdc\ufffd", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testBuffering() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuickUtf8Writer writer = new QuickUtf8Writer(out, 1024)) {
+            writer.write(new char[1023]);
+            assertEquals("not flushed yet", 0, out.size());
+            writer.write(' ');
+            assertEquals("not flushed yet", 0, out.size());
+            writer.write("\u00e4");
+            assertEquals("flushed", 1024, out.size());
+            writer.flush();
+            assertEquals("flushed", 1026, out.size());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+
+public class ReferenceTableTest extends TestCase {
+
+    public void testMapsIdsToObjectReferences() {
+        final ReferenceTable<Object, String> table = new ReferenceTable<>(true);
+        final Object a = new Object();
+        final Object b = new Object();
+        table.put(a, "id a");
+        table.put(b, "id b");
+        assertEquals("id a", table.get(a));
+        assertEquals("id b", table.get(b));
+        assertNull(table.get(new Object()));
+        assertEquals("id a", table.put(a, "id c"));
+        assertEquals("id c", table.get(a));
+        assertEquals(2, table.size());
+    }
+
+    public void testTreatsObjectsThatAreEqualButNotSameInstanceAsDifferentReference() {
+        final ReferenceTable<Object, String> table = new ReferenceTable<>(true);
+        final String a = new String("x");
+        final String b = new String("x");
+        table.put(a, "id a");
+        assertFalse(table.containsKey(b));
+        table.put(b, "id b");
+        assertEquals("id a", table.get(a));
+        assertEquals("id b", table.get(b));
+    }
+
+    public void testComparesEqualKeys() {
+        final ReferenceTable<String, String> table = new ReferenceTable<>(false);
+        table.put(new String("x"), "id");
+        assertTrue(table.containsKey(new String("x")));
+        assertEquals("id", table.get(new String("x")));
+        assertEquals("id", table.remove(new String("x")));
+        assertEquals(0, table.size());
+    }
+
+    public void testGrowsAndRemovesEntries() {
+        final ReferenceTable<Object, Integer> table = new ReferenceTable<>(true, 0);
+        final List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i) {
+            final Object key = new Object();
+            keys.add(key);
+            assertNull(table.put(key, Integer.valueOf(i)));
+        }
+        assertEquals(10000, table.size());
+        final Random random = new Random(42);
+        final boolean[] removed = new boolean[keys.size()];
+        for (int i = 0; i < 5000; ++i) {
+            final int idx = random.nextInt(keys.size());
+            assertEquals(removed[idx] ? null : Integer.valueOf(idx), table.remove(keys.get(idx)));
+            removed[idx] = true;
+        }
+        int size = 0;
+        for (int i = 0; i < keys.size(); ++i) {
+            assertEquals(removed[i] ? null : Integer.valueOf(i), table.get(keys.get(i)));
+            if (!removed[i]) {
+                ++size;
+            }
+        }
+        assertEquals(size, table.size());
+        table.clear();
+        assertEquals(0, table.size());
+        assertFalse(table.containsKey(keys.get(0)));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2008, 2010, 2018 XStream Committers.
+ * Copyright (C) 2007, 2008, 2010, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,6 +16,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
 
 import junit.framework.TestCase;
 
@@ -83,4 +84,42 @@ public class XmlHeaderAwareReaderTest extends TestCase {
             assertEquals(new InputStreamReader(in, "utf-8").getEncoding(), reader.getEncoding());
         }
     }
+
+    public void testReadsByteBufferWithoutModifyingIt() throws IOException {
+        final String xml = "<?xml version='1.1' encoding='iso-8859-15'?><a>\u00e4\u20ac</a>";
+        final byte[] bytes = xml.getBytes("iso-8859-15");
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 5);
+        buffer.put(new byte[]{1, 2, (byte)0xEF, (byte)0xBB, (byte)0xBF}).put(bytes).flip().position(2);
+        try (LineNumberReader reader = new LineNumberReader(new XmlHeaderAwareReader(buffer))) {
+            assertEquals(xml, reader.readLine());
+            assertNull(reader.readLine());
+        }
+        assertEquals(2, buffer.position());
+        assertEquals(bytes.length + 5, buffer.limit());
+    }
+
+    public void testReadsByteBufferWithDefaultEncoding() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap("<a>\u00e4</a>".getBytes("utf-8"));
+        try (XmlHeaderAwareReader reader = new XmlHeaderAwareReader(buffer)) {
+            assertEquals("UTF-8", reader.getEncoding());
+            assertEquals(1.0, reader.getVersion(), 0.001);
+            final char[] chars = new char[16];
+            assertEquals(8, reader.read(chars));
+            assertEquals("<a>\u00e4</a>", new String(chars, 0, 8));
+            assertEquals(-1, reader.read(chars));
+        }
+    }
+
+    public void testReadsSupplementaryCharacterOfByteBufferCharByChar() throws IOException {
+        final String xml = "<a>\ud83e\udd8a</a>";
+        final ByteBuffer buffer = ByteBuffer.wrap(xml.getBytes("utf-8"));
+        try (XmlHeaderAwareReader reader = new XmlHeaderAwareReader(buffer)) {
+            final StringBuilder builder = new StringBuilder();
+            for (int ch = reader.read(); ch != -1 && builder.length() <= xml.length(); ch = reader.read()) {
+                builder.append((char)ch);
+            }
+            assertEquals(xml, builder.toString());
+            assertEquals(-1, reader.read());
+        }
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2013, 2014, 2016, 2018, 2019, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2013, 2014, 2016, 2018, 2019, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -20,6 +20,7 @@ import com.thoughtworks.acceptance.objects.SampleLists;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.converters.collections.CollectionConverter;
+import com.thoughtworks.xstream.io.binary.BinaryStream2Driver;
 import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
 import com.thoughtworks.xstream.io.json.JettisonMappedXmlDriver;
 import com.thoughtworks.xstream.io.xml.BEAStaxDriver;
@@ -34,6 +35,7 @@ import com.thoughtworks.xstream.io.xml.MXParserDriver;
 import com.thoughtworks.xstream.io.xml.SimpleStaxDriver;
 import com.thoughtworks.xstream.io.xml.StandardStaxDriver;
 import com.thoughtworks.xstream.io.xml.StaxDriver;
+import com.thoughtworks.xstream.io.xml.Utf8PullDriver;
 import com.thoughtworks.xstream.io.xml.WstxDriver;
 import com.thoughtworks.xstream.io.xml.XomDriver;
 import com.thoughtworks.xstream.io.xml.Xpp3DomDriver;
@@ -57,6 +59,7 @@ public class DriverEndToEndTestSuite extends TestSuite {
         super(DriverEndToEndTestSuite.class.getName());
         addDriverTest(new BEAStaxDriver());
         addDriverTest(new BinaryStreamDriver());
+        addDriverTest(new BinaryStream2Driver());
         addDriverTest(new Dom4JDriver());
         addDriverTest(new DomDriver());
         addDriverTest(new JDomDriver());
@@ -70,6 +73,7 @@ public class DriverEndToEndTestSuite extends TestSuite {
         addDriverTest(new XomDriver());
         addDriverTest(new MXParserDomDriver());
         addDriverTest(new MXParserDriver());
+        addDriverTest(new Utf8PullDriver());
         addDriverTest(new Xpp3DomDriver());
         addDriverTest(new Xpp3Driver());
         addDriverTest(new XppDomDriver());
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.binary;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.thoughtworks.acceptance.objects.Software;
+import com.thoughtworks.xstream.XStream;
+
+import junit.framework.TestCase;
+
+
+public class BinaryDictionaryTest extends TestCase {
+
+    public void testSortsNames() {
+        final BinaryDictionary dictionary = new BinaryDictionary(Arrays.asList("b", "c", "a", "b"));
+        assertEquals(Arrays.asList("a", "b", "c"), dictionary.getNames());
+        assertEquals(1, dictionary.getId("b"));
+        assertEquals(-1, dictionary.getId("d"));
+        assertEquals("c", dictionary.getName(2));
+        assertEquals(new BinaryDictionary(Arrays.asList("a", "b", "c")).getChecksum(), dictionary.getChecksum());
+        assertFalse(new BinaryDictionary(Arrays.asList("a", "bc")).getChecksum() == new BinaryDictionary(Arrays
+            .asList("ab", "c")).getChecksum());
+    }
+
+    public void testCollectsNamesFromMapper() {
+        final XStream xstream = new XStream();
+        xstream.alias("software", Software.class);
+        xstream.aliasField("company", Software.class, "vendor");
+        final List<String> names = new BinaryDictionary(xstream.getMapper(), Software.class).getNames();
+        assertTrue(names.contains("software"));
+        assertTrue(names.contains("company"));
+        assertTrue(names.contains("name"));
+        assertTrue(names.contains("string"));
+        assertTrue(names.contains("class"));
+        assertTrue(names.contains("reference"));
+        assertFalse(names.contains("vendor"));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.copy.HierarchicalStreamCopier;
+import com.thoughtworks.xstream.io.xml.AbstractReaderTest;
+import com.thoughtworks.xstream.io.xml.MXParserDriver;
+
+
+public class BinaryStream2Test extends AbstractReaderTest {
+
+    private final HierarchicalStreamCopier copier = new HierarchicalStreamCopier();
+
+    // factory method
+    @SuppressWarnings("resource")
+    @Override
+    protected HierarchicalStreamReader createReader(final String xml) throws Exception {
+        // Transmogrify XML input into binary format.
+        final HierarchicalStreamReader xmlReader = new MXParserDriver().createReader(new StringReader(xml));
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final HierarchicalStreamWriter binaryWriter = new BinaryStream2Writer(buffer, 16);
+        copier.copy(xmlReader, binaryWriter);
+        binaryWriter.flush();
+
+        return new BinaryStream2Reader(new ByteArrayInputStream(buffer.toByteArray()));
+    }
+
+    public void testWritesTypedValues() {
+        final String[] texts = {
+            "0", "1", "-1", "true", "false", "9223372036854775807", "-9223372036854775808", "9223372036854775808",
+            "-9223372036854775809", "-0", "007", "+1", "1.0", "True", "", "12345678901234567890123",
+            "\u00e4\u20ac\ud83e\udd8a\ud83e\u0000"};
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final HierarchicalStreamWriter writer = new BinaryStream2Writer(buffer, 16)) {
+            writer.startNode("root");
+            for (final String text : texts) {
+                writer.startNode("value");
+                writer.addAttribute("text", text);
+                writer.setValue(text);
+                writer.endNode();
+            }
+            writer.endNode();
+        }
+
+        try (final HierarchicalStreamReader reader = new BinaryStream2Reader(new ByteArrayInputStream(buffer
+            .toByteArray()))) {
+            for (final String text : texts) {
+                assertTrue(reader.hasMoreChildren());
+                reader.moveDown();
+                assertEquals(text, reader.getAttribute("text"));
+                assertEquals(text, reader.getValue());
+                reader.moveUp();
+            }
+            assertFalse(reader.hasMoreChildren());
+        }
+    }
+
+    public void testWritesNumbersCompact() {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final HierarchicalStreamWriter writer = new BinaryStream2Writer(buffer)) {
+            writer.startNode("i");
+            writer.setValue("-2147483648");
+            writer.endNode();
+        }
+        // header, new node, name, value with 5 bytes number, end node
+        assertEquals(2 + 1 + 2 + 1 + 5 + 1, buffer.size());
+    }
+
+    public void testHandlesLongStrings() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; ++i) {
+            builder.append(i % 3 == 0 ? '\u00e4' : i % 7 == 0 ? '\u20ac' : (char)('a' + i % 26));
+        }
+        final String text = builder.toString();
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final HierarchicalStreamWriter writer = new BinaryStream2Writer(buffer)) {
+            writer.startNode("root");
+            writer.startNode("text");
+            writer.setValue(text);
+            writer.endNode();
+            writer.startNode("text");
+            writer.setValue(text);
+            writer.endNode();
+            writer.endNode();
+        }
+
+        try (final HierarchicalStreamReader reader = new BinaryStream2Reader(new ByteArrayInputStream(buffer
+            .toByteArray()))) {
+            reader.moveDown();
+            reader.moveUp();
+            reader.moveDown();
+            assertEquals(text, reader.getValue());
+            reader.moveUp();
+        }
+    }
+
+    public void testDriverReadsBothFormats() {
+        final Object[] data = {"Joe", Integer.valueOf(42), Boolean.TRUE, Long.valueOf(-7), new int[]{1, 2}};
+        final XStream xstream1 = new XStream(new BinaryStreamDriver());
+        final XStream xstream2 = new XStream(new BinaryStream2Driver());
+
+        final ByteArrayOutputStream buffer1 = new ByteArrayOutputStream();
+        xstream1.toXML(data, buffer1);
+        final ByteArrayOutputStream buffer2 = new ByteArrayOutputStream();
+        xstream2.toXML(data, buffer2);
+
+        assertTrue(buffer2.size() < buffer1.size());
+        final XStream xstream = new XStream();
+        final String xml = xstream.toXML(data);
+        assertEquals(xml, xstream.toXML(xstream1.fromXML(new ByteArrayInputStream(buffer2.toByteArray()))));
+        assertEquals(xml, xstream.toXML(xstream2.fromXML(new ByteArrayInputStream(buffer1.toByteArray()))));
+    }
+
+    public void testWritesOnlyIdsOfNamesInDictionary() {
+        final Object[] data = {"Joe", Integer.valueOf(42), new int[]{1, 2}};
+        final XStream xstream = new XStream();
+        final BinaryDictionary dictionary = new BinaryDictionary(xstream.getMapper(), Object[].class, String.class,
+            Integer.class, int[].class);
+        final XStream xstream1 = new XStream(new BinaryStream2Driver());
+        final XStream xstream2 = new XStream(new BinaryStream2Driver(dictionary));
+
+        final ByteArrayOutputStream buffer1 = new ByteArrayOutputStream();
+        xstream1.toXML(data, buffer1);
+        final ByteArrayOutputStream buffer2 = new ByteArrayOutputStream();
+        xstream2.toXML(data, buffer2);
+
+        assertTrue(buffer2.size() < buffer1.size() - 20);
+        final String xml = xstream.toXML(data);
+        assertEquals(xml, xstream.toXML(xstream2.fromXML(new ByteArrayInputStream(buffer2.toByteArray()))));
+        assertEquals(xml, xstream.toXML(xstream2.fromXML(new ByteArrayInputStream(buffer1.toByteArray()))));
+        try {
+            xstream1.fromXML(new ByteArrayInputStream(buffer2.toByteArray()));
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().contains("with a dictionary"));
+        }
+        try {
+            new XStream(new BinaryStream2Driver(new BinaryDictionary(Arrays.asList("int", "string")))).fromXML(
+                new ByteArrayInputStream(buffer2.toByteArray()));
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().contains("different dictionary"));
+        }
+    }
+
+    public void testFailsForUnknownId() {
+        final byte[] bytes = {
+            BinaryStream2Writer.HEADER, BinaryStream2Writer.VERSION, BinaryStream2Writer.TAG_START_NODE, 5};
+        try {
+            new BinaryStream2Reader(new ByteArrayInputStream(bytes));
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().contains("Unknown ID"));
+        }
+    }
+
+    public void testFailsForTruncatedStream() {
+        final byte[] bytes = {BinaryStream2Writer.HEADER, BinaryStream2Writer.VERSION,
+            BinaryStream2Writer.TAG_START_NEW_NODE, 127, 'a', 'b'};
+        try {
+            new BinaryStream2Reader(new ByteArrayInputStream(bytes));
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            // OK
+        }
+    }
+
+    public void testReadsByteBuffers() throws IOException {
+        final Object[] data = {"Joe", Integer.valueOf(42), "\u00e4\u20ac", new int[]{1, 2}};
+        final XStream xstream = new XStream();
+        final String xml = xstream.toXML(data);
+        final XStream xstream1 = new XStream(new BinaryStreamDriver());
+        final BinaryStream2Driver driver = new BinaryStream2Driver();
+        final XStream xstream2 = new XStream(driver);
+
+        final ByteArrayOutputStream buffer1 = new ByteArrayOutputStream();
+        xstream1.toXML(data, buffer1);
+        final ByteArrayOutputStream buffer2 = new ByteArrayOutputStream();
+        buffer2.write(new byte[]{7, 7, 7});
+        xstream2.toXML(data, buffer2);
+        final byte[] bytes = buffer2.toByteArray();
+
+        final ByteBuffer heap = ByteBuffer.wrap(bytes, 3, bytes.length - 3);
+        assertEquals(xml, xstream.toXML(xstream2.unmarshal(driver.createReader(heap))));
+        assertEquals(3, heap.position());
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip().position(3);
+        assertEquals(xml, xstream.toXML(xstream2.unmarshal(driver.createReader(direct))));
+        assertEquals(xml, xstream.toXML(xstream2.unmarshal(driver.createReader(ByteBuffer.wrap(buffer1
+            .toByteArray())))));
+
+        final File file = File.createTempFile(getName(), ".bin");
+        try {
+            Files.write(file.toPath(), bytes);
+            try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                channel.position(3);
+                assertEquals(xml, xstream.toXML(xstream2.unmarshal(driver.createReader(channel))));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
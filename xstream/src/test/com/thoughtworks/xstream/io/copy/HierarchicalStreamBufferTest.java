@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.copy;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.xml.AbstractReaderTest;
+import com.thoughtworks.xstream.io.xml.CompactWriter;
+import com.thoughtworks.xstream.io.xml.MXParserDriver;
+
+
+public class HierarchicalStreamBufferTest extends AbstractReaderTest {
+
+    private final HierarchicalStreamCopier copier = new HierarchicalStreamCopier();
+
+    @Override
+    protected HierarchicalStreamReader createReader(final String xml) throws Exception {
+        final HierarchicalStreamBuffer buffer = new HierarchicalStreamBuffer();
+        copier.copy(new MXParserDriver().createReader(new StringReader(xml)), buffer);
+        return buffer.createReader();
+    }
+
+    public void testReplaysEventsIntoWriter() throws Exception {
+        final String xml = "<root a=\"1\"><empty/><child b=\"2\" c=\"3\">text</child><child><x/></child></root>";
+        final HierarchicalStreamBuffer buffer = new HierarchicalStreamBuffer();
+        copier.copy(new MXParserDriver().createReader(new StringReader(xml)), buffer);
+        final StringWriter writer = new StringWriter();
+        buffer.writeTo(new CompactWriter(writer));
+        assertEquals(xml, writer.toString());
+    }
+
+    public void testSkipsUnreadChildrenWhenMovingUp() throws Exception {
+        final HierarchicalStreamReader reader = createReader("<root><a><b><c/></b><d/></a><e>text</e></root>");
+        reader.moveDown();
+        reader.moveDown();
+        assertEquals("b", reader.getNodeName());
+        assertEquals(3, reader.getLevel());
+        reader.moveUp();
+        reader.moveUp();
+        assertTrue(reader.hasMoreChildren());
+        assertEquals("e", reader.peekNextChild());
+        reader.moveDown();
+        assertEquals("text", reader.getValue());
+        reader.moveUp();
+        assertFalse(reader.hasMoreChildren());
+        assertNull(reader.peekNextChild());
+    }
+
+    public void testCanBeCleared() {
+        final HierarchicalStreamBuffer buffer = new HierarchicalStreamBuffer();
+        buffer.startNode("root");
+        buffer.endNode();
+        assertEquals(2, buffer.size());
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        try {
+            buffer.createReader();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // OK
+        }
+    }
+}
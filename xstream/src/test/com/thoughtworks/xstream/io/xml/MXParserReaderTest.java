@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2021 XStream Committers.
+ * Copyright (C) 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
 package com.thoughtworks.xstream.io.xml;
 
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import com.thoughtworks.xstream.XStreamException;
 import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
@@ -45,5 +47,32 @@ public class MXParserReaderTest extends AbstractXMLReaderTest {
         // no support for XML 1.1 for now
     }
 
+    public void testReadsByteBuffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap("<?xml version='1.0'?><a><b x='\u00e4'>\u20ac</b></a>".getBytes(
+            StandardCharsets.UTF_8));
+        try (final HierarchicalStreamReader reader = driver.createReader(buffer)) {
+            assertEquals("a", reader.getNodeName());
+            reader.moveDown();
+            assertEquals("\u00e4", reader.getAttribute("x"));
+            assertEquals("\u20ac", reader.getValue());
+            reader.moveUp();
+            assertFalse(reader.hasMoreChildren());
+        }
+    }
+
+    public void testReusesNamesOfSameElements() throws Exception {
+        final HierarchicalStreamReader reader = createReader("<list><entry k='1'/><entry k='2'/></list>");
+        reader.moveDown();
+        final String name = reader.getNodeName();
+        final String attribute = reader.getAttributeName(0);
+        reader.moveUp();
+        assertEquals(name, reader.peekNextChild());
+        reader.moveDown();
+        assertSame(name, reader.getNodeName());
+        assertSame(attribute, reader.getAttributeName(0));
+        reader.moveUp();
+        reader.close();
+    }
+
     // inherits tests from superclass
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2013, 2018, 2023, 2024 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2013, 2018, 2023, 2024, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,9 +11,12 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import com.thoughtworks.xstream.core.util.QuickWriter;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.StreamException;
 
 
@@ -111,6 +114,36 @@ public class PrettyPrintWriterTest extends AbstractXMLWriterTest {
         assertXmlProducedIs("<evil attr=\"hello _&_ stuff\">bye AND stuff</evil>");
     }
 
+    public void testWritesPartOfStringWithPureWriterByDefault() {
+        final StringBuilder text = new StringBuilder();
+        final PrettyPrintWriter.PureWriter pureWriter = new PrettyPrintWriter.PureWriter() {
+            @Override
+            public void write(final String str) {
+                text.append(str);
+            }
+
+            @Override
+            public void write(final char ch) {
+                text.append(ch);
+            }
+
+            @Override
+            public void write(final char[] chars) {
+                text.append(chars);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        pureWriter.write("bye & stuff", 6, 5);
+        assertEquals("stuff", text.toString());
+    }
+
     public void testSupportsUserDefinedEOL() {
         writer = new PrettyPrintWriter(buffer, "\t") {
             @Override
@@ -424,6 +457,61 @@ public class PrettyPrintWriterTest extends AbstractXMLWriterTest {
         assertXmlProducedIs("<tag>\uD83E\uDD8A</tag>");
     }
 
+    public void testEscapesTextLongerThanBuffer() {
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 300; ++i) {
+            text.append("plain text & <more> \u00e4\uD83E\uDD8A\r");
+            expected.append("plain text &amp; &lt;more&gt; \u00e4\uD83E\uDD8A&#xd;");
+        }
+        writer.startNode("tag");
+        writer.setValue(text.toString());
+        writer.endNode();
+
+        assertXmlProducedIs("<tag>" + expected + "</tag>");
+    }
+
+    public void testEscapesTabAndNewLineInAttributesOnly() {
+        writer.startNode("tag");
+        writer.addAttribute("attr", "a\tb\nc");
+        writer.setValue("a\tb\nc");
+        writer.endNode();
+
+        assertXmlProducedIs("<tag attr=\"a&#x9;b&#xa;c\">a\tb\nc</tag>");
+    }
+
+    public void testWritesUtf8BytesIntoOutputStream() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer = new PrettyPrintWriter(out, PrettyPrintWriter.XML_1_0, new XmlFriendlyNameCoder());
+        writer.startNode("tag");
+        writer.addAttribute("attr", "\u00e4&\t");
+        writer.startNode("inner");
+        writer.setValue("Gr\u00fc\u00dfe <\u65e5\uD83E\uDD8A>\r");
+        writer.endNode();
+        writer.endNode();
+        writer.close();
+
+        assertEquals(""
+            + "<tag attr=\"\u00e4&amp;&#x9;\">\n"
+            + "  <inner>Gr\u00fc\u00dfe &lt;\u65e5\uD83E\uDD8A&gt;&#xd;</inner>\n"
+            + "</tag>", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testDriverSelectsUtf8BytesForOutputStream() {
+        final XppDriver driver = new XppDriver();
+        assertFalse(driver.isDirectUtf8Output());
+        driver.setDirectUtf8Output(true);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final HierarchicalStreamWriter writer = driver.createWriter(out);
+        assertTrue(writer instanceof PrettyPrintWriter);
+        writer.startNode("tag");
+        writer.setValue("\u20ac");
+        writer.endNode();
+        writer.close();
+
+        assertEquals("<tag>\u20ac</tag>", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     private String replace(final String in, final char what, final String with) {
         final int pos = in.indexOf(what);
         if (pos == -1) {
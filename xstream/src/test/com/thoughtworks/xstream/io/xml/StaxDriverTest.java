@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2018, 2022 XStream Committers.
+ * Copyright (C) 2006, 2007, 2018, 2022, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,6 +10,10 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -72,4 +76,14 @@ public class StaxDriverTest extends AbstractAcceptanceTest {
             }
         }
     }
+
+    public void testCanWriteUtf8BytesDirectly() {
+        final StaxDriver driver = new StaxDriver();
+        driver.setDirectUtf8Output(true);
+        xstream = new XStream(driver);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xstream.toXML("Gr\u00fc\u00dfe", out);
+        assertEquals("<string>Gr\u00fc\u00dfe</string>", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("Gr\u00fc\u00dfe", xstream.fromXML(new ByteArrayInputStream(out.toByteArray())));
+    }
 }
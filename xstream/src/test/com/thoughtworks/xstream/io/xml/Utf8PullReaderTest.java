@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.thoughtworks.xstream.converters.ErrorWritingException;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.StreamException;
+
+
+public class Utf8PullReaderTest extends AbstractXMLReaderTest {
+
+    private final HierarchicalStreamDriver driver = new Utf8PullDriver();
+
+    // factory method
+    @Override
+    protected HierarchicalStreamReader createReader(final String xml) throws Exception {
+        return driver.createReader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void testIsXXEVulnerableWithExternalGeneralEntity() throws Exception {
+        try {
+            super.testIsXXEVulnerableWithExternalGeneralEntity();
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().contains("resolve entity"));
+        }
+    }
+
+    public void testReadsCharacters() {
+        final HierarchicalStreamReader reader = driver.createReader(new StringReader(
+            "<?xml version='1.0' encoding='ISO-8859-1'?><a b='\u00e4'>\ud83e\udd8a\u20ac</a>"));
+        assertEquals("\u00e4", reader.getAttribute("b"));
+        assertEquals("\ud83e\udd8a\u20ac", reader.getValue());
+        reader.close();
+    }
+
+    public void testReadsByteBufferWithoutModifyingIt() {
+        final byte[] bytes = "<a><b>\u00e4</b><b>&lt;&#x20ac;</b></a>".getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        buffer.put((byte)0).put(bytes).flip().position(1);
+        final HierarchicalStreamReader reader = driver.createReader(buffer);
+        reader.moveDown();
+        assertEquals("\u00e4", reader.getValue());
+        reader.moveUp();
+        reader.moveDown();
+        assertEquals("<\u20ac", reader.getValue());
+        reader.moveUp();
+        assertFalse(reader.hasMoreChildren());
+        reader.close();
+        assertEquals(1, buffer.position());
+    }
+
+    public void testRejectsOtherEncodings() throws Exception {
+        try {
+            createReader("<?xml version='1.0' encoding='ISO-8859-1'?><a/>");
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().contains("ISO-8859-1"));
+        }
+    }
+
+    public void testNormalizesLineBreaks() throws Exception {
+        final HierarchicalStreamReader reader = createReader("<a>1\r\n2\r3<![CDATA[\r\n]]></a>");
+        assertEquals("1\n2\n3\n", reader.getValue());
+        reader.close();
+    }
+
+    public void testReusesNamesOfSameElements() throws Exception {
+        final HierarchicalStreamReader reader = createReader("<list><entry k='1'/><entry k='2'/></list>");
+        reader.moveDown();
+        final String name = reader.getNodeName();
+        final String attribute = reader.getAttributeName(0);
+        reader.moveUp();
+        reader.moveDown();
+        assertSame(name, reader.getNodeName());
+        assertSame(attribute, reader.getAttributeName(0));
+        assertEquals("2", reader.getAttribute("k"));
+        reader.moveUp();
+        reader.close();
+    }
+
+    public void testFailsForMismatchingEndTag() throws Exception {
+        try (final HierarchicalStreamReader reader = createReader("<a><b>\n</c></a>")) {
+            reader.moveDown();
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().contains("does not match"));
+        }
+    }
+
+    public void testRejectsCharacterReferenceBeyondIntRange() throws Exception {
+        for (final String reference : new String[]{"&#xFFFFFFFF;", "&#x80000041;", "&#x110000;", "&#99999999;"}) {
+            try (final HierarchicalStreamReader reader = createReader("<a>" + reference + "</a>")) {
+                reader.getValue();
+                fail("Thrown " + StreamException.class.getName() + " expected for " + reference);
+            } catch (final StreamException e) {
+                assertTrue(e.getMessage().contains("Invalid character reference"));
+            }
+        }
+        try (final HierarchicalStreamReader reader = createReader("<a>&#x0010FFFF;</a>")) {
+            assertEquals(new String(Character.toChars(Character.MAX_CODE_POINT)), reader.getValue());
+        }
+    }
+
+    public void testReportsLineNumber() throws Exception {
+        final HierarchicalStreamReader reader = createReader("<a>\n<b>\n\n<c/></b></a>");
+        reader.moveDown();
+        reader.moveDown();
+        final ErrorWritingException exception = new ConversionException("test");
+        reader.appendErrors(exception);
+        assertEquals("4", exception.get("line number"));
+        reader.close();
+    }
+
+    @Override
+    public void testSupportsFieldsWithSpecialCharsInXml11() throws Exception {
+        // no support for XML 1.1 for now
+    }
+
+    // inherits tests from superclass
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.persistence;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+
+import junit.framework.TestCase;
+
+
+public class CachingPersistenceStrategyTest extends TestCase {
+
+    static class CountingStrategy implements PersistenceStrategy<String, String> {
+        final Map<String, String> map = new HashMap<>();
+        int reads;
+        int writes;
+        int removes;
+        int sizes;
+        boolean failing;
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return map.entrySet().iterator();
+        }
+
+        @Override
+        public int size() {
+            ++sizes;
+            return map.size();
+        }
+
+        @Override
+        public synchronized String get(final Object key) {
+            ++reads;
+            return map.get(key);
+        }
+
+        @Override
+        public synchronized String put(final String key, final String value) {
+            if (failing) {
+                throw new StreamException("Disk full");
+            }
+            ++writes;
+            return map.put(key, value);
+        }
+
+        @Override
+        public synchronized String remove(final Object key) {
+            ++removes;
+            return map.remove(key);
+        }
+    }
+
+    private final File baseDir = new File("target/tmp");
+    private CountingStrategy strategy;
+    private ScheduledExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        strategy = new CountingStrategy();
+        executor = Executors.newSingleThreadScheduledExecutor();
+        baseDir.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        final File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+        super.tearDown();
+    }
+
+    public void testReadsValueOnlyOnce() {
+        strategy.map.put("guilherme", "aCuteString");
+        final XmlMap<String, String> map = new XmlMap<>(new CachingPersistenceStrategy<>(strategy, 10));
+        for (int i = 0; i < 5; ++i) {
+            assertEquals("aCuteString", map.get("guilherme"));
+            assertNull(map.get("silveira"));
+        }
+        assertEquals(2, strategy.reads);
+    }
+
+    public void testReturnsCachedValueAsOldValue() {
+        final XmlMap<String, String> map = new XmlMap<>(new CachingPersistenceStrategy<>(strategy, 10));
+        assertNull(map.put("guilherme", "aCuteString"));
+        assertEquals("aCuteString", map.put("guilherme", "anotherCuteString"));
+        assertEquals("anotherCuteString", map.remove("guilherme"));
+        assertNull(map.remove("guilherme"));
+        assertEquals(1, strategy.reads);
+        assertEquals(0, strategy.map.size());
+    }
+
+    public void testEvictsLeastRecentlyUsedValues() {
+        strategy.map.put("a", "1");
+        strategy.map.put("b", "2");
+        strategy.map.put("c", "3");
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 2);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+        assertEquals(3, strategy.reads);
+        cache.get("a");
+        assertEquals(3, strategy.reads);
+        cache.get("b");
+        assertEquals(4, strategy.reads);
+    }
+
+    public void testEvictsByWeight() {
+        strategy.map.put("a", "1234");
+        strategy.map.put("b", "12345678");
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 10, 10,
+            String::length);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        assertEquals(3, strategy.reads);
+        cache.get("a");
+        assertEquals(3, strategy.reads);
+    }
+
+    public void testMaintainsSize() {
+        strategy.map.put("a", "1");
+        final XmlMap<String, String> map = new XmlMap<>(new CachingPersistenceStrategy<>(strategy, 1));
+        map.put("b", "2");
+        map.put("c", "3");
+        map.put("b", "4");
+        map.remove("a");
+        map.remove("x");
+        assertEquals(2, map.size());
+        assertEquals(2, map.size());
+        assertEquals(1, strategy.sizes);
+    }
+
+    public void testCoalescesWritesBehind() {
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 10,
+            Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS);
+        final XmlMap<String, String> map = new XmlMap<>(cache);
+        for (int i = 0; i < 5; ++i) {
+            map.put("guilherme", "aCuteString " + i);
+        }
+        map.put("silveira", "anotherCuteString");
+        map.remove("silveira");
+        assertEquals("aCuteString 4", map.get("guilherme"));
+        assertEquals(1, map.size());
+        assertEquals(0, strategy.writes);
+        cache.flush();
+        assertEquals(1, strategy.writes);
+        assertEquals(1, strategy.removes);
+        assertEquals("aCuteString 4", strategy.map.get("guilherme"));
+        assertFalse(strategy.map.containsKey("silveira"));
+    }
+
+    public void testWritesBehindAfterDelay() throws InterruptedException {
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 10,
+            Long.MAX_VALUE, null, executor, 10, TimeUnit.MILLISECONDS);
+        cache.put("guilherme", "aCuteString");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        synchronized (strategy) {
+            assertEquals("aCuteString", strategy.map.get("guilherme"));
+        }
+    }
+
+    public void testWritesBatchWhenPendingLimitIsReached() {
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 3,
+            Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals(0, strategy.writes);
+        cache.put("c", "3");
+        assertEquals(3, strategy.writes);
+    }
+
+    public void testKeepsFailedWritesPending() {
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 10,
+            Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        strategy.failing = true;
+        try {
+            cache.flush();
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertEquals("Disk full", e.getMessage());
+        }
+        assertEquals("1", cache.get("a"));
+        strategy.failing = false;
+        cache.close();
+        assertEquals("1", strategy.map.get("a"));
+        assertEquals("2", strategy.map.get("b"));
+    }
+
+    public void testRejectsModificationsWhenClosed() {
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(strategy, 10,
+            Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS);
+        cache.put("guilherme", "aCuteString");
+        cache.close();
+        assertEquals(1, strategy.writes);
+        try {
+            cache.put("silveira", "anotherCuteString");
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("Strategy is closed", e.getMessage());
+        }
+        try {
+            cache.remove("guilherme");
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            assertEquals("Strategy is closed", e.getMessage());
+        }
+        assertEquals("aCuteString", cache.get("guilherme"));
+        assertEquals(1, strategy.writes);
+        assertEquals(0, strategy.removes);
+    }
+
+    public void testLooksUpKeysWithoutFlushing() {
+        strategy.map.put("joerg", "aCuteString");
+        strategy.map.put("schaible", "anotherCuteString");
+        final XmlMap<String, String> map = new XmlMap<>(new CachingPersistenceStrategy<>(strategy, 10,
+            Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS));
+        map.put("guilherme", "aCuteString");
+        map.remove("joerg");
+        assertTrue(map.containsKey("guilherme"));
+        assertFalse(map.containsKey("joerg"));
+        assertTrue(map.containsKey("schaible"));
+        assertFalse(map.containsKey("silveira"));
+        assertEquals(0, strategy.writes);
+        assertEquals(0, strategy.removes);
+    }
+
+    public void testIteratesOverPendingValues() {
+        final XmlMap<String, String> map = new XmlMap<>(new CachingPersistenceStrategy<>(strategy, 10,
+            Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS));
+        map.put("guilherme", "aCuteString");
+        map.put("silveira", "anotherCuteString");
+        final Map<String, String> built = new HashMap<>(map);
+        assertEquals(2, built.size());
+        assertEquals("aCuteString", built.get("guilherme"));
+        for (final Iterator<String> iter = map.keySet().iterator(); iter.hasNext();) {
+            if (iter.next().equals("guilherme")) {
+                iter.remove();
+            }
+        }
+        assertEquals(1, map.size());
+        assertNull(map.get("guilherme"));
+    }
+
+    public void testCachesFilePersistenceStrategy() {
+        final XStream xstream = new XStream(new DomDriver());
+        final CachingPersistenceStrategy<String, String> cache = new CachingPersistenceStrategy<>(
+            new FilePersistenceStrategy<>(baseDir, xstream), 10, Long.MAX_VALUE, null, executor, 1, TimeUnit.HOURS);
+        final XmlMap<String, String> map = new XmlMap<>(cache);
+        map.put("guilherme", null);
+        map.put("silveira", "anotherCuteString");
+        assertEquals(2, map.size());
+        cache.close();
+        assertEquals(2, baseDir.list().length);
+
+        final XmlMap<String, String> reloaded = new XmlMap<>(new CachingPersistenceStrategy<>(
+            new FilePersistenceStrategy<>(baseDir, xstream), 10));
+        assertEquals(2, reloaded.size());
+        assertNull(reloaded.put("guilherme", "aCuteString"));
+        assertEquals(2, reloaded.size());
+        assertEquals("anotherCuteString", reloaded.remove("silveira"));
+        assertEquals(1, reloaded.size());
+        assertEquals(1, baseDir.list().length);
+    }
+}
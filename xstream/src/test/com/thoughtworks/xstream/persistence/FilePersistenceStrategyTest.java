@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008, 2009, 2018 XStream Committers.
+ * Copyright (C) 2008, 2009, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,11 +11,28 @@
 package com.thoughtworks.xstream.persistence;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.xml.DomDriver;
 
 import junit.framework.TestCase;
 
@@ -46,7 +63,9 @@ public class FilePersistenceStrategyTest extends TestCase {
     private void clear(final File dir) {
         final File[] files = dir.listFiles();
         for (final File file : files) {
-            if (file.isFile()) {
+            if (file.isDirectory()) {
+                clear(file);
+            } else if (file.isFile()) {
                 final boolean deleted = file.delete();
                 if (!deleted) {
                     throw new RuntimeException("Unable to continue testing: unable to remove file "
@@ -242,6 +261,52 @@ public class FilePersistenceStrategyTest extends TestCase {
         assertFalse(strategy.containsKey("guilherme"));
     }
 
+    public void testIteratesOverKeysWithoutReadingFiles() throws IOException {
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        try (FileWriter writer = new FileWriter(new File(baseDir, "silveira.xml"))) {
+            writer.write("<broken");
+        }
+        final XmlMap<String, String> map = new XmlMap<>(strategy);
+        assertEquals(new HashSet<>(Arrays.asList("guilherme", "silveira")), new HashSet<>(map.keySet()));
+        assertTrue(map.containsKey("silveira"));
+        for (final Iterator<String> iter = map.keySet().iterator(); iter.hasNext();) {
+            if (iter.next().equals("silveira")) {
+                iter.remove();
+            }
+        }
+        assertEquals(Collections.singletonMap("guilherme", "aCuteString"), new HashMap<>(map));
+    }
+
+    public void testReadsEntryValueOnlyOnce() {
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.put("guilherme", "aCuteString");
+        final Map.Entry<String, String> entry = strategy.iterator().next();
+        final String value = entry.getValue();
+        assertEquals("aCuteString", value);
+        assertSame(value, entry.getValue());
+        assertEquals("aCuteString", entry.setValue("anotherCuteString"));
+        assertEquals("anotherCuteString", entry.getValue());
+        assertEquals("anotherCuteString", strategy.get("guilherme"));
+    }
+
+    public void testIndexedListDoesNotRewriteFollowingElements() {
+        final FilePersistenceStrategy<Integer, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        final List<String> list = new XmlArrayList<>(strategy, true);
+        list.addAll(Arrays.asList("a", "b", "c"));
+        list.add(1, "x");
+        list.remove(0);
+        assertEquals(Arrays.asList("x", "b", "c"), list);
+        assertEquals("b", strategy.get(Integer.valueOf(1)));
+        assertEquals("x", strategy.get(Integer.valueOf(3)));
+        assertNull(strategy.get(Integer.valueOf(0)));
+        assertEquals(Arrays.asList("x", "b", "c"), new XmlArrayList<>(new FilePersistenceStrategy<>(baseDir), true));
+        list.clear();
+        assertEquals(1, baseDir.list().length);
+        assertTrue(new XmlArrayList<>(new FilePersistenceStrategy<>(baseDir), true).isEmpty());
+    }
+
     public void testRewritesAFile() {
         final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<String, String>(baseDir);
         strategy.put("guilherme", "aCuteString");
@@ -255,4 +320,173 @@ public class FilePersistenceStrategyTest extends TestCase {
         assertEquals("aCuteString", strategy.put("guilherme", "anotherCuteString"));
     }
 
+    static class Broken {
+    }
+
+    public void testKeepsOldValueIfWriteFails() {
+        final XStream xstream = new XStream(new DomDriver());
+        xstream.registerConverter(new Converter() {
+
+            @Override
+            public boolean canConvert(final Class<?> type) {
+                return type == Broken.class;
+            }
+
+            @Override
+            public void marshal(final Object source, final HierarchicalStreamWriter writer,
+                    final MarshallingContext context) {
+                writer.startNode("half");
+                throw new ConversionException("Broken");
+            }
+
+            @Override
+            public Object unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        final FilePersistenceStrategy<String, Object> strategy = new FilePersistenceStrategy<>(baseDir, xstream);
+        strategy.put("guilherme", "aCuteString");
+        try {
+            strategy.put("guilherme", new Broken());
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            // expected
+        }
+        assertEquals("aCuteString", strategy.get("guilherme"));
+        assertEquals(Arrays.asList("string@guilherme.xml"), Arrays.asList(baseDir.list()));
+    }
+
+    public void testSyncsEveryWrite() {
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.setSyncInterval(FilePersistenceStrategy.SYNC_ALWAYS);
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("guilherme", "anotherCuteString");
+        assertEquals("anotherCuteString", strategy.get("guilherme"));
+        assertEquals(1, baseDir.list().length);
+    }
+
+    public void testCommitsConcurrentWritesInGroups() throws InterruptedException {
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.setSyncInterval(20);
+        final List<Thread> threads = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            final String prefix = "thread" + i;
+            final Thread thread = new Thread(() -> {
+                for (int j = 0; j < 5; ++j) {
+                    strategy.put(prefix + "-" + j % 3, "value " + j);
+                }
+            });
+            thread.setUncaughtExceptionHandler((t, e) -> {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), errors);
+        assertEquals(24, baseDir.list().length);
+        assertEquals("value 3", strategy.get("thread5-0"));
+        assertEquals("value 4", strategy.get("thread7-1"));
+        assertEquals("value 2", strategy.get("thread0-2"));
+    }
+
+    public void testDistributesFilesIntoShards() {
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.setShardLevels(2);
+        for (int i = 0; i < 50; ++i) {
+            strategy.put("key" + i, "value" + i);
+        }
+        strategy.put("key7", "anotherValue");
+        assertEquals("value3", strategy.remove("key3"));
+        assertNull(strategy.remove("key3"));
+        assertEquals(49, strategy.size());
+        assertEquals("anotherValue", strategy.get("key7"));
+        assertTrue(strategy.containsKey("key42"));
+        assertEquals(0, baseDir.listFiles(file -> file.getName().endsWith(".xml")).length);
+
+        final Map<String, String> built = new HashMap<>();
+        for (final Iterator<Map.Entry<String, String>> iter = strategy.iterator(); iter.hasNext();) {
+            final Map.Entry<String, String> entry = iter.next();
+            built.put(entry.getKey(), entry.getValue());
+            if (entry.getKey().equals("key0")) {
+                iter.remove();
+            }
+        }
+        assertEquals(49, built.size());
+        assertEquals("value49", built.get("key49"));
+        assertEquals(48, strategy.size());
+    }
+
+    public void testDoesNotKeepCountOfFilesModifiedWhileCounting() throws InterruptedException {
+        final FilePersistenceStrategy<String, String> writer = new FilePersistenceStrategy<>(baseDir);
+        writer.setShardLevels(1);
+        writer.put("guilherme", "aCuteString");
+        writer.put("silveira", "anotherCuteString");
+        writer.put("joerg", "yetAnotherCuteString");
+        final AtomicBoolean counting = new AtomicBoolean();
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<String, String>(baseDir) {
+            @Override
+            protected boolean isValid(final File dir, final String name) {
+                final boolean valid = super.isValid(dir, name);
+                if (valid && counting.compareAndSet(true, false)) {
+                    // remove the file that has just been counted
+                    final Thread thread = new Thread(() -> remove(extractKey(name)));
+                    thread.start();
+                    try {
+                        thread.join(5000);
+                    } catch (final InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return valid;
+            }
+        };
+        counting.set(true);
+        strategy.size();
+        assertFalse(counting.get());
+        assertEquals(2, strategy.size());
+        strategy.put("guilherme", "aCuteString");
+        assertEquals(3, strategy.size());
+    }
+
+    public void testRecognizesShardedDirectory() {
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.setShardLevels(1);
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        strategy.flush();
+
+        FilePersistenceStrategy<String, String> reopened = new FilePersistenceStrategy<>(baseDir);
+        assertEquals(2, reopened.size());
+        assertEquals("aCuteString", reopened.get("guilherme"));
+        reopened.remove("guilherme");
+
+        // not flushed, entries are counted again
+        reopened = new FilePersistenceStrategy<>(baseDir);
+        assertEquals(1, reopened.size());
+        reopened.setShardLevels(1);
+        try {
+            reopened.setShardLevels(2);
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    public void testMovesExistingFilesIntoShards() {
+        final FilePersistenceStrategy<String, String> flat = new FilePersistenceStrategy<>(baseDir);
+        flat.put("guilherme", "aCuteString");
+        flat.put("silveira", "anotherCuteString");
+        final FilePersistenceStrategy<String, String> strategy = new FilePersistenceStrategy<>(baseDir);
+        strategy.setShardLevels(3);
+        assertEquals(2, strategy.size());
+        assertEquals("aCuteString", strategy.get("guilherme"));
+        assertEquals(Arrays.asList("manifest.properties"), Arrays.asList(baseDir.list(
+            (dir, name) -> new File(dir, name).isFile())));
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+
+import junit.framework.TestCase;
+
+
+public class LogPersistenceStrategyTest extends TestCase {
+
+    private final File baseDir = new File("target/tmp");
+    private XStream xstream;
+    private LogPersistenceStrategy<String, String> strategy;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clear();
+        xstream = new XStream(new DomDriver());
+        strategy = open(1024);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        strategy.close();
+        clear();
+        super.tearDown();
+    }
+
+    private void clear() {
+        final File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+    }
+
+    private LogPersistenceStrategy<String, String> open(final long maxSegmentSize) {
+        return new LogPersistenceStrategy<>(baseDir, xstream, maxSegmentSize, null);
+    }
+
+    private LogPersistenceStrategy<String, String> reopen() {
+        strategy.close();
+        strategy = open(1024);
+        return strategy;
+    }
+
+    public void testWritesAndReadsValues() {
+        assertNull(strategy.put("guilherme", "aCuteString"));
+        assertNull(strategy.put("silveira", "anotherCuteString"));
+        assertEquals("aCuteString", strategy.put("guilherme", "yetAnotherCuteString"));
+        assertEquals("yetAnotherCuteString", strategy.get("guilherme"));
+        assertEquals("anotherCuteString", strategy.get("silveira"));
+        assertNull(strategy.get("joerg"));
+        assertEquals(2, strategy.size());
+    }
+
+    public void testRemovesValues() {
+        strategy.put("guilherme", "aCuteString");
+        assertEquals("aCuteString", strategy.remove("guilherme"));
+        assertNull(strategy.remove("guilherme"));
+        assertNull(strategy.get("guilherme"));
+        assertEquals(0, strategy.size());
+    }
+
+    public void testLooksUpKeysInIndex() {
+        strategy.put("guilherme", null);
+        final XmlMap<String, String> map = new XmlMap<>(strategy);
+        assertTrue(map.containsKey("guilherme"));
+        assertFalse(map.containsKey("silveira"));
+        strategy.remove("guilherme");
+        assertFalse(map.containsKey("guilherme"));
+    }
+
+    public void testStoresNullKeyAndValue() {
+        strategy.put(null, "aCuteString");
+        strategy.put("guilherme", null);
+        assertEquals(2, strategy.size());
+        reopen();
+        assertEquals("aCuteString", strategy.get(null));
+        assertNull(strategy.get("guilherme"));
+        assertEquals(2, strategy.size());
+    }
+
+    public void testRecoversIndexFromSegments() {
+        for (int i = 0; i < 100; ++i) {
+            strategy.put("key" + i % 10, "value" + i);
+        }
+        strategy.remove("key3");
+        assertTrue(baseDir.list().length > 1);
+        reopen();
+        assertEquals(9, strategy.size());
+        assertEquals("value95", strategy.get("key5"));
+        assertNull(strategy.get("key3"));
+    }
+
+    public void testDiscardsIncompleteRecordAtEndOfLog() throws IOException {
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        strategy.close();
+        final File segment = new File(baseDir, baseDir.list()[0]);
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        strategy = open(1024);
+        assertEquals(1, strategy.size());
+        assertEquals("aCuteString", strategy.get("guilherme"));
+        strategy.put("silveira", "yetAnotherCuteString");
+        assertEquals("yetAnotherCuteString", reopen().get("silveira"));
+    }
+
+    public void testCompactsOutdatedSegments() {
+        for (int i = 0; i < 200; ++i) {
+            strategy.put("key" + i % 5, "value" + i);
+        }
+        strategy.remove("key0");
+        final int segments = baseDir.list().length;
+        assertTrue(segments > 3);
+        strategy.compact();
+        assertTrue(baseDir.list().length < segments);
+        assertEquals(4, strategy.size());
+        assertEquals("value199", strategy.get("key4"));
+        reopen();
+        assertEquals(4, strategy.size());
+        assertEquals("value196", strategy.get("key1"));
+        assertNull(strategy.get("key0"));
+    }
+
+    public void testCompactsInBackground() {
+        strategy.close();
+        strategy = new LogPersistenceStrategy<>(baseDir, xstream, 512, Runnable::run);
+        for (int i = 0; i < 500; ++i) {
+            strategy.put("key" + i % 3, "value" + i);
+        }
+        assertTrue(baseDir.list().length <= 3);
+        assertEquals("value498", strategy.get("key0"));
+        assertEquals("value499", reopen().get("key1"));
+    }
+
+    public void testServesRequestsWhileCompacting() throws InterruptedException {
+        for (int i = 0; i < 200; ++i) {
+            strategy.put("key" + i % 5, "value" + i);
+        }
+        strategy.close();
+        final Thread compactor = Thread.currentThread();
+        final AtomicBoolean compacting = new AtomicBoolean();
+        final String[] read = new String[1];
+        final AtomicBoolean served = new AtomicBoolean();
+        xstream = new XStream(new DomDriver()) {
+            @Override
+            public <T> T fromXML(final InputStream input) {
+                if (Thread.currentThread() == compactor && compacting.compareAndSet(true, false)) {
+                    final Thread thread = new Thread(() -> {
+                        strategy.put("key0", "concurrent");
+                        read[0] = strategy.get("key1");
+                    });
+                    thread.start();
+                    try {
+                        thread.join(5000);
+                        served.set(!thread.isAlive());
+                    } catch (final InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.fromXML(input);
+            }
+        };
+        strategy = open(1024);
+        compacting.set(true);
+        strategy.compact();
+        assertFalse(compacting.get());
+        assertTrue(served.get());
+        assertEquals("value196", read[0]);
+        assertEquals("concurrent", strategy.get("key0"));
+        assertEquals("concurrent", reopen().get("key0"));
+        assertEquals("value199", strategy.get("key4"));
+    }
+
+    public void testUsesBinaryDriver() {
+        strategy.close();
+        xstream = new XStream(new BinaryStreamDriver());
+        strategy = open(1024);
+        strategy.put("guilherme", "aCuteString");
+        assertEquals("aCuteString", reopen().get("guilherme"));
+    }
+
+    public void testIteratesOverEntriesAndRemovesThem() {
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        final Map<String, String> built = new HashMap<>();
+        for (final Iterator<Map.Entry<String, String>> iter = strategy.iterator(); iter.hasNext();) {
+            final Map.Entry<String, String> entry = iter.next();
+            built.put(entry.getKey(), entry.getValue());
+            if (entry.getKey().equals("guilherme")) {
+                iter.remove();
+            }
+        }
+        assertEquals(2, built.size());
+        assertEquals("anotherCuteString", built.get("silveira"));
+        assertEquals(1, strategy.size());
+    }
+
+    public void testBacksXmlArrayList() {
+        final LogPersistenceStrategy<Integer, String> listStrategy = new LogPersistenceStrategy<>(new File(baseDir,
+            "list"), xstream, 1024, null);
+        try {
+            final List<String> list = new XmlArrayList<>(listStrategy);
+            list.addAll(Arrays.asList("a", "b", "c"));
+            list.remove(1);
+            assertEquals(new ArrayList<>(Arrays.asList("a", "c")), new ArrayList<>(list));
+        } finally {
+            listStrategy.close();
+            for (final File file : new File(baseDir, "list").listFiles()) {
+                file.delete();
+            }
+            new File(baseDir, "list").delete();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2007, 2008, 2009, 2018 XStream Committers.
+ * Copyright (C) 2007, 2008, 2009, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.persistence;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -254,9 +255,75 @@ public class XmlArrayListTest extends TestCase {
         assertFalse(xmlList.contains("guilherme"));
     }
 
+    public void testIndexedListStoresElementsWithStableKeys() {
+        final XmlArrayList<String> xmlList = new XmlArrayList<String>(strategy, true);
+        xmlList.add("guilherme");
+        xmlList.add("silveira");
+        xmlList.add(0, "joerg");
+        assertEquals("joerg", xmlList.get(0));
+        assertEquals("guilherme", xmlList.get(1));
+        assertEquals("guilherme", strategy.map.get(Integer.valueOf(0)));
+        assertEquals("silveira", strategy.map.get(Integer.valueOf(1)));
+        assertEquals("joerg", strategy.map.get(Integer.valueOf(2)));
+        assertEquals("guilherme", xmlList.remove(1));
+        assertEquals("silveira", xmlList.set(1, "schaible"));
+        assertFalse(strategy.map.containsKey(Integer.valueOf(0)));
+        assertEquals("schaible", strategy.map.get(Integer.valueOf(1)));
+        assertEquals(2, xmlList.size());
+    }
+
+    public void testIndexedListRestoresOrderFromIndex() {
+        final XmlArrayList<String> xmlList = new XmlArrayList<String>(strategy, true);
+        xmlList.add("guilherme");
+        xmlList.add(0, "silveira");
+        final List<String> built = new XmlArrayList<String>(strategy, true);
+        assertEquals(2, built.size());
+        assertEquals("silveira", built.get(0));
+        assertEquals("guilherme", built.get(1));
+    }
+
+    public void testOpensPositionalListAsIndexedList() {
+        final XmlArrayList<String> xmlList = new XmlArrayList<String>(strategy);
+        xmlList.add("guilherme");
+        xmlList.add("silveira");
+        final XmlArrayList<String> indexed = new XmlArrayList<String>(strategy, true);
+        assertEquals(xmlList, indexed);
+        indexed.add(1, "joerg");
+        assertEquals("joerg", indexed.get(1));
+        assertEquals("silveira", indexed.get(2));
+        assertEquals("silveira", strategy.map.get(Integer.valueOf(1)));
+    }
+
+    public void testIndexedListWritesOnlyAffectedPartOfIndex() {
+        final XmlArrayList<String> xmlList = new XmlArrayList<String>(strategy, true);
+        final List<String> elements = new ArrayList<String>();
+        for (int i = 0; i < 300; i++) {
+            elements.add("element" + i);
+        }
+        xmlList.addAll(elements);
+        assertEquals(303, strategy.written.size());
+        assertEquals(Arrays.asList(Integer.valueOf(-2), Integer.valueOf(-3), Integer.valueOf(-1)), strategy.written
+            .subList(300, 303));
+
+        strategy.written.clear();
+        xmlList.add("guilherme");
+        assertEquals(Arrays.asList(Integer.valueOf(300), Integer.valueOf(-3)), strategy.written);
+
+        strategy.written.clear();
+        xmlList.add(0, "silveira");
+        assertEquals(Arrays.asList(Integer.valueOf(301), Integer.valueOf(-4), Integer.valueOf(-1), Integer.valueOf(
+            -2)), strategy.written);
+
+        elements.add("guilherme");
+        elements.add(0, "silveira");
+        assertEquals(elements, xmlList);
+        assertEquals(elements, new XmlArrayList<String>(strategy, true));
+    }
+
     private static class MockedStrategy<V> implements PersistenceStrategy<Integer, V> {
 
         private final Map<Integer, V> map = new HashMap<Integer, V>();
+        private final List<Integer> written = new ArrayList<Integer>();
 
         @Override
         public Iterator<Map.Entry<Integer, V>> iterator() {
@@ -275,6 +342,7 @@ public class XmlArrayListTest extends TestCase {
 
         @Override
         public V put(final Integer key, final V value) {
+            written.add(key);
             return map.put(key, value);
         }
 